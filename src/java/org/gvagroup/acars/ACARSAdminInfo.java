@@ -1,15 +1,16 @@
-// Copyright 2005, 2006, 2007, 2008, 2009, 2012, 2013, 2014, 2016 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2005, 2006, 2007, 2008, 2009, 2012, 2013, 2014, 2016, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.acars;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
-import org.gvagroup.ipc.IPCInfo;
+import org.gvagroup.ipc.*;
 
 /**
  * An interface to allow ACARS implementations to return Connection Pool
  * diagnostics and map entries.
  * @author Luke
- * @version 2.10
+ * @version 3.12
  * @since 1.0
  */
 
@@ -23,6 +24,15 @@ public interface ACARSAdminInfo<RouteEntry> extends IPCInfo {
 	 */
 	public Collection<byte[]> getPoolInfo(boolean showHidden);
 
+	/**
+	 * Returns all current Connection data encoded into a single payload by an {@link IPCCodec}.
+	 * @param showHidden TRUE if stealth connections should be displayed, otherwise FALSE
+	 * @return the encoded payload, or null if not supported, in which case callers should use {@link ACARSAdminInfo#getPoolInfo(boolean)}
+	 */
+	public default byte[] getEncodedPoolInfo(boolean showHidden) {
+		return null;
+	}
+
 	/**
 	 * Returns the positions of all ACARS flights in a serialized fashion,
 	 * suitable for transfer between virtual machines and class loaders. Each
@@ -33,18 +43,77 @@ public interface ACARSAdminInfo<RouteEntry> extends IPCInfo {
 	@Override
 	public Collection<byte[]> getSerializedInfo();
 
+	/**
+	 * Returns the positions of ACARS flights added, changed or removed since a version, in a serialized fashion. Implementations should
+	 * use a {@link DeltaTracker} keyed by flight ID.
+	 * @param sinceVersion the version returned by the caller's last request, or zero for all positions
+	 * @return an IPCDelta, containing all positions if the version is too old
+	 */
+	@Override
+	public default IPCDelta<?> getSerializedInfo(long sinceVersion) {
+		return IPCInfo.super.getSerializedInfo(sinceVersion);
+	}
+
+	/**
+	 * Returns the positions of ACARS flights within a map viewport in a serialized fashion. Implementations should use a {@link PositionIndex}
+	 * so the number of positions returned scales with the viewport and zoom level rather than the total traffic. The default implementation
+	 * returns all positions.
+	 * @param bounds the viewport GeoBounds
+	 * @param zoom the map zoom level
+	 * @return a Collection of byte arrays
+	 */
+	public default Collection<byte[]> getSerializedInfo(GeoBounds bounds, int zoom) {
+		return getSerializedInfo();
+	}
+
+	/**
+	 * Returns an ACARS flight's route encoded into a single payload by a {@link TrackCodec}, optionally simplified so clients displaying
+	 * the route at a low zoom level do not receive every position.
+	 * @param flightID the ACARS flight ID
+	 * @param tolerance the simplification tolerance in meters, or zero for every position
+	 * @return the encoded payload, or null if not supported or the flight is not found
+	 */
+	public default byte[] getEncodedRoute(int flightID, double tolerance) {
+		return null;
+	}
+
 	/**
 	 * Returns the curent ACARS Flight IDs.
 	 * @return a Collection of Integer flight IDs
 	 */
 	public Collection<Integer> getFlightIDs();
 
+	/**
+	 * Returns the current ACARS Flight IDs as primitives. Implementations should override this to avoid boxing every flight ID, and the
+	 * default implementation unboxes the result of {@link ACARSAdminInfo#getFlightIDs()}.
+	 * @return an array of flight IDs
+	 */
+	public default int[] getFlightIDArray() {
+		return getFlightIDs().stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Returns the current ACARS Flight IDs as a stream.
+	 * @return an IntStream of flight IDs
+	 */
+	public default IntStream getFlightIDStream() {
+		return IntStream.of(getFlightIDArray());
+	}
+
 	/**
 	 * Returns connection statisitcs.
 	 * @return a Collection of ConnectionStats beans
 	 */
 	public Collection<?> getStatistics();
 
+	/**
+	 * Returns connection statistics as a flat snapshot, with one row per connection.
+	 * @return a StatisticsSnapshot, or null if not supported, in which case callers should use {@link ACARSAdminInfo#getStatistics()}
+	 */
+	public default StatisticsSnapshot getStatisticsSnapshot() {
+		return null;
+	}
+
 	/**
 	 * Returns the number of active ACARS Connections.
 	 * @return the number of connections
@@ -0,0 +1,148 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.acars;
+
+import org.gvagroup.ipc.IPCSchema;
+
+/**
+ * A mutable bean to store a flight's state at a point in time. Instances are intended to be reused when reading from a
+ * {@link FlightStateStore}, so reading or exporting flight state does not allocate an object per flight.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class FlightState {
+
+	/**
+	 * The IPC schema for flight state, used by {@link FlightStateStore#encode()}.
+	 */
+	public static final IPCSchema<FlightState> SCHEMA = IPCSchema.builder(FlightState::new).addInt("id", FlightState::getID, FlightState::setID)
+		.addDouble("lat", FlightState::getLatitude, FlightState::setLatitude).addDouble("lng", FlightState::getLongitude, FlightState::setLongitude)
+		.addInt("alt", FlightState::getAltitude, FlightState::setAltitude).addInt("hdg", FlightState::getHeading, FlightState::setHeading)
+		.addInt("spd", FlightState::getSpeed, FlightState::setSpeed).addLong("time", FlightState::getTime, FlightState::setTime).build();
+
+	private int _id;
+	private double _lat;
+	private double _lng;
+	private int _alt;
+	private int _hdg;
+	private int _spd;
+	private long _time;
+
+	/**
+	 * Returns the flight ID.
+	 * @return the ID
+	 */
+	public int getID() {
+		return _id;
+	}
+
+	/**
+	 * Returns the latitude.
+	 * @return the latitude in degrees
+	 */
+	public double getLatitude() {
+		return _lat;
+	}
+
+	/**
+	 * Returns the longitude.
+	 * @return the longitude in degrees
+	 */
+	public double getLongitude() {
+		return _lng;
+	}
+
+	/**
+	 * Returns the altitude.
+	 * @return the altitude in feet
+	 */
+	public int getAltitude() {
+		return _alt;
+	}
+
+	/**
+	 * Returns the heading.
+	 * @return the heading in degrees
+	 */
+	public int getHeading() {
+		return _hdg;
+	}
+
+	/**
+	 * Returns the ground speed.
+	 * @return the speed in knots
+	 */
+	public int getSpeed() {
+		return _spd;
+	}
+
+	/**
+	 * Returns the time of this state.
+	 * @return the time in milliseconds since the epoch
+	 */
+	public long getTime() {
+		return _time;
+	}
+
+	/**
+	 * Updates the flight ID.
+	 * @param id the ID
+	 */
+	public void setID(int id) {
+		_id = id;
+	}
+
+	/**
+	 * Updates the latitude.
+	 * @param lat the latitude in degrees
+	 */
+	public void setLatitude(double lat) {
+		_lat = lat;
+	}
+
+	/**
+	 * Updates the longitude.
+	 * @param lng the longitude in degrees
+	 */
+	public void setLongitude(double lng) {
+		_lng = lng;
+	}
+
+	/**
+	 * Updates the altitude.
+	 * @param alt the altitude in feet
+	 */
+	public void setAltitude(int alt) {
+		_alt = alt;
+	}
+
+	/**
+	 * Updates the heading.
+	 * @param hdg the heading in degrees
+	 */
+	public void setHeading(int hdg) {
+		_hdg = hdg;
+	}
+
+	/**
+	 * Updates the ground speed.
+	 * @param spd the speed in knots
+	 */
+	public void setSpeed(int spd) {
+		_spd = spd;
+	}
+
+	/**
+	 * Updates the time of this state.
+	 * @param time the time in milliseconds since the epoch
+	 */
+	public void setTime(long time) {
+		_time = time;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d [%.4f,%.4f] %dft %d/%dkts @ %d", Integer.valueOf(_id), Double.valueOf(_lat), Double.valueOf(_lng), Integer.valueOf(_alt),
+			Integer.valueOf(_hdg), Integer.valueOf(_spd), Long.valueOf(_time));
+	}
+}
@@ -0,0 +1,317 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.acars;
+
+import java.io.IOException;
+import java.lang.invoke.*;
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.*;
+
+import org.gvagroup.ipc.*;
+
+/**
+ * A store of the latest state of live ACARS flights, held in primitive arrays rather than one object per flight. Each flight is assigned a
+ * slot, and each slot holds a fixed-size ring of its most recent states, so position history is kept without allocating.<br>
+ * <br>
+ * The store has a single writer and any number of readers, and neither takes a lock. Each slot has a sequence lock, which the writer makes
+ * odd while updating the slot and even when done. Readers retry if the sequence is odd or changes while they read the slot. Only one thread
+ * may call {@link FlightStateStore#update(int, double, double, int, int, int, long)} and {@link FlightStateStore#remove(int)}.<br>
+ * <br>
+ * {@link FlightStateStore#encode()} writes the latest state of every flight straight from the arrays into an {@link IPCCodec} payload that can
+ * be decoded with {@link FlightState#SCHEMA}, using a single reusable FlightState.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class FlightStateStore {
+
+	private static final Logger log = LogManager.getLogger(FlightStateStore.class);
+
+	private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+	private final int _capacity;
+	private final int _depth;
+	private final int _mask;
+
+	// Per slot
+	private final long[] _seq;
+	private final int[] _ids;
+	private final long[] _counts;
+
+	// Per slot and history entry
+	private final double[] _lat;
+	private final double[] _lng;
+	private final int[] _alt;
+	private final int[] _hdg;
+	private final int[] _spd;
+	private final long[] _time;
+
+	private final Map<Integer, Integer> _slots = new ConcurrentHashMap<Integer, Integer>();
+	private final int[] _free;
+	private int _freeCount;
+	private volatile int _maxSlot;
+
+	/**
+	 * Creates the store.
+	 * @param capacity the maximum number of flights
+	 * @param depth the number of states to keep for each flight, rounded up to a power of two
+	 */
+	public FlightStateStore(int capacity, int depth) {
+		super();
+		_capacity = Math.max(1, capacity);
+		int d = Math.max(1, depth);
+		_depth = (Integer.bitCount(d) == 1) ? d : (Integer.highestOneBit(d) << 1);
+		_mask = _depth - 1;
+		_seq = new long[_capacity];
+		_ids = new int[_capacity];
+		_counts = new long[_capacity];
+		int size = _capacity * _depth;
+		_lat = new double[size];
+		_lng = new double[size];
+		_alt = new int[size];
+		_hdg = new int[size];
+		_spd = new int[size];
+		_time = new long[size];
+		_free = new int[_capacity];
+		for (int x = 0; x < _capacity; x++)
+			_free[x] = _capacity - x - 1;
+
+		_freeCount = _capacity;
+	}
+
+	/**
+	 * Returns the maximum number of flights.
+	 * @return the number of flights
+	 */
+	public int getCapacity() {
+		return _capacity;
+	}
+
+	/**
+	 * Returns the number of states kept for each flight.
+	 * @return the number of states
+	 */
+	public int getDepth() {
+		return _depth;
+	}
+
+	/**
+	 * Returns the number of flights.
+	 * @return the number of flights
+	 */
+	public int size() {
+		return _slots.size();
+	}
+
+	/**
+	 * Returns the IDs of the flights in the store.
+	 * @return an array of flight IDs
+	 */
+	public int[] getFlightIDs() {
+		return _slots.keySet().stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Records a flight's state. This must only be called by the writer thread.
+	 * @param id the flight ID, which must not be zero
+	 * @param lat the latitude in degrees
+	 * @param lng the longitude in degrees
+	 * @param alt the altitude in feet
+	 * @param hdg the heading in degrees
+	 * @param spd the ground speed in knots
+	 * @param time the time in milliseconds since the epoch
+	 * @return TRUE if the state was recorded, or FALSE if the store is full
+	 */
+	public boolean update(int id, double lat, double lng, int alt, int hdg, int spd, long time) {
+		if (id == 0)
+			throw new IllegalArgumentException("Invalid flight ID");
+
+		Integer slotID = _slots.get(Integer.valueOf(id));
+		int slot;
+		if (slotID == null) {
+			if (_freeCount == 0) {
+				log.warn("Flight state store full, cannot add Flight {}", Integer.valueOf(id));
+				return false;
+			}
+
+			slot = _free[--_freeCount];
+		} else
+			slot = slotID.intValue();
+
+		long seq = _seq[slot];
+		LONGS.setOpaque(_seq, slot, seq + 1);
+		VarHandle.storeStoreFence();
+		long n = _counts[slot];
+		int idx = (slot * _depth) + (int) (n & _mask);
+		_lat[idx] = lat;
+		_lng[idx] = lng;
+		_alt[idx] = alt;
+		_hdg[idx] = hdg;
+		_spd[idx] = spd;
+		_time[idx] = time;
+		_counts[slot] = n + 1;
+		_ids[slot] = id;
+		LONGS.setRelease(_seq, slot, seq + 2);
+		if (slotID == null) {
+			_slots.put(Integer.valueOf(id), Integer.valueOf(slot));
+			if (slot >= _maxSlot)
+				_maxSlot = slot + 1;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Removes a flight. This must only be called by the writer thread.
+	 * @param id the flight ID
+	 * @return TRUE if the flight was removed, otherwise FALSE
+	 */
+	public boolean remove(int id) {
+		Integer slotID = _slots.remove(Integer.valueOf(id));
+		if (slotID == null) return false;
+		int slot = slotID.intValue();
+		long seq = _seq[slot];
+		LONGS.setOpaque(_seq, slot, seq + 1);
+		VarHandle.storeStoreFence();
+		_ids[slot] = 0;
+		_counts[slot] = 0;
+		LONGS.setRelease(_seq, slot, seq + 2);
+		_free[_freeCount++] = slot;
+		return true;
+	}
+
+	/*
+	 * Copies a history entry into a FlightState.
+	 */
+	private void copy(int id, int idx, FlightState fs) {
+		fs.setID(id);
+		fs.setLatitude(_lat[idx]);
+		fs.setLongitude(_lng[idx]);
+		fs.setAltitude(_alt[idx]);
+		fs.setHeading(_hdg[idx]);
+		fs.setSpeed(_spd[idx]);
+		fs.setTime(_time[idx]);
+	}
+
+	/*
+	 * Reads the latest state in a slot.
+	 */
+	private boolean readSlot(int slot, int id, FlightState fs) {
+		while (true) {
+			long seq = (long) LONGS.getAcquire(_seq, slot);
+			if ((seq & 1) != 0) {
+				Thread.onSpinWait();
+				continue;
+			}
+
+			int slotFlightID = (int) INTS.getOpaque(_ids, slot);
+			long n = _counts[slot];
+			boolean isValid = (n > 0) && (slotFlightID != 0) && ((id == 0) || (slotFlightID == id));
+			if (isValid)
+				copy(slotFlightID, (slot * _depth) + (int) ((n - 1) & _mask), fs);
+
+			VarHandle.loadLoadFence();
+			if (seq == (long) LONGS.getAcquire(_seq, slot))
+				return isValid;
+		}
+	}
+
+	/**
+	 * Reads a flight's latest state.
+	 * @param id the flight ID
+	 * @param fs the FlightState to copy the state into
+	 * @return TRUE if the flight was found, otherwise FALSE
+	 */
+	public boolean get(int id, FlightState fs) {
+		Integer slotID = _slots.get(Integer.valueOf(id));
+		return (slotID != null) && readSlot(slotID.intValue(), id, fs);
+	}
+
+	/**
+	 * Reads a flight's recent states, newest first.
+	 * @param id the flight ID
+	 * @param states an array of FlightStates to copy the states into
+	 * @return the number of states copied
+	 */
+	public int getHistory(int id, FlightState[] states) {
+		Integer slotID = _slots.get(Integer.valueOf(id));
+		if (slotID == null) return 0;
+		int slot = slotID.intValue();
+		while (true) {
+			long seq = (long) LONGS.getAcquire(_seq, slot);
+			if ((seq & 1) != 0) {
+				Thread.onSpinWait();
+				continue;
+			}
+
+			int cnt = 0;
+			if ((int) INTS.getOpaque(_ids, slot) == id) {
+				long n = _counts[slot];
+				cnt = (int) Math.min(Math.min(n, _depth), states.length);
+				for (int x = 0; x < cnt; x++)
+					copy(id, (slot * _depth) + (int) ((n - 1 - x) & _mask), states[x]);
+			}
+
+			VarHandle.loadLoadFence();
+			if (seq == (long) LONGS.getAcquire(_seq, slot))
+				return cnt;
+		}
+	}
+
+	/**
+	 * Writes the latest state of every flight into a buffer, encoded with {@link FlightState#SCHEMA}.
+	 * @param buf the ByteBuffer to write to
+	 * @return the number of flights written
+	 * @throws BufferOverflowException if the buffer is too small, in which case its position is undefined
+	 */
+	public int export(ByteBuffer buf) {
+		FlightState fs = new FlightState();
+		int cnt = 0;
+		int maxSlot = _maxSlot;
+		for (int slot = 0; slot < maxSlot; slot++) {
+			if (readSlot(slot, 0, fs)) {
+				FlightState.SCHEMA.write(fs, buf);
+				cnt++;
+			}
+		}
+
+		return cnt;
+	}
+
+	/**
+	 * Writes the latest state of every flight as records, encoded with {@link FlightState#SCHEMA}.
+	 * @param out the RecordWriter to write to
+	 * @return the number of flights written
+	 * @throws IOException if an I/O error occurs
+	 */
+	public int export(RecordWriter out) throws IOException {
+		FlightState fs = new FlightState();
+		int cnt = 0;
+		int maxSlot = _maxSlot;
+		for (int slot = 0; slot < maxSlot; slot++) {
+			if (readSlot(slot, 0, fs)) {
+				out.write(fs, FlightState.SCHEMA);
+				cnt++;
+			}
+		}
+
+		return cnt;
+	}
+
+	/**
+	 * Encodes the latest state of every flight into an IPC payload, which can be decoded with {@link FlightState#SCHEMA}.
+	 * @return the encoded payload
+	 * @throws IllegalArgumentException if the payload is larger than {@link IPCCodec#MAX_SIZE}
+	 */
+	public byte[] encode() {
+		return IPCCodec.encodePayload(FlightState.SCHEMA.getFingerprint(), 4096, this::export);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("FlightStateStore [%d/%d x %d]", Integer.valueOf(size()), Integer.valueOf(_capacity), Integer.valueOf(_depth));
+	}
+}
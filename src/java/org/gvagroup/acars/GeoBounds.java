@@ -0,0 +1,118 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.acars;
+
+/**
+ * A bean to store a latitude/longitude bounding box, such as a map viewport. If the western longitude is greater than the eastern
+ * longitude, the box crosses the antimeridian.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class GeoBounds implements java.io.Serializable {
+
+	private static final long serialVersionUID = 5462987726810925437L;
+
+	/**
+	 * The entire world.
+	 */
+	public static final GeoBounds WORLD = new GeoBounds(-90, -180, 90, 180);
+
+	private final double _minLat;
+	private final double _minLng;
+	private final double _maxLat;
+	private final double _maxLng;
+
+	/**
+	 * Creates the bounding box.
+	 * @param minLat the southern latitude
+	 * @param minLng the western longitude
+	 * @param maxLat the northern latitude
+	 * @param maxLng the eastern longitude
+	 * @throws IllegalArgumentException if the latitudes are invalid
+	 */
+	public GeoBounds(double minLat, double minLng, double maxLat, double maxLng) {
+		super();
+		if ((minLat > maxLat) || (minLat < -90) || (maxLat > 90))
+			throw new IllegalArgumentException(String.format("Invalid latitudes %.4f, %.4f", Double.valueOf(minLat), Double.valueOf(maxLat)));
+
+		_minLat = minLat;
+		_maxLat = maxLat;
+		boolean isAll = (maxLng - minLng) >= 360;
+		_minLng = isAll ? -180 : normalize(minLng);
+		_maxLng = isAll ? 180 : normalize(maxLng);
+	}
+
+	/*
+	 * Normalizes a longitude to between -180 and 180 degrees.
+	 */
+	private static double normalize(double lng) {
+		if ((lng >= -180) && (lng <= 180)) return lng;
+		return ((lng + 180) % 360 + 360) % 360 - 180;
+	}
+
+	/**
+	 * Returns the southern latitude.
+	 * @return the latitude in degrees
+	 */
+	public double getMinLatitude() {
+		return _minLat;
+	}
+
+	/**
+	 * Returns the western longitude.
+	 * @return the longitude in degrees
+	 */
+	public double getMinLongitude() {
+		return _minLng;
+	}
+
+	/**
+	 * Returns the northern latitude.
+	 * @return the latitude in degrees
+	 */
+	public double getMaxLatitude() {
+		return _maxLat;
+	}
+
+	/**
+	 * Returns the eastern longitude.
+	 * @return the longitude in degrees
+	 */
+	public double getMaxLongitude() {
+		return _maxLng;
+	}
+
+	/**
+	 * Returns whether the bounding box crosses the antimeridian.
+	 * @return TRUE if the western longitude is greater than the eastern longitude, otherwise FALSE
+	 */
+	public boolean crossesAntimeridian() {
+		return (_minLng > _maxLng);
+	}
+
+	/**
+	 * Returns whether a location is within the bounding box.
+	 * @param lat the latitude in degrees
+	 * @param lng the longitude in degrees
+	 * @return TRUE if the location is within the box, otherwise FALSE
+	 */
+	public boolean contains(double lat, double lng) {
+		if ((lat < _minLat) || (lat > _maxLat)) return false;
+		return crossesAntimeridian() ? ((lng >= _minLng) || (lng <= _maxLng)) : ((lng >= _minLng) && (lng <= _maxLng));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return (o instanceof GeoBounds gb2) && (_minLat == gb2._minLat) && (_minLng == gb2._minLng) && (_maxLat == gb2._maxLat) && (_maxLng == gb2._maxLng);
+	}
+
+	@Override
+	public int hashCode() {
+		return toString().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("[%.4f,%.4f - %.4f,%.4f]", Double.valueOf(_minLat), Double.valueOf(_minLng), Double.valueOf(_maxLat), Double.valueOf(_maxLng));
+	}
+}
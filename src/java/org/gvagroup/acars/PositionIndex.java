@@ -0,0 +1,228 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.acars;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.locks.*;
+
+import org.apache.logging.log4j.*;
+
+/**
+ * A grid-based spatial index of ACARS flight positions, to implement {@link ACARSAdminInfo#getSerializedInfo(GeoBounds, int)}. The world
+ * is divided into cells of a fixed size in degrees, and each position is stored in the cell containing it, so a viewport query only visits
+ * the cells that overlap it. Each position is serialized once when it is updated rather than on every query.<br>
+ * <br>
+ * Below {@link PositionIndex#DETAIL_ZOOM}, at most one position is returned for each display cell, which is an eighth of a 256-pixel map
+ * tile at the requested zoom level, so the number of positions returned is bounded by the size of the map rather than by the traffic.
+ * The position with the lowest flight ID in each display cell is returned, so the selection is stable between queries.
+ * @version 3.12
+ * @since 3.12
+ * @param <V> the position type
+ */
+
+public class PositionIndex<V extends Serializable> {
+
+	private static final Logger log = LogManager.getLogger(PositionIndex.class);
+
+	/**
+	 * The zoom level at and above which all positions in the viewport are returned.
+	 */
+	public static final int DETAIL_ZOOM = 8;
+
+	private final double _cellSize;
+	private final int _cols;
+	private final int _rows;
+
+	private final Map<Integer, Entry> _entries = new HashMap<Integer, Entry>();
+	private final Map<Integer, Map<Integer, Entry>> _cells = new HashMap<Integer, Map<Integer, Entry>>();
+
+	private final ReentrantReadWriteLock _lock = new ReentrantReadWriteLock();
+	private final Lock _r = _lock.readLock();
+	private final Lock _w = _lock.writeLock();
+
+	private static class Entry {
+		private final int _id;
+		private final double _lat;
+		private final double _lng;
+		private final int _cell;
+		private final byte[] _data;
+
+		Entry(int id, double lat, double lng, int cell, byte[] data) {
+			super();
+			_id = id;
+			_lat = lat;
+			_lng = lng;
+			_cell = cell;
+			_data = data;
+		}
+	}
+
+	/**
+	 * Creates the index.
+	 * @param cellSize the grid cell size in degrees
+	 */
+	public PositionIndex(double cellSize) {
+		super();
+		_cols = (int) Math.ceil(360 / Math.max(0.1, Math.min(90, cellSize)));
+		_rows = (int) Math.ceil(_cols / 2.0);
+		_cellSize = 360.0 / _cols;
+	}
+
+	/*
+	 * Returns the grid column for a longitude.
+	 */
+	private int col(double lng) {
+		return Math.floorMod((int) Math.floor((lng + 180) / _cellSize), _cols);
+	}
+
+	/*
+	 * Returns the grid row for a latitude.
+	 */
+	private int row(double lat) {
+		return Math.max(0, Math.min(_rows - 1, (int) Math.floor((lat + 90) / _cellSize)));
+	}
+
+	/*
+	 * Serializes a position.
+	 */
+	private static byte[] serialize(Serializable obj) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+		try (ObjectOutputStream oo = new ObjectOutputStream(out)) {
+			oo.writeObject(obj);
+		} catch (IOException ie) {
+			log.warn("Error serializing {} - {}", obj, ie.getMessage());
+			return null;
+		}
+
+		return out.toByteArray();
+	}
+
+	/*
+	 * Removes an entry from its cell. Must be called while holding the write lock.
+	 */
+	private void removeFromCell(Entry e) {
+		Map<Integer, Entry> cell = _cells.get(Integer.valueOf(e._cell));
+		if (cell == null) return;
+		cell.remove(Integer.valueOf(e._id));
+		if (cell.isEmpty())
+			_cells.remove(Integer.valueOf(e._cell));
+	}
+
+	/**
+	 * Adds or updates a flight position.
+	 * @param id the flight ID
+	 * @param lat the latitude in degrees
+	 * @param lng the longitude in degrees
+	 * @param pos the position
+	 */
+	public void put(int id, double lat, double lng, V pos) {
+		byte[] data = serialize(pos);
+		if (data == null) return;
+		Integer cellID = Integer.valueOf((row(lat) * _cols) + col(lng));
+		Entry e = new Entry(id, lat, lng, cellID.intValue(), data);
+		try {
+			_w.lock();
+			Entry oe = _entries.put(Integer.valueOf(id), e);
+			if ((oe != null) && (oe._cell != e._cell))
+				removeFromCell(oe);
+
+			_cells.computeIfAbsent(cellID, k -> new HashMap<Integer, Entry>()).put(Integer.valueOf(id), e);
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	/**
+	 * Removes a flight position.
+	 * @param id the flight ID
+	 * @return TRUE if the flight was removed, otherwise FALSE
+	 */
+	public boolean remove(int id) {
+		try {
+			_w.lock();
+			Entry e = _entries.remove(Integer.valueOf(id));
+			if (e != null)
+				removeFromCell(e);
+
+			return (e != null);
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of flights.
+	 * @return the number of flights
+	 */
+	public int size() {
+		try {
+			_r.lock();
+			return _entries.size();
+		} finally {
+			_r.unlock();
+		}
+	}
+
+	/**
+	 * Returns all flight positions in a serialized fashion.
+	 * @return a Collection of byte arrays
+	 */
+	public Collection<byte[]> getSerializedInfo() {
+		try {
+			_r.lock();
+			List<byte[]> results = new ArrayList<byte[]>(_entries.size());
+			_entries.values().forEach(e -> results.add(e._data));
+			return results;
+		} finally {
+			_r.unlock();
+		}
+	}
+
+	/**
+	 * Returns the flight positions within a bounding box in a serialized fashion. Below {@link PositionIndex#DETAIL_ZOOM}, at most one position
+	 * is returned for each display cell.
+	 * @param bounds the GeoBounds
+	 * @param zoom the map zoom level
+	 * @return a Collection of byte arrays
+	 */
+	public Collection<byte[]> getSerializedInfo(GeoBounds bounds, int zoom) {
+		int minRow = row(bounds.getMinLatitude());
+		int maxRow = row(bounds.getMaxLatitude());
+		int minCol = col(bounds.getMinLongitude());
+		int maxCol = col(bounds.getMaxLongitude());
+		if (bounds.crossesAntimeridian() || ((maxCol < minCol) && (bounds.getMaxLongitude() > bounds.getMinLongitude())))
+			maxCol += _cols;
+		if ((bounds.getMaxLongitude() - bounds.getMinLongitude()) >= 360)
+			maxCol = minCol + _cols - 1;
+
+		boolean isThinned = (zoom < DETAIL_ZOOM);
+		double displayCell = 360.0 / (Math.scalb(1.0, Math.max(0, zoom)) * 8);
+		Map<Long, Entry> thinned = new HashMap<Long, Entry>();
+		List<byte[]> results = new ArrayList<byte[]>();
+		try {
+			_r.lock();
+			for (int r = minRow; r <= maxRow; r++) {
+				for (int c = minCol; c <= maxCol; c++) {
+					Map<Integer, Entry> cell = _cells.get(Integer.valueOf((r * _cols) + (c % _cols)));
+					if (cell == null) continue;
+					for (Entry e : cell.values()) {
+						if (!bounds.contains(e._lat, e._lng))
+							continue;
+						else if (!isThinned) {
+							results.add(e._data);
+							continue;
+						}
+
+						long dcID = ((long) Math.floor((e._lat + 90) / displayCell) << 32) | (long) Math.floor((e._lng + 180) / displayCell);
+						thinned.merge(Long.valueOf(dcID), e, (oe, ne) -> (ne._id < oe._id) ? ne : oe);
+					}
+				}
+			}
+		} finally {
+			_r.unlock();
+		}
+
+		thinned.values().forEach(e -> results.add(e._data));
+		return results;
+	}
+}
@@ -0,0 +1,74 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.util.*;
+
+/**
+ * A System Event that combines several events of the same type sent within a short period of time.
+ * @version 3.12
+ * @since 3.12
+ * @see EventDispatcher#setCoalescing(EventType, java.time.Duration)
+ */
+
+public class BatchEvent extends SystemEvent {
+
+	private static final long serialVersionUID = 4325361597450396844L;
+
+	private final List<SystemEvent> _events = new ArrayList<SystemEvent>();
+
+	/**
+	 * Creates the Event. Its send time is the send time of the earliest combined event.
+	 * @param code the EventType
+	 * @param events the events to combine, which should all be of this type
+	 */
+	public BatchEvent(EventType code, Collection<? extends SystemEvent> events) {
+		super(code);
+		_events.addAll(events);
+		events.stream().mapToLong(SystemEvent::getSendTime).filter(t -> (t != 0)).reduce((t1, t2) -> ((t1 - t2) < 0) ? t1 : t2).ifPresent(this::setSendTime);
+	}
+
+	/**
+	 * Returns the combined events.
+	 * @return a List of SystemEvents
+	 */
+	public List<SystemEvent> getEvents() {
+		return Collections.unmodifiableList(_events);
+	}
+
+	/**
+	 * Returns the IDs of the combined ID events.
+	 * @return a Collection of IDs
+	 */
+	public Collection<String> getIDs() {
+		Collection<String> results = new LinkedHashSet<String>();
+		for (SystemEvent e : _events) {
+			if (e instanceof IDEvent ie)
+				results.add(ie.getID());
+		}
+
+		return results;
+	}
+
+	/**
+	 * Returns the user IDs of the combined user events.
+	 * @return an array of user database IDs
+	 */
+	public int[] getUserIDs() {
+		return _events.stream().filter(UserEvent.class::isInstance).mapToInt(e -> ((UserEvent) e).getUserID()).distinct().toArray();
+	}
+
+	/**
+	 * Returns the number of combined events.
+	 * @return the number of events
+	 */
+	public int size() {
+		return _events.size();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder(super.toString());
+		buf.append('-').append(_events);
+		return buf.toString();
+	}
+}
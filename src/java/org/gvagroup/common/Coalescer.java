@@ -0,0 +1,116 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.util.*;
+import java.util.concurrent.locks.*;
+import java.util.function.Consumer;
+
+/**
+ * A class to buffer bursts of events of a single type. The first event starts a window, and duplicate events received within that window
+ * are collapsed by ID. When the window closes a single event is delivered if there was only one, otherwise a {@link BatchEvent}.
+ * @version 3.12
+ * @since 3.12
+ */
+
+class Coalescer {
+
+	private final EventType _type;
+	private final long _window;
+	private final Consumer<SystemEvent> _target;
+
+	private final Lock _lock = new ReentrantLock();
+	private final Map<Object, SystemEvent> _pending = new LinkedHashMap<Object, SystemEvent>();
+	private boolean _isScheduled;
+	private volatile boolean _isStopped;
+
+	/**
+	 * Creates the coalescer.
+	 * @param type the EventType
+	 * @param window the coalescing window in milliseconds
+	 * @param target the delivery target for coalesced events
+	 */
+	Coalescer(EventType type, long window, Consumer<SystemEvent> target) {
+		super();
+		_type = type;
+		_window = Math.max(1, window);
+		_target = target;
+	}
+
+	/*
+	 * Returns the key used to detect duplicate events.
+	 */
+	private static Object getKey(SystemEvent e) {
+		if (e instanceof IDEvent ie)
+			return ie.getID();
+		else if (e instanceof UserEvent ue)
+			return Integer.valueOf(ue.getUserID());
+
+		return e.getCode();
+	}
+
+	/**
+	 * Adds an event to the current window, opening a new window if necessary.
+	 * @param e the SystemEvent
+	 */
+	void add(SystemEvent e) {
+		boolean doSchedule = false;
+		try {
+			_lock.lock();
+			_pending.put(getKey(e), e);
+			doSchedule = !_isScheduled;
+			_isScheduled = true;
+		} finally {
+			_lock.unlock();
+		}
+
+		if (doSchedule)
+			Thread.ofVirtual().name(String.format("%s Coalescer", _type)).start(this::run);
+	}
+
+	/*
+	 * Waits for the window to close, then flushes.
+	 */
+	private void run() {
+		try {
+			Thread.sleep(_window);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} finally {
+			flush();
+		}
+	}
+
+	/**
+	 * Delivers the events in the current window.
+	 */
+	void flush() {
+		Collection<SystemEvent> events = null;
+		try {
+			_lock.lock();
+			events = new ArrayList<SystemEvent>(_pending.values());
+			_pending.clear();
+			_isScheduled = false;
+		} finally {
+			_lock.unlock();
+		}
+
+		if (events.isEmpty() || _isStopped)
+			return;
+		else if (events.size() == 1)
+			_target.accept(events.iterator().next());
+		else
+			_target.accept(new BatchEvent(_type, events));
+	}
+
+	/**
+	 * Stops the coalescer, discarding any pending events.
+	 */
+	void stop() {
+		_isStopped = true;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s Coalescer (%dms)", _type, Long.valueOf(_window));
+	}
+}
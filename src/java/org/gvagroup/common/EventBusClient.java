@@ -0,0 +1,103 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.io.IOException;
+import java.net.*;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.concurrent.*;
+
+import org.apache.logging.log4j.*;
+
+/**
+ * An event transport that connects to an {@link EventBusServer} in another virtual machine over a Unix domain socket. Events received from the
+ * server are delivered to local subscribers, and events sent locally are published to the server. If the connection is lost, the client reconnects
+ * with exponential backoff. Events published while disconnected are queued, up to a limit, and sent once the connection is restored.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class EventBusClient implements EventTransport {
+
+	private static final Logger log = LogManager.getLogger(EventBusClient.class);
+
+	private static final int MAX_PENDING = 4096;
+	private static final long MIN_BACKOFF = 100;
+	private static final long MAX_BACKOFF = 5000;
+
+	private final UnixDomainSocketAddress _addr;
+	private final BlockingQueue<SystemEvent> _out = new LinkedBlockingQueue<SystemEvent>(MAX_PENDING);
+	private final Thread _t;
+
+	private volatile EventBusPeer _peer;
+	private volatile boolean _isClosed;
+
+	/**
+	 * Creates the client and starts connecting to the server.
+	 * @param path the server socket file path
+	 */
+	public EventBusClient(Path path) {
+		super();
+		_addr = UnixDomainSocketAddress.of(path);
+		_t = Thread.ofVirtual().name("EventBusClient").start(this::run);
+	}
+
+	/*
+	 * Connects to the server, reconnecting if the connection is lost.
+	 */
+	private void run() {
+		long backoff = MIN_BACKOFF;
+		while (!_isClosed) {
+			try {
+				SocketChannel ch = SocketChannel.open(StandardProtocolFamily.UNIX);
+				try {
+					ch.connect(_addr);
+				} catch (IOException ie) {
+					ch.close();
+					throw ie;
+				}
+
+				log.info("Connected to {}", _addr);
+				backoff = MIN_BACKOFF;
+				EventBusPeer p = new EventBusPeer(ch, "EventBusClient", _out, (src, e) -> EventDispatcher.receive(e), src -> _peer = null);
+				_peer = p;
+				if (_isClosed)
+					p.close();
+
+				p.join();
+				log.info("Disconnected from {}", _addr);
+			} catch (IOException ie) {
+				log.debug("Cannot connect to {} - {}", _addr, ie.getMessage());
+			} catch (InterruptedException ie) {
+				break;
+			}
+
+			try {
+				Thread.sleep(backoff);
+				backoff = Math.min(MAX_BACKOFF, backoff * 2);
+			} catch (InterruptedException ie) {
+				break;
+			}
+		}
+	}
+
+	@Override
+	public void publish(SystemEvent e) {
+		EventBusPeer.offer(_out, e);
+	}
+
+	@Override
+	public boolean isConnected() {
+		return (_peer != null);
+	}
+
+	@Override
+	public void close() {
+		_isClosed = true;
+		EventBusPeer p = _peer;
+		if (p != null)
+			p.close();
+
+		_t.interrupt();
+	}
+}
@@ -0,0 +1,212 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.*;
+
+import org.apache.logging.log4j.*;
+
+/**
+ * A connection between two event bus endpoints. Each event is sent as a frame containing the payload length and the encoded event. The writer
+ * thread encodes every event queued since its last write into a single buffer before writing it, so bursts of events are sent in one system call.
+ * @version 3.12
+ * @since 3.12
+ */
+
+class EventBusPeer implements Closeable {
+
+	private static final Logger log = LogManager.getLogger(EventBusPeer.class);
+
+	/**
+	 * The maximum frame size, including the length prefix.
+	 */
+	static final int MAX_FRAME = 65536;
+
+	private final SocketChannel _ch;
+	private final String _name;
+	private final BlockingQueue<SystemEvent> _out;
+	private final BiConsumer<EventBusPeer, SystemEvent> _rcv;
+	private final Consumer<EventBusPeer> _onClose;
+	private final AtomicBoolean _isClosed = new AtomicBoolean();
+
+	private final Thread _reader;
+	private final Thread _writer;
+
+	/**
+	 * Creates the connection and starts its reader and writer threads.
+	 * @param ch the connected SocketChannel
+	 * @param name the connection name
+	 * @param out the queue of outbound events
+	 * @param rcv the callback for received events
+	 * @param onClose the callback when the connection is closed
+	 */
+	EventBusPeer(SocketChannel ch, String name, BlockingQueue<SystemEvent> out, BiConsumer<EventBusPeer, SystemEvent> rcv, Consumer<EventBusPeer> onClose) {
+		super();
+		_ch = ch;
+		_name = name;
+		_out = out;
+		_rcv = rcv;
+		_onClose = onClose;
+		_reader = Thread.ofVirtual().name(name + "-Reader").start(this::read);
+		_writer = Thread.ofVirtual().name(name + "-Writer").start(this::write);
+	}
+
+	/**
+	 * Returns the connection name.
+	 * @return the name
+	 */
+	public String getName() {
+		return _name;
+	}
+
+	/**
+	 * Returns whether the connection is open.
+	 * @return TRUE if open, otherwise FALSE
+	 */
+	public boolean isOpen() {
+		return !_isClosed.get();
+	}
+
+	/**
+	 * Queues an event to be sent. If the queue is full, the oldest pending event is discarded.
+	 * @param e the SystemEvent
+	 */
+	public void publish(SystemEvent e) {
+		offer(_out, e);
+	}
+
+	/*
+	 * Adds an event to a bounded queue, discarding the oldest event if full.
+	 */
+	static void offer(BlockingQueue<SystemEvent> q, SystemEvent e) {
+		while (!q.offer(e)) {
+			SystemEvent oe = q.poll();
+			if (oe != null)
+				log.warn("Event bus queue full, discarding {}", oe);
+		}
+	}
+
+	/**
+	 * Waits for the connection to close.
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void join() throws InterruptedException {
+		_reader.join();
+	}
+
+	/*
+	 * Encodes a frame into the buffer.
+	 */
+	private static boolean encode(SystemEvent e, ByteBuffer buf) {
+		int start = buf.position();
+		try {
+			buf.position(start + 4);
+			EventCodec.encode(e, buf);
+			buf.putInt(start, buf.position() - start - 4);
+			return true;
+		} catch (BufferOverflowException boe) {
+			buf.position(start);
+			return false;
+		}
+	}
+
+	/*
+	 * Writer thread. Blocks until an event is queued, then encodes all queued events that fit in the buffer and writes them together.
+	 */
+	private void write() {
+		ByteBuffer buf = ByteBuffer.allocateDirect(MAX_FRAME);
+		SystemEvent e = null;
+		try {
+			while (isOpen()) {
+				if (e == null)
+					e = (buf.position() == 0) ? _out.take() : _out.poll();
+
+				if ((e != null) && encode(e, buf)) {
+					e = null;
+					continue;
+				} else if ((e != null) && (buf.position() == 0)) {
+					log.warn("Cannot send {} - too large", e);
+					e = null;
+					continue;
+				}
+
+				buf.flip();
+				while (buf.hasRemaining())
+					_ch.write(buf);
+
+				buf.clear();
+			}
+		} catch (InterruptedException | ClosedChannelException ie) {
+			// empty
+		} catch (IOException ie) {
+			log.warn("Error writing to {} - {}", _name, ie.getMessage());
+		} finally {
+			close();
+		}
+	}
+
+	/*
+	 * Reader thread. Decodes each complete frame in the buffer and passes the event to the receive callback.
+	 */
+	private void read() {
+		ByteBuffer buf = ByteBuffer.allocateDirect(MAX_FRAME);
+		try {
+			while (isOpen() && (_ch.read(buf) >= 0)) {
+				buf.flip();
+				while (buf.remaining() >= 4) {
+					int len = buf.getInt(buf.position());
+					if ((len <= 0) || (len > (MAX_FRAME - 4)))
+						throw new IOException(String.format("Invalid frame length %d", Integer.valueOf(len)));
+					if (buf.remaining() < (len + 4))
+						break;
+
+					int end = buf.position() + 4 + len;
+					int limit = buf.limit();
+					buf.limit(end).position(end - len);
+					try {
+						SystemEvent e = EventCodec.decode(buf);
+						_rcv.accept(this, e);
+					} catch (BufferUnderflowException | IllegalArgumentException iae) {
+						log.warn("Cannot decode event from {} - {}", _name, iae.getMessage());
+					}
+
+					buf.limit(limit).position(end);
+				}
+
+				buf.compact();
+			}
+		} catch (ClosedChannelException cce) {
+			// empty
+		} catch (IOException ie) {
+			log.warn("Error reading from {} - {}", _name, ie.getMessage());
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * Closes the connection. Any events taken from the queue but not yet written are lost.
+	 */
+	@Override
+	public void close() {
+		if (_isClosed.getAndSet(true)) return;
+		try {
+			_ch.close();
+		} catch (IOException ie) {
+			log.warn("Error closing {} - {}", _name, ie.getMessage());
+		}
+
+		_writer.interrupt();
+		_onClose.accept(this);
+	}
+
+	@Override
+	public String toString() {
+		return _name;
+	}
+}
@@ -0,0 +1,115 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.*;
+
+/**
+ * An event transport that accepts connections from other virtual machines on a Unix domain socket. Events received from a client are delivered to
+ * local subscribers and relayed to all other clients, and events sent locally are published to all clients.
+ * @version 3.12
+ * @since 3.12
+ * @see EventBusClient
+ */
+
+public class EventBusServer implements EventTransport {
+
+	private static final Logger log = LogManager.getLogger(EventBusServer.class);
+
+	private static final int MAX_PENDING = 4096;
+
+	private final Path _path;
+	private final ServerSocketChannel _ssc;
+	private final Collection<EventBusPeer> _peers = new CopyOnWriteArrayList<EventBusPeer>();
+	private final AtomicInteger _id = new AtomicInteger();
+
+	/**
+	 * Creates the server and starts listening for connections. Any existing socket file is removed.
+	 * @param path the socket file path
+	 * @throws IOException if the socket cannot be bound
+	 */
+	public EventBusServer(Path path) throws IOException {
+		super();
+		_path = path;
+		Files.deleteIfExists(path);
+		_ssc = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		_ssc.bind(UnixDomainSocketAddress.of(path));
+		Thread.ofVirtual().name("EventBusServer").start(this::accept);
+		log.info("Listening on {}", path);
+	}
+
+	/*
+	 * Accepts client connections.
+	 */
+	private void accept() {
+		while (_ssc.isOpen()) {
+			try {
+				SocketChannel ch = _ssc.accept();
+				String name = String.format("EventBus-%d", Integer.valueOf(_id.incrementAndGet()));
+				EventBusPeer p = new EventBusPeer(ch, name, new LinkedBlockingQueue<SystemEvent>(MAX_PENDING), this::receive, this::disconnect);
+				_peers.add(p);
+				log.info("Accepted {}", name);
+			} catch (ClosedChannelException cce) {
+				break;
+			} catch (IOException ie) {
+				log.atError().withThrowable(ie).log("Error accepting connection");
+			}
+		}
+	}
+
+	/*
+	 * Delivers an event from a client to local subscribers and other clients.
+	 */
+	private void receive(EventBusPeer src, SystemEvent e) {
+		EventDispatcher.receive(e);
+		for (EventBusPeer p : _peers) {
+			if (p != src)
+				p.publish(e);
+		}
+	}
+
+	/*
+	 * Removes a disconnected client.
+	 */
+	private void disconnect(EventBusPeer p) {
+		if (_peers.remove(p))
+			log.info("Disconnected {}", p.getName());
+	}
+
+	/**
+	 * Returns the number of connected clients.
+	 * @return the number of clients
+	 */
+	public int getClientCount() {
+		return _peers.size();
+	}
+
+	@Override
+	public void publish(SystemEvent e) {
+		_peers.forEach(p -> p.publish(e));
+	}
+
+	@Override
+	public boolean isConnected() {
+		return !_peers.isEmpty();
+	}
+
+	@Override
+	public void close() {
+		try {
+			_ssc.close();
+			Files.deleteIfExists(_path);
+		} catch (IOException ie) {
+			log.warn("Error closing {} - {}", _path, ie.getMessage());
+		}
+
+		_peers.forEach(EventBusPeer::close);
+	}
+}
@@ -1,87 +1,474 @@
-// Copyright 2007, 2008, 2013, 2015, 2017 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2007, 2008, 2013, 2015, 2017, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.common;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.*;
+
+import org.gvagroup.ipc.LatencyHistogram;
 
 /**
- * A utility class to dispatch events between web applications.
+ * A utility class to dispatch events between web applications. Each subscriber has its own lock-free event queue, and sending
+ * an event only wakes up threads that are waiting for one. No monitors are held, so waiting virtual threads are not pinned.<br>
+ * <br>
+ * Subscribers may either obtain a {@link Subscription} handle from {@link EventDispatcher#subscribe(EventFilter)}, which any thread may
+ * drain and which is closed when no longer required, or register the current thread and retrieve events through the static methods.<br>
+ * <br>
+ * Threads may register an {@link EventFilter} to only receive certain events. Subscriptions are held in a copy-on-write routing table
+ * for each {@link EventType}, so sending an event only visits subscribers for that type and takes no lock unless journaling is enabled.<br>
+ * <br>
+ * Event types which are sent in bursts may be coalesced, so that subscribers receive a single {@link BatchEvent} rather than
+ * being woken up once per event.<br>
+ * <br>
+ * If an {@link EventJournal} is configured, every event is journaled with a sequence number. A subscriber that registers late, such as a
+ * reloaded web application, can resume from the last event it retrieved and replay any events it missed.<br>
+ * <br>
+ * Events may be relayed to other virtual machines by adding an {@link EventTransport}. Events sent locally are published to all transports,
+ * while events received from a transport are only delivered to local subscribers.<br>
+ * <br>
+ * Events are timestamped when sent, and the latency until each subscriber retrieves them is recorded for each event type. These latencies
+ * and each subscriber's queue depth are available from {@link EventDispatcher#getStatistics()}.<br>
+ * <br>
+ * Each subscriber's queue has a capacity and an {@link OverflowPolicy}, so a thread that stops retrieving events cannot leak memory.
  * @author Luke
- * @version 2.11
+ * @version 3.12
  * @since 1.0
  */
 
 public class EventDispatcher {
-	
-	private static final Map<Thread, Queue<SystemEvent>> _events = new HashMap<Thread, Queue<SystemEvent>>();
-	
+
+	private static final Subscription[] EMPTY = new Subscription[0];
+
+	private static final Map<Thread, Subscription> _subs = new ConcurrentHashMap<Thread, Subscription>();
+	private static final Set<Subscription> _handles = ConcurrentHashMap.newKeySet();
+	private static final AtomicReferenceArray<Subscription[]> _routes = new AtomicReferenceArray<Subscription[]>(EventType.values().length);
+	private static final AtomicReferenceArray<Coalescer> _coalescers = new AtomicReferenceArray<Coalescer>(EventType.values().length);
+	private static final Map<String, Long> _cursors = new ConcurrentHashMap<String, Long>();
+	private static final Collection<EventTransport> _transports = new CopyOnWriteArrayList<EventTransport>();
+	private static final LatencyHistogram[] _latency = new LatencyHistogram[EventType.values().length];
+	private static final Lock _w = new ReentrantLock();
+	private static final Lock _jl = new ReentrantLock();
+	private static volatile EventJournal _journal;
+	private static volatile int _defaultCapacity = 16384;
+	private static volatile OverflowPolicy _defaultPolicy = OverflowPolicy.RESYNC;
+
+	static {
+		for (int x = 0; x < _routes.length(); x++) {
+			_routes.set(x, EMPTY);
+			_latency[x] = new LatencyHistogram();
+		}
+	}
+
 	// singleton
 	private EventDispatcher() {
 		super();
 	}
 
+	/*
+	 * Adds or removes a subscription from the routing table. Must be called while holding the write lock.
+	 */
+	private static void route(Subscription s, boolean isAdd) {
+		for (EventType t : s.getFilter().getTypes()) {
+			List<Subscription> subs = new ArrayList<Subscription>(Arrays.asList(_routes.get(t.ordinal())));
+			if (isAdd)
+				subs.add(s);
+			else
+				subs.remove(s);
+
+			_routes.set(t.ordinal(), subs.toArray(EMPTY));
+		}
+	}
+
+	/*
+	 * Removes a subscription from the routing table, saving its journal position if it is named.
+	 */
+	static void remove(Subscription s) {
+		try {
+			_w.lock();
+			boolean isRemoved = (s.getOwner() == null) ? _handles.remove(s) : _subs.remove(s.getOwner(), s);
+			if (isRemoved)
+				route(s, false);
+		} finally {
+			_w.unlock();
+		}
+
+		if ((s.getName() != null) && (s.getLastSequence() > 0))
+			_cursors.put(s.getName(), Long.valueOf(s.getLastSequence()));
+	}
+
+	/*
+	 * Adds a subscription to the routing table, replacing the owner's existing subscription.
+	 */
+	private static void add(Subscription s) {
+		try {
+			_w.lock();
+			Subscription oldSub = _subs.put(s.getOwner(), s);
+			if (oldSub != null) {
+				route(oldSub, false);
+				oldSub.moveTo(s);
+				s.setLastSequence(oldSub.getLastSequence());
+			}
+
+			route(s, true);
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	/*
+	 * Creates a subscription for the current thread, keeping the queue capacity and overflow policy of its existing subscription.
+	 */
+	private static Subscription create(String name, EventFilter f) {
+		Subscription oldSub = _subs.get(Thread.currentThread());
+		if (oldSub == null)
+			return new Subscription(Thread.currentThread(), name, f, _defaultCapacity, _defaultPolicy);
+
+		return new Subscription(Thread.currentThread(), (name == null) ? oldSub.getName() : name, f, oldSub.getCapacity(), oldSub.getPolicy());
+	}
+
+	/**
+	 * Updates the queue capacity and overflow policy for new subscribers.
+	 * @param capacity the maximum number of pending events
+	 * @param policy the OverflowPolicy
+	 */
+	public static void setDefaultLimit(int capacity, OverflowPolicy policy) {
+		_defaultCapacity = Math.max(1, capacity);
+		_defaultPolicy = policy;
+	}
+
+	/**
+	 * Updates the maximum time a sender will wait for space in a subscriber's queue with the {@link OverflowPolicy#BLOCK} policy.
+	 * @param timeout the maximum time to wait
+	 */
+	public static void setBlockTimeout(Duration timeout) {
+		Subscription.setBlockTimeout(timeout.toNanos());
+	}
+
+	/**
+	 * Creates a subscription for particular system events, using the default queue capacity and overflow policy. The subscription is not bound
+	 * to the current thread.
+	 * @param f the EventFilter
+	 * @return the Subscription, which should be closed when no longer required
+	 */
+	public static Subscription subscribe(EventFilter f) {
+		return subscribe(f, _defaultCapacity, _defaultPolicy);
+	}
+
+	/**
+	 * Creates a subscription for particular system events. The subscription is not bound to the current thread.
+	 * @param f the EventFilter
+	 * @param capacity the maximum number of pending events
+	 * @param policy the OverflowPolicy when the queue is full
+	 * @return the Subscription, which should be closed when no longer required
+	 */
+	public static Subscription subscribe(EventFilter f, int capacity, OverflowPolicy policy) {
+		Subscription s = new Subscription(null, null, f, capacity, policy);
+		try {
+			_w.lock();
+			_handles.add(s);
+			route(s, true);
+		} finally {
+			_w.unlock();
+		}
+
+		return s;
+	}
+
+	/**
+	 * Registers the current thread to listen for particular system events. If the thread is already registered, its filter is replaced and any
+	 * pending events are kept.
+	 * @param f the EventFilter
+	 */
+	public static void register(EventFilter f) {
+		add(create(null, f));
+	}
+
+	/**
+	 * Registers the current thread to listen for particular system events, with a specific queue capacity and overflow policy. If the thread is
+	 * already registered, its filter is replaced and any pending events are kept.
+	 * @param f the EventFilter
+	 * @param capacity the maximum number of pending events
+	 * @param policy the OverflowPolicy when the queue is full
+	 */
+	public static void register(EventFilter f, int capacity, OverflowPolicy policy) {
+		Subscription oldSub = _subs.get(Thread.currentThread());
+		add(new Subscription(Thread.currentThread(), (oldSub == null) ? null : oldSub.getName(), f, capacity, policy));
+	}
+
+	/**
+	 * Registers the current thread to listen for particular types of system events.
+	 * @param types the EventTypes, or none to receive all events
+	 */
+	public static void register(EventType... types) {
+		register(new EventFilter(types));
+	}
+
+	/*
+	 * Returns the current thread's subscription, registering it for all events if necessary.
+	 */
+	private static Subscription getSubscription() {
+		Subscription s = _subs.get(Thread.currentThread());
+		if (s == null) {
+			register(new EventFilter());
+			s = _subs.get(Thread.currentThread());
+		}
+
+		return s;
+	}
+
+	/**
+	 * Registers a thread to listen for system events if not already registered, and waits until at least one event is pending.
+	 * @throws InterruptedException if the thread is interrupted while waiting for the event
+	 */
+	public static void waitForEvent() throws InterruptedException {
+		getSubscription().await(-1);
+	}
+
 	/**
-	 * Registers a thread to listen for system events.
+	 * Registers a thread to listen for system events if not already registered, and waits until at least one event is pending or a timeout elapses.
+	 * @param timeout the maximum time to wait
+	 * @return TRUE if events are pending, FALSE if the timeout elapsed
 	 * @throws InterruptedException if the thread is interrupted while waiting for the event
 	 */
-	public synchronized static void waitForEvent() throws InterruptedException {
-		if (!_events.containsKey(Thread.currentThread()))
-			_events.put(Thread.currentThread(), new ConcurrentLinkedQueue<SystemEvent>());
-		
-		// Wait for an event
-		EventDispatcher.class.wait();
+	public static boolean waitForEvent(Duration timeout) throws InterruptedException {
+		return getSubscription().await(Math.max(0, timeout.toNanos()));
 	}
 
 	/**
-	 * Notifies waiting threads of a particular system event.
+	 * Sets the journal used to record events for replay.
+	 * @param j the EventJournal, or null to disable journaling
+	 */
+	public static void setJournal(EventJournal j) {
+		_journal = j;
+	}
+
+	/**
+	 * Registers the current thread as a named subscriber, replaying any events sent since it last retrieved events under this name. Events
+	 * are only replayed if an {@link EventJournal} is configured.
+	 * @param name the subscriber name
+	 * @param f the EventFilter
+	 * @return TRUE if all missed events were replayed, FALSE if some were no longer in the journal and the subscriber should reload its state
+	 */
+	public static boolean resume(String name, EventFilter f) {
+		EventJournal j = _journal;
+		Long lastSeq = _cursors.get(name);
+		return resume(name, f, (lastSeq != null) ? lastSeq.longValue() : ((j == null) ? 0 : j.getLastSequence()));
+	}
+
+	/**
+	 * Registers the current thread as a named subscriber, replaying any events sent after a given sequence number. Events are only replayed if
+	 * an {@link EventJournal} is configured.
+	 * @param name the subscriber name
+	 * @param f the EventFilter
+	 * @param lastSeq the sequence number of the last event retrieved by the subscriber
+	 * @return TRUE if all missed events were replayed, FALSE if some were no longer in the journal and the subscriber should reload its state
+	 */
+	public static boolean resume(String name, EventFilter f, long lastSeq) {
+		Subscription s = create(name, f);
+		s.setLastSequence(lastSeq);
+		EventJournal j = _journal;
+		try {
+			_jl.lock();
+			boolean isComplete = (j == null) || j.replay(lastSeq, re -> s.offer(re, false));
+			add(s);
+			return isComplete;
+		} finally {
+			_jl.unlock();
+		}
+	}
+
+	/**
+	 * Returns the sequence number of the last journaled event retrieved by the current thread.
+	 * @return the sequence number, or zero if none
+	 */
+	public static long getLastSequence() {
+		Subscription s = _subs.get(Thread.currentThread());
+		return (s == null) ? 0 : s.getLastSequence();
+	}
+
+	/**
+	 * Enables coalescing of an event type. The first event of this type opens a window, and events received before the window closes are collapsed
+	 * by type and ID and delivered together as a {@link BatchEvent}. A window containing only one event delivers that event unchanged.
+	 * @param t the EventType
+	 * @param window the coalescing window, or zero to disable coalescing
+	 */
+	public static void setCoalescing(EventType t, Duration window) {
+		Coalescer c = window.isZero() ? null : new Coalescer(t, window.toMillis(), EventDispatcher::dispatch);
+		Coalescer oldC = _coalescers.getAndSet(t.ordinal(), c);
+		if (oldC != null)
+			oldC.flush();
+	}
+
+	/**
+	 * Adds a transport to relay events to other virtual machines.
+	 * @param t the EventTransport
+	 */
+	public static void addTransport(EventTransport t) {
+		_transports.add(t);
+	}
+
+	/**
+	 * Removes a transport. The transport is not closed.
+	 * @param t the EventTransport
+	 */
+	public static void removeTransport(EventTransport t) {
+		_transports.remove(t);
+	}
+
+	/**
+	 * Notifies waiting threads of a particular system event. A copy of the event is journaled and delivered, so the sender's instance is not
+	 * updated and may be sent again. The send time is recorded on every call, except for a {@link BatchEvent} which takes the earliest send
+	 * time of its events.
 	 * @param e the event to send
 	 */
-	public synchronized static void send(SystemEvent e) {
-		for (Iterator<Map.Entry<Thread, Queue<SystemEvent>>> i = _events.entrySet().iterator(); i.hasNext(); ) {
-			Map.Entry<Thread, Queue<SystemEvent>> me = i.next();
-			if (me.getKey().isAlive())
-				me.getValue().add(e);
+	public static void send(SystemEvent e) {
+		SystemEvent se = e.copy();
+		if (!(se instanceof BatchEvent) || (se.getSendTime() == 0))
+			se.setSendTime(System.nanoTime());
+
+		Coalescer c = _coalescers.get(se.getCode().ordinal());
+		if ((c != null) && !(se instanceof BatchEvent))
+			c.add(se);
+		else
+			dispatch(se);
+	}
+
+	/*
+	 * Delivers an event to local subscribers and publishes it to all transports.
+	 */
+	private static void dispatch(SystemEvent e) {
+		receive(e);
+		for (EventTransport t : _transports)
+			t.publish(e);
+	}
+
+	/*
+	 * Journals an event if required, and routes it to its local subscribers. Journaling and delivery happen under a lock so that a resuming
+	 * subscriber receives each event exactly once. Senders must not block while holding this lock, so they wait for space in full queues
+	 * with the BLOCK policy before taking it. This is called by transports for events received from other virtual machines, so that they
+	 * are not published again. Events sent locally already have a send time, which includes any coalescing delay. The event is updated with
+	 * its sequence number, so it must be a copy or a newly decoded event rather than the sender's instance.
+	 */
+	static void receive(SystemEvent e) {
+		if (e.getSendTime() == 0)
+			e.setSendTime(System.nanoTime());
+
+		EventJournal j = _journal;
+		if (j == null) {
+			deliver(e, true);
+			return;
+		}
+
+		for (Subscription s : _routes.get(e.getCode().ordinal()))
+			s.awaitSpace();
+
+		try {
+			_jl.lock();
+			e.setSequence(j.append(e));
+			deliver(e, false);
+		} finally {
+			_jl.unlock();
+		}
+	}
+
+	/*
+	 * Routes an event to its subscribers.
+	 */
+	private static void deliver(SystemEvent e, boolean canBlock) {
+		for (Subscription s : _routes.get(e.getCode().ordinal())) {
+			if (s.isAlive())
+				s.offer(e, canBlock);
 			else
-				i.remove();
+				remove(s);
 		}
-		
-		// Notify threads
-		EventDispatcher.class.notifyAll();
 	}
-	
+
+	/*
+	 * Records the delivery latency of an event retrieved by a subscriber.
+	 */
+	static void recordLatency(SystemEvent e, long now) {
+		if (e.getSendTime() != 0)
+			_latency[e.getCode().ordinal()].record(now - e.getSendTime());
+	}
+
+	/**
+	 * Returns a snapshot of event delivery latency and subscriber queue depth.
+	 * @return an EventStatistics bean
+	 */
+	public static EventStatistics getStatistics() {
+		Collection<Subscription> subs = new ArrayList<Subscription>(_subs.values());
+		subs.addAll(_handles);
+		return new EventStatistics(_latency, subs);
+	}
+
 	/**
 	 * Retrieves any pending events for the current Thread.
 	 * @return a Collection of SystemEvents
 	 */
-	public static synchronized Collection<SystemEvent> getEvents() {
-		Queue<SystemEvent> events = _events.get(Thread.currentThread());
-		if (events == null)
-			return Collections.emptySet();
-		
-		// Get our events and reset the list
-		Collection<SystemEvent> results = new ArrayList<SystemEvent>(events);
-		events.clear();
-		return results;
+	public static Collection<SystemEvent> getEvents() {
+		Subscription s = _subs.get(Thread.currentThread());
+		return (s == null) ? Collections.emptySet() : s.poll();
+	}
+
+	/**
+	 * Registers a thread to listen for system events if not already registered, and retrieves pending events, waiting until at least one event
+	 * arrives or a timeout elapses.
+	 * @param timeout the maximum time to wait
+	 * @return a Collection of SystemEvents, which is empty if the timeout elapsed
+	 * @throws InterruptedException if the thread is interrupted while waiting for an event
+	 */
+	public static Collection<SystemEvent> getEvents(Duration timeout) throws InterruptedException {
+		Subscription s = getSubscription();
+		return s.await(Math.max(0, timeout.toNanos())) ? s.poll() : Collections.emptySet();
+	}
+
+	/**
+	 * Registers a thread to listen for system events if not already registered, waits until at least one event is pending, and moves pending
+	 * events into a caller-supplied collection. This combines {@link EventDispatcher#waitForEvent()} and {@link EventDispatcher#getEvents()}
+	 * into a single call that allocates no intermediate collection, so the sink can be reused between calls.
+	 * @param sink the Collection to add events to
+	 * @param max the maximum number of events to move
+	 * @param timeout the maximum time to wait
+	 * @return the number of events moved, or zero if the timeout elapsed
+	 * @throws InterruptedException if the thread is interrupted while waiting for an event
+	 */
+	public static int drain(Collection<? super SystemEvent> sink, int max, Duration timeout) throws InterruptedException {
+		Subscription s = getSubscription();
+		return s.await(Math.max(0, timeout.toNanos())) ? s.drainTo(sink, Math.max(1, max)) : 0;
 	}
-	
+
 	/**
 	 * Unregister a thread from the event dispatcher.
 	 */
-	public static synchronized void unregister() {
-		_events.remove(Thread.currentThread());
+	public static void unregister() {
+		Subscription s = _subs.get(Thread.currentThread());
+		if (s != null)
+			remove(s);
 	}
-	
+
 	/**
 	 * Shuts down the dispatcher.
 	 */
-	public static synchronized void shutDown() {
-		for (Iterator<Map.Entry<Thread, Queue<SystemEvent>>> i = _events.entrySet().iterator(); i.hasNext(); ) {
-			Map.Entry<Thread, Queue<SystemEvent>> me = i.next();
-			if (me.getKey().isAlive())
-				me.getKey().interrupt();
-			
-			me.getValue().clear();
-			i.remove();
+	public static void shutDown() {
+		for (int x = 0; x < _coalescers.length(); x++) {
+			Coalescer c = _coalescers.getAndSet(x, null);
+			if (c != null)
+				c.stop();
+		}
+
+		_transports.forEach(EventTransport::close);
+		_transports.clear();
+
+		for (Subscription s : _subs.values()) {
+			if (s.isAlive())
+				s.getOwner().interrupt();
+
+			s.clear();
+			remove(s);
 		}
+
+		_handles.forEach(Subscription::close);
 	}
-}
\ No newline at end of file
+}
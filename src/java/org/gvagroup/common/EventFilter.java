@@ -0,0 +1,104 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * A class to select which system events are delivered to a subscriber. Events are first routed by {@link EventType}, and then optionally
+ * filtered on the user ID of a {@link UserEvent} or the ID of an {@link IDEvent}.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class EventFilter implements Predicate<SystemEvent> {
+
+	private final Set<EventType> _types = EnumSet.noneOf(EventType.class);
+	private IntPredicate _userFilter;
+	private Predicate<String> _idFilter;
+
+	/**
+	 * Creates a filter for a set of event types.
+	 * @param types the EventTypes, or none to receive all events
+	 */
+	public EventFilter(EventType... types) {
+		this(Arrays.asList(types));
+	}
+
+	/**
+	 * Creates a filter for a set of event types.
+	 * @param types a Collection of EventTypes, or an empty Collection to receive all events
+	 */
+	public EventFilter(Collection<EventType> types) {
+		super();
+		if (types.isEmpty())
+			_types.addAll(EnumSet.allOf(EventType.class));
+		else
+			_types.addAll(types);
+	}
+
+	/**
+	 * Returns the event types this filter accepts.
+	 * @return a Collection of EventTypes
+	 */
+	public Collection<EventType> getTypes() {
+		return Collections.unmodifiableSet(_types);
+	}
+
+	/**
+	 * Restricts user events to particular users. Other events are not affected.
+	 * @param f a predicate on the user's database ID, or null to accept all users
+	 */
+	public void setUserFilter(IntPredicate f) {
+		_userFilter = f;
+	}
+
+	/**
+	 * Restricts ID events to particular IDs. Other events are not affected.
+	 * @param f a predicate on the event ID, or null to accept all IDs
+	 */
+	public void setIDFilter(Predicate<String> f) {
+		_idFilter = f;
+	}
+
+	/**
+	 * Selects the portion of an event to deliver. Events other than a {@link BatchEvent} are returned unchanged if they pass the filter. A batch
+	 * is narrowed to those events that pass the user and ID filters.
+	 * @param e the SystemEvent
+	 * @return the SystemEvent to deliver, or null if nothing passes the filter
+	 */
+	public SystemEvent filter(SystemEvent e) {
+		if (!(e instanceof BatchEvent be) || ((_userFilter == null) && (_idFilter == null)))
+			return test(e) ? e : null;
+		else if (!_types.contains(e.getCode()))
+			return null;
+
+		List<SystemEvent> events = be.getEvents().stream().filter(this).toList();
+		if (events.size() == be.size())
+			return e;
+
+		if (events.isEmpty()) return null;
+		BatchEvent fe = new BatchEvent(e.getCode(), events);
+		fe.setSequence(e.getSequence());
+		fe.setSendTime(e.getSendTime());
+		return fe;
+	}
+
+	@Override
+	public boolean test(SystemEvent e) {
+		if (!_types.contains(e.getCode())) return false;
+		if (e instanceof BatchEvent be)
+			return be.getEvents().stream().anyMatch(this);
+		else if ((_userFilter != null) && (e instanceof UserEvent ue))
+			return _userFilter.test(ue.getUserID());
+		else if ((_idFilter != null) && (e instanceof IDEvent ie))
+			return _idFilter.test(ie.getID());
+
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return _types.toString();
+	}
+}
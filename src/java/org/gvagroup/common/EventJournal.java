@@ -0,0 +1,261 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.*;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.*;
+
+/**
+ * An append-only journal of system events, stored in memory-mapped segment files. Each event is assigned a sequence number, so a subscriber
+ * that was not registered when an event was sent can replay the events it missed. When a segment is full a new one is started, and the
+ * oldest segments are deleted once the maximum number of segments is reached.<br>
+ * <br>
+ * Each segment starts with a 16-byte header (magic, format version, first sequence number), followed by records consisting of the payload
+ * length, sequence number, timestamp and payload. A zero length marks the end of the segment. Payloads are encoded using {@link EventCodec}.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class EventJournal implements AutoCloseable {
+
+	private static final Logger log = LogManager.getLogger(EventJournal.class);
+
+	private static final int MAGIC = 0x47564A4E;
+	private static final int VERSION = 2;
+	private static final int HEADER_SIZE = 16;
+	private static final int RECORD_HEADER_SIZE = 20;
+	private static final String PREFIX = "events-";
+	private static final String SUFFIX = ".jnl";
+
+	private final File _dir;
+	private final int _segmentSize;
+	private final int _maxSegments;
+
+	private final Lock _w = new ReentrantLock();
+	private volatile List<Segment> _segments = Collections.emptyList();
+	private volatile long _lastSeq;
+
+	private static class Segment {
+		private final File _f;
+		private final long _firstSeq;
+		private final MappedByteBuffer _buf;
+		private int _writePos = HEADER_SIZE;
+
+		Segment(File f, long firstSeq, MappedByteBuffer buf) {
+			super();
+			_f = f;
+			_firstSeq = firstSeq;
+			_buf = buf;
+		}
+	}
+
+	/**
+	 * Opens the journal, recovering any existing segments.
+	 * @param dir the journal directory
+	 * @param segmentSize the size of each segment file in bytes
+	 * @param maxSegments the maximum number of segments to retain
+	 * @throws IOException if an I/O error occurs
+	 */
+	public EventJournal(File dir, int segmentSize, int maxSegments) throws IOException {
+		super();
+		_dir = dir;
+		_segmentSize = Math.max(4096, segmentSize);
+		_maxSegments = Math.max(2, maxSegments);
+		if (!dir.isDirectory() && !dir.mkdirs())
+			throw new FileNotFoundException(dir.getAbsolutePath());
+
+		// Load existing segments
+		File[] files = dir.listFiles((d, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+		Arrays.sort(files);
+		List<Segment> segs = new ArrayList<Segment>();
+		for (File f : files) {
+			try {
+				Segment s = map(f, -1);
+				segs.add(s);
+			} catch (IOException ie) {
+				log.warn("Skipping journal segment {} - {}", f.getName(), ie.getMessage());
+			}
+		}
+
+		// Find the end of the last segment
+		if (!segs.isEmpty()) {
+			Segment s = segs.get(segs.size() - 1);
+			_lastSeq = s._firstSeq - 1;
+			ByteBuffer buf = s._buf;
+			int len = buf.getInt(s._writePos);
+			while ((len > 0) && ((s._writePos + RECORD_HEADER_SIZE + len) <= _segmentSize)) {
+				_lastSeq = buf.getLong(s._writePos + 4);
+				s._writePos += RECORD_HEADER_SIZE + len;
+				len = ((s._writePos + RECORD_HEADER_SIZE) <= _segmentSize) ? buf.getInt(s._writePos) : 0;
+			}
+
+			log.info("Recovered {} journal segments, last sequence = {}", Integer.valueOf(segs.size()), Long.valueOf(_lastSeq));
+		}
+
+		_segments = List.copyOf(segs);
+	}
+
+	/*
+	 * Maps a segment file, creating it if the first sequence number is not negative.
+	 */
+	private Segment map(File f, long firstSeq) throws IOException {
+		boolean isNew = (firstSeq >= 0);
+		Set<StandardOpenOption> opts = EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (isNew)
+			opts.add(StandardOpenOption.TRUNCATE_EXISTING);
+
+		try (FileChannel fc = FileChannel.open(f.toPath(), opts)) {
+			if (!isNew && (fc.size() < _segmentSize))
+				throw new IOException(String.format("Invalid segment size %d", Long.valueOf(fc.size())));
+
+			MappedByteBuffer buf = fc.map(FileChannel.MapMode.READ_WRITE, 0, _segmentSize);
+			if (isNew) {
+				buf.putInt(0, MAGIC);
+				buf.putInt(4, VERSION);
+				buf.putLong(8, firstSeq);
+			} else if ((buf.getInt(0) != MAGIC) || (buf.getInt(4) != VERSION))
+				throw new IOException("Invalid segment header");
+
+			return new Segment(f, buf.getLong(8), buf);
+		}
+	}
+
+	/**
+	 * Returns the sequence number of the most recent event.
+	 * @return the sequence number, or zero if the journal is empty
+	 */
+	public long getLastSequence() {
+		return _lastSeq;
+	}
+
+	/**
+	 * Returns the sequence number of the oldest event still retained.
+	 * @return the sequence number
+	 */
+	public long getFirstSequence() {
+		List<Segment> segs = _segments;
+		return segs.isEmpty() ? _lastSeq + 1 : segs.get(0)._firstSeq;
+	}
+
+	/**
+	 * Appends an event to the journal.
+	 * @param e the SystemEvent
+	 * @return the event's sequence number, or zero if it could not be journaled
+	 */
+	public long append(SystemEvent e) {
+		int size = EventCodec.size(e);
+		if ((size + RECORD_HEADER_SIZE + 4) > (_segmentSize - HEADER_SIZE)) {
+			log.warn("Cannot journal {} - {} bytes", e, Integer.valueOf(size));
+			return 0;
+		}
+
+		try {
+			_w.lock();
+			long seq = _lastSeq + 1;
+			List<Segment> segs = _segments;
+			Segment s = segs.isEmpty() ? null : segs.get(segs.size() - 1);
+			if ((s == null) || ((s._writePos + RECORD_HEADER_SIZE + size + 4) > _segmentSize))
+				s = rollover(seq);
+
+			// Write the payload before the length, so readers never see a partial record
+			ByteBuffer buf = s._buf;
+			buf.putLong(s._writePos + 4, seq);
+			buf.putLong(s._writePos + 12, System.currentTimeMillis());
+			buf.position(s._writePos + RECORD_HEADER_SIZE);
+			EventCodec.encode(e, buf);
+			buf.putInt(s._writePos, size);
+			s._writePos += RECORD_HEADER_SIZE + size;
+			_lastSeq = seq;
+			return seq;
+		} catch (IOException ie) {
+			log.atError().withThrowable(ie).log("Error journaling {}", e);
+			return 0;
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	/*
+	 * Starts a new segment, removing the oldest segments if necessary. Must be called while holding the write lock.
+	 */
+	private Segment rollover(long firstSeq) throws IOException {
+		List<Segment> segs = new ArrayList<Segment>(_segments);
+		if (!segs.isEmpty())
+			segs.get(segs.size() - 1)._buf.force();
+
+		File f = new File(_dir, String.format("%s%019d%s", PREFIX, Long.valueOf(firstSeq), SUFFIX));
+		Segment s = map(f, firstSeq);
+		segs.add(s);
+		while (segs.size() > _maxSegments) {
+			Segment os = segs.remove(0);
+			if (!os._f.delete())
+				log.warn("Cannot delete journal segment {}", os._f.getName());
+		}
+
+		_segments = List.copyOf(segs);
+		log.info("Started journal segment {}", f.getName());
+		return s;
+	}
+
+	/**
+	 * Replays events with a sequence number greater than a given value.
+	 * @param lastSeq the sequence number of the last event already seen
+	 * @param c the Consumer to receive the events, in sequence order
+	 * @return TRUE if all missed events were replayed, FALSE if some have already been removed from the journal
+	 */
+	public boolean replay(long lastSeq, Consumer<SystemEvent> c) {
+		long maxSeq = _lastSeq;
+		List<Segment> segs = _segments;
+		for (int x = 0; x < segs.size(); x++) {
+			Segment s = segs.get(x);
+			boolean hasNext = (x < (segs.size() - 1));
+			if (hasNext && (segs.get(x + 1)._firstSeq <= (lastSeq + 1)))
+				continue;
+
+			ByteBuffer buf = s._buf.duplicate();
+			int pos = HEADER_SIZE;
+			while ((pos + RECORD_HEADER_SIZE) <= _segmentSize) {
+				int len = buf.getInt(pos);
+				if (len <= 0) break;
+				long seq = buf.getLong(pos + 4);
+				if (seq > maxSeq) break;
+				if (seq > lastSeq) {
+					buf.limit(pos + RECORD_HEADER_SIZE + len).position(pos + RECORD_HEADER_SIZE);
+					try {
+						SystemEvent e = EventCodec.decode(buf);
+						e.setSequence(seq);
+						c.accept(e);
+					} catch (BufferUnderflowException | IllegalArgumentException iae) {
+						log.warn("Cannot decode journal event {} - {}", Long.valueOf(seq), iae.getMessage());
+					}
+
+					buf.limit(_segmentSize);
+				}
+
+				pos += RECORD_HEADER_SIZE + len;
+			}
+		}
+
+		return ((lastSeq + 1) >= getFirstSequence()) || (lastSeq >= maxSeq);
+	}
+
+	/**
+	 * Flushes the journal to disk.
+	 */
+	@Override
+	public void close() {
+		try {
+			_w.lock();
+			for (Segment s : _segments)
+				s._buf.force();
+		} finally {
+			_w.unlock();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.time.Instant;
+import java.util.*;
+
+import org.gvagroup.ipc.LatencyHistogram;
+
+/**
+ * A bean to store a snapshot of event dispatcher statistics. Latency is measured from when an event is sent to when a subscriber retrieves it.
+ * @version 3.12
+ * @since 3.12
+ * @see EventDispatcher#getStatistics()
+ */
+
+public class EventStatistics implements java.io.Serializable {
+
+	private static final long serialVersionUID = -5260810374117196327L;
+
+	private final Instant _createdOn = Instant.now();
+	private final Map<EventType, LatencyHistogram> _latency = new EnumMap<EventType, LatencyHistogram>(EventType.class);
+	private final List<SubscriberInfo> _subs = new ArrayList<SubscriberInfo>();
+
+	/**
+	 * Creates the bean.
+	 * @param latency the latency histograms, indexed by EventType ordinal
+	 * @param subs the Subscriptions
+	 */
+	EventStatistics(LatencyHistogram[] latency, Collection<Subscription> subs) {
+		super();
+		for (EventType t : EventType.values()) {
+			LatencyHistogram h = latency[t.ordinal()];
+			if (h.getCount() > 0)
+				_latency.put(t, h.snapshot());
+		}
+
+		subs.stream().map(SubscriberInfo::new).sorted().forEach(_subs::add);
+	}
+
+	/**
+	 * Returns when the snapshot was taken.
+	 * @return the date/time
+	 */
+	public Instant getCreatedOn() {
+		return _createdOn;
+	}
+
+	/**
+	 * Returns the delivery latency for an event type.
+	 * @param t the EventType
+	 * @return a LatencyHistogram, or null if no events of this type have been retrieved
+	 */
+	public LatencyHistogram getLatency(EventType t) {
+		return _latency.get(t);
+	}
+
+	/**
+	 * Returns the delivery latency for all event types that have been retrieved.
+	 * @return a Map of LatencyHistograms, keyed by EventType
+	 */
+	public Map<EventType, LatencyHistogram> getLatencies() {
+		return Collections.unmodifiableMap(_latency);
+	}
+
+	/**
+	 * Returns information about each subscriber, sorted by descending queue depth.
+	 * @return a List of SubscriberInfo beans
+	 */
+	public List<SubscriberInfo> getSubscribers() {
+		return Collections.unmodifiableList(_subs);
+	}
+
+	/**
+	 * Returns the largest current queue depth of any subscriber.
+	 * @return the number of pending events
+	 */
+	public int getMaxPending() {
+		return _subs.isEmpty() ? 0 : _subs.get(0).getDepth();
+	}
+}
@@ -0,0 +1,30 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+/**
+ * An interface for transports that relay system events to other virtual machines.
+ * @version 3.12
+ * @since 3.12
+ * @see EventDispatcher#addTransport(EventTransport)
+ */
+
+public interface EventTransport extends AutoCloseable {
+
+	/**
+	 * Publishes an event to remote subscribers. This should not block the caller.
+	 * @param e the SystemEvent
+	 */
+	public void publish(SystemEvent e);
+
+	/**
+	 * Returns whether the transport is currently connected to at least one remote peer.
+	 * @return TRUE if connected, otherwise FALSE
+	 */
+	public boolean isConnected();
+
+	/**
+	 * Closes the transport.
+	 */
+	@Override
+	public void close();
+}
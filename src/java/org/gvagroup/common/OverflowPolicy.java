@@ -0,0 +1,24 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+/**
+ * An enumeration of actions to take when a subscriber's event queue is full.
+ * @version 3.12
+ * @since 3.12
+ * @see EventDispatcher#register(EventFilter, int, OverflowPolicy)
+ */
+
+public enum OverflowPolicy {
+	/**
+	 * Discard the oldest pending event.
+	 */
+	DROP_OLDEST,
+	/**
+	 * Discard all pending events and replace them with a {@link ResyncEvent}, so the subscriber knows to reload its state.
+	 */
+	RESYNC,
+	/**
+	 * Block the sender until space is available, falling back to {@link #RESYNC} if the timeout elapses or the sender is the subscriber.
+	 */
+	BLOCK;
+}
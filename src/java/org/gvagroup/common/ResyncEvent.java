@@ -0,0 +1,39 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+/**
+ * A System Event delivered in place of pending events that were discarded because a subscriber's queue was full. Subscribers receiving this
+ * event should reload any state maintained from events. It is delivered regardless of the subscriber's filter.
+ * @version 3.12
+ * @since 3.12
+ * @see OverflowPolicy#RESYNC
+ */
+
+public class ResyncEvent extends SystemEvent {
+
+	private static final long serialVersionUID = 2881705923481660519L;
+
+	private final long _dropped;
+
+	/**
+	 * Creates the Event.
+	 * @param dropped the number of events discarded
+	 */
+	public ResyncEvent(long dropped) {
+		super(EventType.CACHE_FLUSH);
+		_dropped = Math.max(0, dropped);
+	}
+
+	/**
+	 * Returns the number of events discarded.
+	 * @return the number of events
+	 */
+	public long getDropped() {
+		return _dropped;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RESYNC-%d", Long.valueOf(_dropped));
+	}
+}
@@ -1,17 +1,30 @@
-// Copyright 2007, 2010, 2011, 2013, 2016, 2017, 2019, 2023, 2024 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2007, 2010, 2011, 2013, 2016, 2017, 2019, 2023, 2024, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.common;
 
 import java.util.*;
-import java.io.Serializable;
+import java.io.*;
+import java.time.*;
 
 import org.apache.logging.log4j.*;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 /**
- * A utility class to store common data between web applications.
+ * A utility class to store common data between web applications. Each element is stored with a version that increases whenever it changes,
+ * so consumers can call {@link SharedData#getIfNewer(String, long)} or register a {@link SharedDataListener} rather than polling and
+ * comparing references. Expensive elements may be loaded with {@link SharedData#computeIfAbsent(String, Callable, Duration)}, so that
+ * only one application loads them when several start together.<br>
+ * <br>
+ * Elements may be shared with a time to live, and elements that can be reloaded on demand may be marked as reloadable. If a memory
+ * budget is set, the estimated size of each element is calculated and the oldest reloadable elements are made softly reachable when
+ * the budget is exceeded. Expiry and the memory budget are enforced by a task running on the shared worker thread, which calls
+ * {@link SharedData#expire()} periodically.<br>
+ * <br>
+ * Large reference data may also be published to a {@link SharedRegion}, so that other virtual machines on the same host can read it
+ * directly from a memory-mapped file.
  * @author Luke
- * @version 3.00
+ * @version 3.12
  * @since 1.0
  */
 
@@ -23,6 +36,7 @@ public class SharedData {
 	public static final String ACARS_CMDSTATS = "$acarsDaemon$cmdStats";
 	
 	public static final String JDBC_POOL="$jdbc$pool";
+	public static final String JDBC_CACHE="$jdbc$cache";
 	public static final String JEDIS_POOL="$valkey$pool";
 	public static final String ECON_DATA = "$econ$master"; 
 	
@@ -31,8 +45,29 @@ public class SharedData {
 	private static final Logger log = LogManager.getLogger(SharedData.class);
 
 	private static final Collection<String> _appNames = Collections.synchronizedSet(new LinkedHashSet<String>());
-	private static final Map<String, Serializable> _data = new ConcurrentHashMap<String, Serializable>();
-	private static final Map<String, ClassLoader> _loaders = new ConcurrentHashMap<String, ClassLoader>();
+	private static final Map<String, SharedDataEntry> _data = new ConcurrentHashMap<String, SharedDataEntry>();
+	private static final Collection<ListenerEntry> _listeners = new CopyOnWriteArrayList<ListenerEntry>();
+	private static final Map<String, CompletableFuture<Serializable>> _loads = new ConcurrentHashMap<String, CompletableFuture<Serializable>>();
+	private static final AtomicLong _version = new AtomicLong();
+	private static volatile SharedRegion _region;
+	private static volatile long _maxMemory;
+
+	private static class ListenerEntry {
+		private final String _key;
+		private final SharedDataListener _l;
+		private final ClassLoader _loader;
+
+		ListenerEntry(String key, SharedDataListener l, ClassLoader loader) {
+			super();
+			_key = key;
+			_l = l;
+			_loader = loader;
+		}
+
+		boolean matches(String key) {
+			return (_key == null) || _key.equals(key);
+		}
+	}
 
 	// singleton
 	private SharedData() {
@@ -57,56 +92,348 @@ public class SharedData {
 	}
 	
 	/**
-	 * Shares a data element.
+	 * Shares a data element. Every call creates a new version and notifies listeners, even if the element is the same object as the
+	 * existing element, so a caller that updates a shared bean in place should add it again to publish the change.
 	 * @param key the element ID
 	 * @param value the element
 	 */
 	public static void addData(String key, Serializable value) {
+		addData(key, value, null, false);
+	}
+
+	/**
+	 * Shares a data element with a time to live. Every call creates a new version and notifies listeners.
+	 * @param key the element ID
+	 * @param value the element
+	 * @param ttl the time to live, or null if the element does not expire
+	 * @param isReloadable TRUE if the element may be reclaimed when the memory budget is exceeded, otherwise FALSE
+	 */
+	public static void addData(String key, Serializable value, Duration ttl, boolean isReloadable) {
 		ClassLoader myLoader = Thread.currentThread().getContextClassLoader();
-		ClassLoader cl = _loaders.get(key);
-		if ((cl != null) && (cl != myLoader))
-			log.warn("Shared data {} already loaded by {}", key, cl);
-				
-		_data.put(key, value);
-		_loaders.put(key, myLoader);
+		SharedDataEntry se = _data.compute(key, (k, ose) -> {
+			if ((ose != null) && (ose.getLoader() != myLoader))
+				log.warn("Shared data {} already loaded by {}", key, ose.getLoader());
+
+			return new SharedDataEntry(key, value, _version.incrementAndGet(), myLoader, ttl, isReloadable);
+		});
+
+		notify(key, se);
 	}
-	
+
+	/*
+	 * Notifies listeners that an element has changed.
+	 */
+	private static void notify(String key, SharedDataEntry se) {
+		for (ListenerEntry le : _listeners) {
+			if (!le.matches(key)) continue;
+			try {
+				le._l.dataChanged(key, se);
+			} catch (Exception e) {
+				log.atError().withThrowable(e).log("Error notifying listener for {}", key);
+			}
+		}
+	}
+
 	/**
 	 * Retrieves a shared data element.
 	 * @param key the object key
-	 * @return the object, or null if not found
+	 * @return the object, or null if not found, expired or reclaimed
 	 */
 	public static Serializable get(String key) {
+		SharedDataEntry se = _data.get(key);
+		return ((se == null) || se.isExpired(Instant.now())) ? null : se.getValue();
+	}
+
+	/**
+	 * Retrieves a shared data element, loading it if not present. If several threads request the same missing element, only one runs its
+	 * loader and the others wait for the result. The element is shared using the loading thread's context ClassLoader, so it is purged with
+	 * that application, and is marked as reloadable. If the loader fails, the failure is returned to all waiting threads and the next request runs a loader again.
+	 * @param <T> the element type
+	 * @param key the element ID
+	 * @param loader a Callable to load the element
+	 * @param timeout the maximum time to wait for another thread's loader
+	 * @return the element, or null if the loader returned null
+	 * @throws ExecutionException if the loader threw an exception
+	 * @throws TimeoutException if the timeout elapsed while waiting for another thread's loader
+	 * @throws InterruptedException if interrupted while waiting for another thread's loader
+	 */
+	public static <T extends Serializable> T computeIfAbsent(String key, Callable<T> loader, Duration timeout) throws ExecutionException, TimeoutException, InterruptedException {
+		return computeIfAbsent(key, loader, timeout, null);
+	}
+
+	/**
+	 * Retrieves a shared data element, loading it if not present or expired. If several threads request the same missing element, only one
+	 * runs its loader and the others wait for the result. The element is shared using the loading thread's context ClassLoader, so it is
+	 * purged with that application, and is marked as reloadable. If the loader fails, the failure is returned to all waiting threads and
+	 * the next request runs a loader again.
+	 * @param <T> the element type
+	 * @param key the element ID
+	 * @param loader a Callable to load the element
+	 * @param timeout the maximum time to wait for another thread's loader
+	 * @param ttl the time to live, or null if the element does not expire
+	 * @return the element, or null if the loader returned null
+	 * @throws ExecutionException if the loader threw an exception
+	 * @throws TimeoutException if the timeout elapsed while waiting for another thread's loader
+	 * @throws InterruptedException if interrupted while waiting for another thread's loader
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Serializable> T computeIfAbsent(String key, Callable<T> loader, Duration timeout, Duration ttl) throws ExecutionException, TimeoutException, InterruptedException {
+		Serializable v = get(key);
+		if (v != null) return (T) v;
+
+		CompletableFuture<Serializable> f = new CompletableFuture<Serializable>();
+		CompletableFuture<Serializable> of = _loads.putIfAbsent(key, f);
+		if (of != null)
+			return (T) of.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+		try {
+			v = get(key);
+			T value = (v != null) ? (T) v : loader.call();
+			if ((v == null) && (value != null))
+				addData(key, value, ttl, true);
+
+			f.complete(value);
+			return value;
+		} catch (Exception e) {
+			log.atError().withThrowable(e).log("Error loading {}", key);
+			f.completeExceptionally(e);
+			throw new ExecutionException(e);
+		} finally {
+			_loads.remove(key, f);
+		}
+	}
+
+	/**
+	 * Retrieves a versioned shared data element.
+	 * @param key the object key
+	 * @return the SharedDataEntry, or null if not found
+	 */
+	public static SharedDataEntry getEntry(String key) {
 		return _data.get(key);
 	}
-	
+
+	/**
+	 * Returns the version of a shared data element.
+	 * @param key the object key
+	 * @return the version, or zero if not found
+	 */
+	public static long getVersion(String key) {
+		SharedDataEntry se = _data.get(key);
+		return (se == null) ? 0 : se.getVersion();
+	}
+
+	/**
+	 * Retrieves a shared data element if it has changed since a given version.
+	 * @param key the object key
+	 * @param version the version already retrieved, or zero if none
+	 * @return the SharedDataEntry, or null if not found or unchanged
+	 */
+	public static SharedDataEntry getIfNewer(String key, long version) {
+		SharedDataEntry se = _data.get(key);
+		return ((se != null) && (se.getVersion() > version)) ? se : null;
+	}
+
+	/**
+	 * Sets the memory-mapped region used to share elements between virtual machines.
+	 * @param r the SharedRegion, or null to disable
+	 */
+	public static void setRegion(SharedRegion r) {
+		_region = r;
+	}
+
+	/**
+	 * Returns the memory-mapped region used to share elements between virtual machines.
+	 * @return the SharedRegion, or null if not set
+	 */
+	public static SharedRegion getRegion() {
+		return _region;
+	}
+
+	/**
+	 * Publishes a data element to the memory-mapped region.
+	 * @param key the element ID
+	 * @param data the element data
+	 * @return the element version, or zero if no region is set or it is full
+	 * @see SharedRegion#put(String, ByteBuffer)
+	 */
+	public static long addMapped(String key, java.nio.ByteBuffer data) {
+		SharedRegion r = _region;
+		return (r == null) ? 0 : r.put(key, data);
+	}
+
+	/**
+	 * Retrieves a data element from the memory-mapped region, without copying it.
+	 * @param key the element ID
+	 * @return a read-only ByteBuffer, or null if no region is set or the element is not found
+	 * @see SharedRegion#get(String)
+	 */
+	public static java.nio.ByteBuffer getMapped(String key) {
+		SharedRegion r = _region;
+		return (r == null) ? null : r.get(key);
+	}
+
+	/**
+	 * Registers a listener to be notified when a shared data element changes. The listener is called on the thread that changed the
+	 * element, after the change, and is removed automatically when the registering application is purged.
+	 * @param key the object key, or null for all elements
+	 * @param l the SharedDataListener
+	 */
+	public static void addListener(String key, SharedDataListener l) {
+		_listeners.add(new ListenerEntry(key, l, Thread.currentThread().getContextClassLoader()));
+	}
+
+	/**
+	 * Removes a listener.
+	 * @param l the SharedDataListener
+	 */
+	public static void removeListener(SharedDataListener l) {
+		_listeners.removeIf(le -> (le._l == l));
+	}
+
+	/**
+	 * Sets the memory budget for shared data elements. When the estimated size of all elements exceeds the budget, the oldest reloadable
+	 * elements are made softly reachable.
+	 * @param maxMemory the budget in bytes, or zero for no budget
+	 */
+	public static void setMemoryBudget(long maxMemory) {
+		_maxMemory = Math.max(0, maxMemory);
+	}
+
+	/**
+	 * Removes a shared data element if it has not been replaced, and notifies listeners.
+	 * @param key the element ID
+	 * @param value the element to remove
+	 * @return TRUE if the element was removed, otherwise FALSE
+	 */
+	public static boolean remove(String key, Serializable value) {
+		SharedDataEntry se = _data.get(key);
+		return (se != null) && (se.getValue() == value) && remove(se);
+	}
+
+	/*
+	 * Removes an element if it has not been replaced, and notifies listeners.
+	 */
+	private static boolean remove(SharedDataEntry se) {
+		if (!_data.remove(se.getKey(), se)) return false;
+		notify(se.getKey(), null);
+		return true;
+	}
+
+	/*
+	 * Estimates the retained size of an element from its serialized size.
+	 */
+	private static long estimateSize(Serializable value) {
+		long[] size = new long[1];
+		OutputStream out = new OutputStream() {
+			@Override
+			public void write(int b) {
+				size[0]++;
+			}
+
+			@Override
+			public void write(byte[] b, int ofs, int len) {
+				size[0] += len;
+			}
+		};
+
+		try (ObjectOutputStream oo = new ObjectOutputStream(out)) {
+			oo.writeObject(value);
+			return size[0];
+		} catch (IOException ie) {
+			log.warn("Cannot estimate size of {} - {}", value.getClass().getName(), ie.getMessage());
+			return 0;
+		}
+	}
+
+	/**
+	 * Removes expired and reclaimed elements, and enforces the memory budget.
+	 * @return the number of elements removed
+	 */
+	public static int expire() {
+		Instant now = Instant.now();
+		int cnt = 0;
+		long totalSize = 0;
+		List<SharedDataEntry> reloadable = new ArrayList<SharedDataEntry>();
+		for (SharedDataEntry se : _data.values()) {
+			Serializable v = se.getValue();
+			if (((v == null) || se.isExpired(now)) && remove(se)) {
+				cnt++;
+				continue;
+			} else if (se.isSoft() || (v == null))
+				continue;
+
+			if ((_maxMemory > 0) && (se.getSize() < 0))
+				se.setSize(estimateSize(v));
+
+			totalSize += Math.max(0, se.getSize());
+			if (se.isReloadable())
+				reloadable.add(se);
+		}
+
+		// Soften the oldest reloadable elements if over budget
+		long maxMemory = _maxMemory;
+		if ((maxMemory > 0) && (totalSize > maxMemory)) {
+			reloadable.sort(Comparator.comparing(SharedDataEntry::getUpdatedOn));
+			for (Iterator<SharedDataEntry> i = reloadable.iterator(); i.hasNext() && (totalSize > maxMemory); ) {
+				SharedDataEntry se = i.next();
+				se.soften();
+				totalSize -= Math.max(0, se.getSize());
+				log.info("Softened {}, {} bytes", se, Long.valueOf(se.getSize()));
+			}
+		}
+
+		if (cnt > 0)
+			log.info("Removed {} expired shared objects", Integer.valueOf(cnt));
+
+		return cnt;
+	}
+
+	/**
+	 * Returns diagnostic information about all shared data elements. This does not serialize or copy the elements.
+	 * @return a sorted List of SharedDataInfo beans
+	 */
+	public static List<SharedDataInfo> getSnapshot() {
+		List<SharedDataInfo> results = new ArrayList<SharedDataInfo>(_data.size());
+		_data.values().forEach(se -> results.add(new SharedDataInfo(se)));
+		Collections.sort(results);
+		return results;
+	}
+
+	/**
+	 * Returns the estimated size of all strongly reachable shared data elements, as of the last expiry run.
+	 * @return the size in bytes
+	 */
+	public static long getMemoryUse() {
+		return _data.values().stream().filter(se -> !se.isSoft()).mapToLong(se -> Math.max(0, se.getSize())).sum();
+	}
+
 	/**
 	 * Purges classloader entries from the current classloader, when a web application is reloaded.
 	 * @param appCode the application code
 	 */
 	public static synchronized void purge(String appCode) {
-		int objCount = 0;
 		ClassLoader myLoader = Thread.currentThread().getContextClassLoader();
-		for (Iterator<Map.Entry<String, ClassLoader>> i = _loaders.entrySet().iterator(); i.hasNext(); ) {
-			Map.Entry<String, ClassLoader> me = i.next();
-			if (myLoader == me.getValue()) {
-				if (_data.remove(me.getKey()) == null)
-					log.warn("Unable to remove data for {}", me.getKey());
-					
+		int lCount = _listeners.size();
+		_listeners.removeIf(le -> (le._loader == myLoader));
+		Collection<String> keys = new ArrayList<String>();
+		for (Iterator<SharedDataEntry> i = _data.values().iterator(); i.hasNext(); ) {
+			SharedDataEntry se = i.next();
+			if (myLoader == se.getLoader()) {
 				i.remove();
-				objCount++;
+				keys.add(se.getKey());
 			}
 		}
 		
+		keys.forEach(k -> notify(k, null));
 		_appNames.remove(appCode);
-		log.info("Removed {} shared objects", Integer.valueOf(objCount));
+		log.info("Removed {} shared objects, {} listeners", Integer.valueOf(keys.size()), Integer.valueOf(lCount - _listeners.size()));
 	}
 	
 	/**
-	 * Returns a string representation of the common data store.
-	 * @return the data toString()
+	 * Returns a string representation of the common data store, listing each element's key, version, loader, size and age.
+	 * @return the data store contents
 	 */
 	public static String getData() {
-		return _data.toString();
+		return getSnapshot().toString();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.io.Serializable;
+import java.lang.ref.SoftReference;
+import java.time.*;
+
+/**
+ * A versioned shared data element. Versions are assigned from a single counter, so they increase every time any key is updated and a
+ * key's version never repeats, even if it is removed and added again.<br>
+ * <br>
+ * An entry may have a time to live, after which it is removed. Entries marked as reloadable may be softened when the shared data memory
+ * budget is exceeded, after which the element is only softly reachable and may be reclaimed by the garbage collector. A reclaimed
+ * element's value is null, and the consumer should reload it.
+ * @version 3.12
+ * @since 3.12
+ * @see SharedData#getEntry(String)
+ */
+
+public class SharedDataEntry {
+
+	private final String _key;
+	private final long _version;
+	private final Instant _updatedOn = Instant.now();
+	private final Instant _expiresOn;
+	private final boolean _isReloadable;
+	private final ClassLoader _loader;
+
+	private volatile Serializable _value;
+	private volatile SoftReference<Serializable> _ref;
+	private volatile long _size = -1;
+
+	/**
+	 * Creates the entry.
+	 * @param key the element ID
+	 * @param value the element
+	 * @param version the version
+	 * @param loader the ClassLoader of the application that added the element
+	 * @param ttl the time to live, or null if the element does not expire
+	 * @param isReloadable TRUE if the element may be reclaimed when the memory budget is exceeded, otherwise FALSE
+	 */
+	SharedDataEntry(String key, Serializable value, long version, ClassLoader loader, Duration ttl, boolean isReloadable) {
+		super();
+		_key = key;
+		_value = value;
+		_version = version;
+		_loader = loader;
+		_expiresOn = (ttl == null) ? null : _updatedOn.plus(ttl);
+		_isReloadable = isReloadable;
+	}
+
+	/**
+	 * Returns the element ID.
+	 * @return the ID
+	 */
+	public String getKey() {
+		return _key;
+	}
+
+	/**
+	 * Returns the element.
+	 * @return the element, or null if it has been reclaimed
+	 */
+	public Serializable getValue() {
+		Serializable v = _value;
+		if (v != null) return v;
+		SoftReference<Serializable> ref = _ref;
+		return (ref == null) ? null : ref.get();
+	}
+
+	/**
+	 * Returns the element version.
+	 * @return the version
+	 */
+	public long getVersion() {
+		return _version;
+	}
+
+	/**
+	 * Returns when the element was last updated.
+	 * @return the update date/time
+	 */
+	public Instant getUpdatedOn() {
+		return _updatedOn;
+	}
+
+	/**
+	 * Returns when the element expires.
+	 * @return the expiry date/time, or null if it does not expire
+	 */
+	public Instant getExpiresOn() {
+		return _expiresOn;
+	}
+
+	/**
+	 * Returns whether the element has expired.
+	 * @param now the current date/time
+	 * @return TRUE if expired, otherwise FALSE
+	 */
+	public boolean isExpired(Instant now) {
+		return (_expiresOn != null) && now.isAfter(_expiresOn);
+	}
+
+	/**
+	 * Returns whether the element may be reclaimed when the memory budget is exceeded.
+	 * @return TRUE if reloadable, otherwise FALSE
+	 */
+	public boolean isReloadable() {
+		return _isReloadable;
+	}
+
+	/**
+	 * Returns whether the element is only softly reachable.
+	 * @return TRUE if softened, otherwise FALSE
+	 */
+	public boolean isSoft() {
+		return (_value == null);
+	}
+
+	/**
+	 * Returns the estimated retained size of the element.
+	 * @return the size in bytes, or -1 if not yet estimated
+	 */
+	public long getSize() {
+		return _size;
+	}
+
+	/**
+	 * Updates the estimated retained size of the element.
+	 * @param size the size in bytes
+	 */
+	void setSize(long size) {
+		_size = size;
+	}
+
+	/**
+	 * Makes the element softly reachable, so that it may be reclaimed by the garbage collector.
+	 */
+	void soften() {
+		Serializable v = _value;
+		if (v != null) {
+			_ref = new SoftReference<Serializable>(v);
+			_value = null;
+		}
+	}
+
+	/**
+	 * Returns the ClassLoader of the application that added the element.
+	 * @return the ClassLoader
+	 */
+	ClassLoader getLoader() {
+		return _loader;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s-v%d", _key, Long.valueOf(_version));
+	}
+}
@@ -0,0 +1,127 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.time.*;
+
+/**
+ * A bean to store diagnostic information about a shared data element.
+ * @version 3.12
+ * @since 3.12
+ * @see SharedData#getSnapshot()
+ */
+
+public class SharedDataInfo implements java.io.Serializable, Comparable<SharedDataInfo> {
+
+	private static final long serialVersionUID = 3526871960145288403L;
+
+	private final String _key;
+	private final String _loader;
+	private final long _version;
+	private final long _size;
+	private final Instant _updatedOn;
+	private final Instant _expiresOn;
+	private final boolean _isReloadable;
+	private final boolean _isSoft;
+
+	/**
+	 * Creates the bean.
+	 * @param se the SharedDataEntry
+	 */
+	SharedDataInfo(SharedDataEntry se) {
+		super();
+		_key = se.getKey();
+		_version = se.getVersion();
+		_size = se.getSize();
+		_updatedOn = se.getUpdatedOn();
+		_expiresOn = se.getExpiresOn();
+		_isReloadable = se.isReloadable();
+		_isSoft = se.isSoft();
+		ClassLoader cl = se.getLoader();
+		if (cl == null)
+			_loader = "bootstrap";
+		else
+			_loader = (cl.getName() != null) ? cl.getName() : String.format("%s@%x", cl.getClass().getSimpleName(), Integer.valueOf(System.identityHashCode(cl)));
+	}
+
+	/**
+	 * Returns the element ID.
+	 * @return the ID
+	 */
+	public String getKey() {
+		return _key;
+	}
+
+	/**
+	 * Returns the name of the ClassLoader that added the element.
+	 * @return the ClassLoader name
+	 */
+	public String getLoader() {
+		return _loader;
+	}
+
+	/**
+	 * Returns the element version.
+	 * @return the version
+	 */
+	public long getVersion() {
+		return _version;
+	}
+
+	/**
+	 * Returns the estimated retained size of the element.
+	 * @return the size in bytes, or -1 if not yet estimated
+	 */
+	public long getSize() {
+		return _size;
+	}
+
+	/**
+	 * Returns when the element was last updated.
+	 * @return the update date/time
+	 */
+	public Instant getUpdatedOn() {
+		return _updatedOn;
+	}
+
+	/**
+	 * Returns the age of the element.
+	 * @return the time since the element was last updated
+	 */
+	public Duration getAge() {
+		return Duration.between(_updatedOn, Instant.now());
+	}
+
+	/**
+	 * Returns when the element expires.
+	 * @return the expiry date/time, or null if it does not expire
+	 */
+	public Instant getExpiresOn() {
+		return _expiresOn;
+	}
+
+	/**
+	 * Returns whether the element may be reclaimed when the memory budget is exceeded.
+	 * @return TRUE if reloadable, otherwise FALSE
+	 */
+	public boolean isReloadable() {
+		return _isReloadable;
+	}
+
+	/**
+	 * Returns whether the element is only softly reachable.
+	 * @return TRUE if softened, otherwise FALSE
+	 */
+	public boolean isSoft() {
+		return _isSoft;
+	}
+
+	@Override
+	public int compareTo(SharedDataInfo sdi2) {
+		return _key.compareTo(sdi2._key);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s v%d [%s] %d bytes, %ds old%s", _key, Long.valueOf(_version), _loader, Long.valueOf(_size), Long.valueOf(getAge().toSeconds()), _isSoft ? " (soft)" : "");
+	}
+}
@@ -0,0 +1,20 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+/**
+ * An interface for classes that are notified when shared data elements change.
+ * @version 3.12
+ * @since 3.12
+ * @see SharedData#addListener(String, SharedDataListener)
+ */
+
+@FunctionalInterface
+public interface SharedDataListener {
+
+	/**
+	 * Called after a shared data element has been added, updated or removed.
+	 * @param key the element ID
+	 * @param e the new SharedDataEntry, or null if the element was removed
+	 */
+	public void dataChanged(String key, SharedDataEntry e);
+}
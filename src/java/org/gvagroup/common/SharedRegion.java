@@ -0,0 +1,375 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.io.*;
+import java.lang.invoke.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.*;
+
+import org.apache.logging.log4j.*;
+
+/**
+ * A memory-mapped file containing shared data elements, which may be read by other virtual machines on the same host without copying or
+ * deserializing them. One process creates the region and publishes elements, and any number of processes may open it to read them.<br>
+ * <br>
+ * The file starts with a 64-byte header, followed by a fixed-size open-addressed index of slots and then the data area. Each slot
+ * contains a sequence lock, the element version, offset and length, and the element key. Element data is only ever appended, so a new
+ * version is written to the data area and then published by updating its slot under the sequence lock. Readers retry if the sequence
+ * changes while they read a slot, and the data a reader has found is never overwritten. When the data area is full no further elements
+ * can be published, and the region should be recreated.<br>
+ * <br>
+ * When a region is recreated the old file is deleted rather than truncated, so readers that still have it mapped are unaffected. Readers
+ * should check {@link SharedRegion#isValid()} and reopen the region if it has been closed by its writer. Only one writer may publish to a
+ * region at a time, which is enforced by locking a sidecar file with a <i>.lock</i> suffix. The lock file is never deleted, so that a
+ * second writer cannot lock a new file while the first writer still holds the lock on the old one.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class SharedRegion implements AutoCloseable {
+
+	private static final Logger log = LogManager.getLogger(SharedRegion.class);
+
+	private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+	private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+	private static final int MAGIC = 0x47565352;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 64;
+	private static final int SLOT_SIZE = 96;
+	private static final int MAX_KEY = SLOT_SIZE - 40;
+	private static final long MAX_WAIT = TimeUnit.MILLISECONDS.toNanos(250);
+
+	// Header offsets
+	private static final int H_SIZE = 8;
+	private static final int H_SLOTS = 16;
+	private static final int H_CLOSED = 20;
+	private static final int H_DATA = 24;
+	private static final int H_WRITEPOS = 32;
+	private static final int H_VERSION = 40;
+
+	// Slot offsets
+	private static final int S_SEQ = 0;
+	private static final int S_VERSION = 8;
+	private static final int S_OFFSET = 16;
+	private static final int S_LENGTH = 24;
+	private static final int S_KEYLEN = 32;
+	private static final int S_HASH = 36;
+	private static final int S_KEY = 40;
+
+	private final Path _path;
+	private final FileChannel _fc;
+	private final FileChannel _lockChannel;
+	private final MappedByteBuffer _buf;
+	private final boolean _isWriter;
+	private final int _slots;
+	private final Lock _w = new ReentrantLock();
+
+	/*
+	 * Maps the region file.
+	 */
+	private SharedRegion(Path path, FileChannel fc, FileChannel lockChannel, MappedByteBuffer buf, boolean isWriter) {
+		super();
+		_path = path;
+		_fc = fc;
+		_lockChannel = lockChannel;
+		_buf = buf;
+		_buf.order(ByteOrder.nativeOrder());
+		_isWriter = isWriter;
+		_slots = _buf.getInt(H_SLOTS);
+	}
+
+	/**
+	 * Returns the path of the lock file used to ensure that a region has only one writer.
+	 * @param path the region file path
+	 * @return the lock file path
+	 */
+	public static Path getLockPath(Path path) {
+		return path.resolveSibling(path.getFileName() + ".lock");
+	}
+
+	/**
+	 * Creates a new region to publish elements to, replacing any existing region file. The region's lock file is locked before the
+	 * existing file is replaced, and held until the region is closed.
+	 * @param path the file path
+	 * @param size the file size in bytes
+	 * @param slots the maximum number of elements
+	 * @return the SharedRegion
+	 * @throws IOException if the file cannot be created or is locked by another writer
+	 */
+	public static SharedRegion create(Path path, int size, int slots) throws IOException {
+		int dataStart = HEADER_SIZE + (Math.max(1, slots) * SLOT_SIZE);
+		if (size <= dataStart)
+			throw new IllegalArgumentException(String.format("Region size %d too small for %d slots", Integer.valueOf(size), Integer.valueOf(slots)));
+
+		FileChannel lc = FileChannel.open(getLockPath(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		FileChannel fc = null;
+		try {
+			FileLock fl = null;
+			try {
+				fl = lc.tryLock();
+			} catch (OverlappingFileLockException ofe) {
+				// empty
+			}
+
+			if (fl == null)
+				throw new IOException(String.format("%s locked by another writer", path));
+
+			Files.deleteIfExists(path);
+			fc = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			MappedByteBuffer buf = fc.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buf.order(ByteOrder.nativeOrder());
+			buf.putLong(H_SIZE, size);
+			buf.putInt(H_SLOTS, Math.max(1, slots));
+			buf.putLong(H_DATA, dataStart);
+			buf.putLong(H_WRITEPOS, dataStart);
+			buf.putInt(4, VERSION);
+			INT.setRelease(buf, 0, MAGIC);
+			log.info("Created shared region {}, {} bytes, {} slots", path, Integer.valueOf(size), Integer.valueOf(slots));
+			return new SharedRegion(path, fc, lc, buf, true);
+		} catch (IOException | RuntimeException e) {
+			if (fc != null) fc.close();
+			lc.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens an existing region to read elements from.
+	 * @param path the file path
+	 * @return the SharedRegion
+	 * @throws IOException if the file cannot be opened or is not a valid region
+	 */
+	public static SharedRegion open(Path path) throws IOException {
+		try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buf = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+			buf.order(ByteOrder.nativeOrder());
+			if ((buf.capacity() < HEADER_SIZE) || ((int) INT.getAcquire(buf, 0) != MAGIC) || (buf.getInt(4) != VERSION))
+				throw new IOException(String.format("%s is not a valid shared region", path));
+
+			return new SharedRegion(path, null, null, buf, false);
+		}
+	}
+
+	/**
+	 * Returns the file path.
+	 * @return the path
+	 */
+	public Path getPath() {
+		return _path;
+	}
+
+	/**
+	 * Returns whether the region is still being published to. Readers should reopen the region if it is no longer valid.
+	 * @return TRUE if valid, otherwise FALSE
+	 */
+	public boolean isValid() {
+		return ((int) INT.getAcquire(_buf, H_CLOSED) == 0);
+	}
+
+	/**
+	 * Returns the number of bytes available for new element data.
+	 * @return the number of bytes
+	 */
+	public long getFree() {
+		return _buf.capacity() - (long) LONG.getAcquire(_buf, H_WRITEPOS);
+	}
+
+	/*
+	 * Returns the offset of a slot.
+	 */
+	private static int slotOffset(int slot) {
+		return HEADER_SIZE + (slot * SLOT_SIZE);
+	}
+
+	/*
+	 * Returns whether a slot contains a key.
+	 */
+	private boolean matches(int base, int hash, byte[] key) {
+		if (_buf.getInt(base + S_HASH) != hash) return false;
+		for (int x = 0; x < key.length; x++) {
+			if (_buf.get(base + S_KEY + x) != key[x])
+				return false;
+		}
+
+		return true;
+	}
+
+	/*
+	 * Finds the slot for a key, claiming an empty slot if requested.
+	 */
+	private int find(String key, boolean doClaim) {
+		byte[] kb = key.getBytes(StandardCharsets.UTF_8);
+		if (kb.length > MAX_KEY)
+			throw new IllegalArgumentException(String.format("Key %s longer than %d bytes", key, Integer.valueOf(MAX_KEY)));
+
+		int hash = key.hashCode();
+		int start = Math.floorMod(hash, _slots);
+		for (int x = 0; x < _slots; x++) {
+			int slot = (start + x) % _slots;
+			int base = slotOffset(slot);
+			int keyLen = (int) INT.getAcquire(_buf, base + S_KEYLEN);
+			if (keyLen == 0) {
+				if (!doClaim) return -1;
+				_buf.put(base + S_KEY, kb);
+				_buf.putInt(base + S_HASH, hash);
+				_buf.putLong(base + S_LENGTH, -1);
+				INT.setRelease(_buf, base + S_KEYLEN, kb.length);
+				return slot;
+			} else if ((keyLen == kb.length) && matches(base, hash, kb))
+				return slot;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns the version of an element.
+	 * @param key the element ID
+	 * @return the version, or zero if not found
+	 */
+	public long getVersion(String key) {
+		int slot = find(key, false);
+		return (slot < 0) ? 0 : (long) LONG.getAcquire(_buf, slotOffset(slot) + S_VERSION);
+	}
+
+	/**
+	 * Retrieves an element. The buffer returned is a read-only view of the mapped file, and remains valid after newer versions are published.
+	 * @param key the element ID
+	 * @return a ByteBuffer, or null if not found
+	 * @throws IllegalStateException if the element is still being updated after 250ms, which usually means its writer has died
+	 */
+	public ByteBuffer get(String key) {
+		int slot = find(key, false);
+		if (slot < 0) return null;
+		int base = slotOffset(slot);
+		long deadline = 0;
+		while (true) {
+			long seq = (long) LONG.getAcquire(_buf, base + S_SEQ);
+			if ((seq & 1) != 0) {
+				long now = System.nanoTime();
+				if (deadline == 0)
+					deadline = now + MAX_WAIT;
+				else if ((now - deadline) > 0)
+					throw new IllegalStateException(String.format("%s in %s not updated by writer", key, _path));
+
+				Thread.onSpinWait();
+				continue;
+			}
+
+			long ofs = _buf.getLong(base + S_OFFSET);
+			long len = _buf.getLong(base + S_LENGTH);
+			VarHandle.loadLoadFence();
+			if (seq == (long) LONG.getAcquire(_buf, base + S_SEQ))
+				return (len < 0) ? null : _buf.slice((int) ofs, (int) len).asReadOnlyBuffer();
+		}
+	}
+
+	/*
+	 * Updates a slot under its sequence lock. Must be called while holding the write lock.
+	 */
+	private long publish(int slot, long ofs, long len) {
+		int base = slotOffset(slot);
+		long ver = _buf.getLong(H_VERSION) + 1;
+		_buf.putLong(H_VERSION, ver);
+		long seq = _buf.getLong(base + S_SEQ);
+		LONG.setVolatile(_buf, base + S_SEQ, seq + 1);
+		VarHandle.storeStoreFence();
+		_buf.putLong(base + S_OFFSET, ofs);
+		_buf.putLong(base + S_LENGTH, len);
+		LONG.setRelease(_buf, base + S_VERSION, ver);
+		LONG.setRelease(_buf, base + S_SEQ, seq + 2);
+		return ver;
+	}
+
+	/**
+	 * Publishes a new version of an element. The data is copied into the region, from the buffer's position to its limit.
+	 * @param key the element ID
+	 * @param data the element data
+	 * @return the new version, or zero if the region is full
+	 * @throws IllegalStateException if the region was not created by this process
+	 */
+	public long put(String key, ByteBuffer data) {
+		if (!_isWriter)
+			throw new IllegalStateException("Shared region opened read-only");
+
+		int len = data.remaining();
+		try {
+			_w.lock();
+			long pos = _buf.getLong(H_WRITEPOS);
+			if ((pos + len) > _buf.capacity()) {
+				log.warn("Shared region {} full, cannot publish {} - {} bytes", _path, key, Integer.valueOf(len));
+				return 0;
+			}
+
+			int slot = find(key, true);
+			if (slot < 0) {
+				log.warn("Shared region {} index full, cannot publish {}", _path, key);
+				return 0;
+			}
+
+			_buf.put((int) pos, data, data.position(), len);
+			LONG.setRelease(_buf, H_WRITEPOS, (pos + len + 7) & ~7L);
+			return publish(slot, pos, len);
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	/**
+	 * Publishes a new version of an element.
+	 * @param key the element ID
+	 * @param data the element data
+	 * @return the new version, or zero if the region is full
+	 */
+	public long put(String key, byte[] data) {
+		return put(key, ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * Removes an element. Its data remains in the region until it is recreated.
+	 * @param key the element ID
+	 */
+	public void remove(String key) {
+		if (!_isWriter)
+			throw new IllegalStateException("Shared region opened read-only");
+
+		try {
+			_w.lock();
+			int slot = find(key, false);
+			if (slot >= 0)
+				publish(slot, 0, -1);
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	/**
+	 * Closes the region. If this process created the region, it is marked as no longer valid so that readers will reopen it, and the
+	 * lock file is released.
+	 */
+	@Override
+	public void close() {
+		if (!_isWriter) return;
+		try {
+			_w.lock();
+			INT.setRelease(_buf, H_CLOSED, 1);
+			_buf.force();
+			_fc.close();
+			_lockChannel.close();
+		} catch (IOException ie) {
+			log.warn("Error closing {} - {}", _path, ie.getMessage());
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return _path.toString();
+	}
+}
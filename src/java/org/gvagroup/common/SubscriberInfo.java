@@ -0,0 +1,138 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.util.*;
+
+/**
+ * A bean to store information about an event subscriber's queue.
+ * @version 3.12
+ * @since 3.12
+ * @see EventStatistics
+ */
+
+public class SubscriberInfo implements java.io.Serializable, Comparable<SubscriberInfo> {
+
+	private static final long serialVersionUID = 7209542148532865104L;
+
+	private final String _name;
+	private final String _id;
+	private final String _threadName;
+	private final boolean _isAlive;
+	private final Collection<EventType> _types;
+	private final int _depth;
+	private final int _maxDepth;
+	private final int _capacity;
+	private final OverflowPolicy _policy;
+	private final long _overflows;
+	private final long _lastSeq;
+
+	/**
+	 * Creates the bean.
+	 * @param s the Subscription
+	 */
+	SubscriberInfo(Subscription s) {
+		super();
+		_name = s.getName();
+		_id = s.toString();
+		_threadName = (s.getOwner() == null) ? null : s.getOwner().getName();
+		_isAlive = s.isAlive();
+		_types = List.copyOf(s.getFilter().getTypes());
+		_depth = s.getDepth();
+		_maxDepth = s.getMaxDepth();
+		_capacity = s.getCapacity();
+		_policy = s.getPolicy();
+		_overflows = s.getOverflows();
+		_lastSeq = s.getLastSequence();
+	}
+
+	/**
+	 * Returns the subscriber name.
+	 * @return the name, or null if anonymous
+	 */
+	public String getName() {
+		return _name;
+	}
+
+	/**
+	 * Returns the name of the subscribing thread.
+	 * @return the thread name, or null if the subscription is not bound to a thread
+	 */
+	public String getThreadName() {
+		return _threadName;
+	}
+
+	/**
+	 * Returns whether the subscribing thread is alive.
+	 * @return TRUE if alive, otherwise FALSE
+	 */
+	public boolean isAlive() {
+		return _isAlive;
+	}
+
+	/**
+	 * Returns the event types the subscriber is registered for.
+	 * @return a Collection of EventTypes
+	 */
+	public Collection<EventType> getTypes() {
+		return _types;
+	}
+
+	/**
+	 * Returns the number of pending events.
+	 * @return the number of events
+	 */
+	public int getDepth() {
+		return _depth;
+	}
+
+	/**
+	 * Returns the largest number of events that have been pending at once.
+	 * @return the number of events
+	 */
+	public int getMaxDepth() {
+		return _maxDepth;
+	}
+
+	/**
+	 * Returns the maximum number of pending events.
+	 * @return the number of events
+	 */
+	public int getCapacity() {
+		return _capacity;
+	}
+
+	/**
+	 * Returns the action taken when the queue is full.
+	 * @return the OverflowPolicy
+	 */
+	public OverflowPolicy getPolicy() {
+		return _policy;
+	}
+
+	/**
+	 * Returns the number of events discarded because the queue was full.
+	 * @return the number of events
+	 */
+	public long getOverflows() {
+		return _overflows;
+	}
+
+	/**
+	 * Returns the sequence number of the last journaled event retrieved by the subscriber.
+	 * @return the sequence number, or zero if none
+	 */
+	public long getLastSequence() {
+		return _lastSeq;
+	}
+
+	@Override
+	public int compareTo(SubscriberInfo si2) {
+		int tmpResult = Integer.compare(si2._depth, _depth);
+		return (tmpResult == 0) ? toString().compareTo(si2.toString()) : tmpResult;
+	}
+
+	@Override
+	public String toString() {
+		return _id;
+	}
+}
@@ -0,0 +1,467 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.common;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A subscriber's queue of pending system events. Senders add events without locking and unpark the consumer only if it is
+ * waiting, so idle or busy subscribers are never woken up unnecessarily. The queue depth and its high-water mark are tracked so that
+ * slow consumers can be identified.<br>
+ * <br>
+ * Each queue has a capacity, so a subscriber that stops retrieving events cannot grow its queue without limit. When the queue is full,
+ * its {@link OverflowPolicy} determines whether events are discarded, replaced with a {@link ResyncEvent}, or the sender is blocked.<br>
+ * <br>
+ * Subscriptions returned by {@link EventDispatcher#subscribe(EventFilter)} are not bound to a thread, so a task that subscribes on one thread
+ * may retrieve events on another, and they should be closed when no longer needed, typically with try-with-resources. Only one thread
+ * at a time should wait for events on a subscription.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class Subscription implements AutoCloseable {
+
+	private final Thread _owner;
+	private final String _name;
+	private final EventFilter _filter;
+	private final int _capacity;
+	private final OverflowPolicy _policy;
+	private final AtomicLong _overflows = new AtomicLong();
+	private final Queue<SystemEvent> _queue = new ConcurrentLinkedQueue<SystemEvent>();
+	private final Queue<Thread> _senders = new ConcurrentLinkedQueue<Thread>();
+	private final AtomicInteger _depth = new AtomicInteger();
+	private final AtomicInteger _maxDepth = new AtomicInteger();
+	private volatile Thread _waiter;
+	private volatile long _lastSeq;
+	private volatile boolean _isClosed;
+
+	private static final AtomicLong _nextID = new AtomicLong();
+	private final long _id = _nextID.incrementAndGet();
+	private static volatile long _blockTimeout = TimeUnit.MILLISECONDS.toNanos(50);
+
+	/**
+	 * Creates the subscription.
+	 * @param owner the owning Thread, or null if not bound to a thread
+	 * @param name the subscriber name used to track its journal position, or null
+	 * @param filter the EventFilter
+	 * @param capacity the maximum number of pending events
+	 * @param policy the OverflowPolicy when the queue is full
+	 */
+	Subscription(Thread owner, String name, EventFilter filter, int capacity, OverflowPolicy policy) {
+		super();
+		_owner = owner;
+		_name = name;
+		_filter = filter;
+		_capacity = Math.max(1, capacity);
+		_policy = policy;
+	}
+
+	/**
+	 * Updates the maximum time a sender will wait for space in a queue with the {@link OverflowPolicy#BLOCK} policy.
+	 * @param timeout the timeout in nanoseconds
+	 */
+	static void setBlockTimeout(long timeout) {
+		_blockTimeout = Math.max(0, timeout);
+	}
+
+	/**
+	 * Returns the subscriber name.
+	 * @return the name, or null if anonymous
+	 */
+	public String getName() {
+		return _name;
+	}
+
+	/**
+	 * Returns the sequence number of the last journaled event retrieved by the consumer.
+	 * @return the sequence number, or zero if none
+	 */
+	public long getLastSequence() {
+		return _lastSeq;
+	}
+
+	/**
+	 * Updates the sequence number of the last journaled event retrieved by the consumer.
+	 * @param seq the sequence number
+	 */
+	void setLastSequence(long seq) {
+		_lastSeq = Math.max(_lastSeq, seq);
+	}
+
+	/**
+	 * Returns the filter for this subscription's events.
+	 * @return the EventFilter
+	 */
+	public EventFilter getFilter() {
+		return _filter;
+	}
+
+	/**
+	 * Returns the thread that registered this subscription.
+	 * @return the owning Thread, or null if not bound to a thread
+	 */
+	Thread getOwner() {
+		return _owner;
+	}
+
+	/**
+	 * Returns whether this subscription is open and, if bound to a thread, the thread is still alive.
+	 * @return TRUE if alive, otherwise FALSE
+	 */
+	boolean isAlive() {
+		return !_isClosed && ((_owner == null) || _owner.isAlive());
+	}
+
+	/**
+	 * Returns whether this subscription has been closed.
+	 * @return TRUE if closed, otherwise FALSE
+	 */
+	public boolean isClosed() {
+		return _isClosed;
+	}
+
+	/**
+	 * Returns the maximum number of pending events.
+	 * @return the number of events
+	 */
+	public int getCapacity() {
+		return _capacity;
+	}
+
+	/**
+	 * Returns the action taken when the queue is full.
+	 * @return the OverflowPolicy
+	 */
+	public OverflowPolicy getPolicy() {
+		return _policy;
+	}
+
+	/**
+	 * Returns the number of events discarded because the queue was full.
+	 * @return the number of events
+	 */
+	public long getOverflows() {
+		return _overflows.get();
+	}
+
+	/**
+	 * Returns the number of pending events.
+	 * @return the number of events
+	 */
+	public int getDepth() {
+		return _depth.get();
+	}
+
+	/**
+	 * Returns the largest number of events that have been pending at once.
+	 * @return the number of events
+	 */
+	public int getMaxDepth() {
+		return _maxDepth.get();
+	}
+
+	/**
+	 * Queues an event if it matches this subscription's filter, and wakes up the consumer if it is waiting. If the queue is full, the
+	 * overflow policy is applied first.
+	 * @param e the SystemEvent
+	 */
+	void offer(SystemEvent e) {
+		offer(e, true);
+	}
+
+	/**
+	 * Queues an event if it matches this subscription's filter, and wakes up the consumer if it is waiting. If the queue is full, the
+	 * overflow policy is applied first. A slot in the queue is reserved before the event is added, so concurrent senders cannot exceed
+	 * its capacity.
+	 * @param e the SystemEvent
+	 * @param canBlock FALSE if the caller holds a lock and must not wait for space with the {@link OverflowPolicy#BLOCK} policy
+	 */
+	void offer(SystemEvent e, boolean canBlock) {
+		if (_isClosed) return;
+		SystemEvent fe = _filter.filter(e);
+		if (fe == null) return;
+		if (!reserve() && !overflow(canBlock)) {
+			ResyncEvent re = resync(1);
+			while (!reserve())
+				re = new ResyncEvent(re.getDropped() + resync(0).getDropped());
+
+			fe = re;
+		}
+
+		enqueue(fe);
+	}
+
+	/*
+	 * Reserves a slot in the queue, if it is not full.
+	 */
+	private boolean reserve() {
+		int d = _depth.get();
+		while (d < _capacity) {
+			int od = _depth.compareAndExchange(d, d + 1);
+			if (od == d) {
+				if (od >= _maxDepth.get())
+					_maxDepth.accumulateAndGet(od + 1, Math::max);
+
+				return true;
+			}
+
+			d = od;
+		}
+
+		return false;
+	}
+
+	/*
+	 * Makes space in a full queue according to the overflow policy, and reserves a slot.
+	 */
+	private boolean overflow(boolean canBlock) {
+		switch (_policy) {
+			case DROP_OLDEST:
+				do {
+					if (take() != null)
+						_overflows.incrementAndGet();
+					else
+						Thread.onSpinWait();
+				} while (!reserve());
+
+				return true;
+
+			case BLOCK:
+				return canBlock && awaitSpace(true);
+
+			default:
+				return false;
+		}
+	}
+
+	/*
+	 * Waits up to the block timeout for space in the queue, and optionally reserves it. Waiting senders are woken up by the consumer.
+	 */
+	private boolean awaitSpace(boolean doReserve) {
+		Thread t = Thread.currentThread();
+		if (t == _owner) return false;
+		long deadline = System.nanoTime() + _blockTimeout;
+		_senders.add(t);
+		try {
+			while (!_isClosed) {
+				if (doReserve ? reserve() : (_depth.get() < _capacity))
+					return true;
+
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) return false;
+				LockSupport.parkNanos(this, remaining);
+			}
+
+			return false;
+		} finally {
+			_senders.remove(t);
+		}
+	}
+
+	/**
+	 * Waits up to the block timeout for space in a full queue with the {@link OverflowPolicy#BLOCK} policy. This is called before the
+	 * sender takes a lock under which it cannot block.
+	 */
+	void awaitSpace() {
+		if ((_policy == OverflowPolicy.BLOCK) && !_isClosed && (_depth.get() >= _capacity))
+			awaitSpace(false);
+	}
+
+	/*
+	 * Wakes up senders waiting for space in the queue.
+	 */
+	private void wakeSenders() {
+		if (!_senders.isEmpty())
+			_senders.forEach(LockSupport::unpark);
+	}
+
+	/*
+	 * Discards all pending events, returning a ResyncEvent to replace them.
+	 */
+	private ResyncEvent resync(long dropped) {
+		long cnt = dropped;
+		long prevCnt = 0;
+		SystemEvent e = take();
+		while (e != null) {
+			if (e instanceof ResyncEvent re)
+				prevCnt += re.getDropped();
+			else
+				cnt++;
+
+			e = take();
+		}
+
+		_overflows.addAndGet(cnt);
+		return new ResyncEvent(cnt + prevCnt);
+	}
+
+	/*
+	 * Adds an event to a reserved slot in the queue, and wakes up the consumer if it is waiting.
+	 */
+	private void enqueue(SystemEvent e) {
+		_queue.offer(e);
+		Thread w = _waiter;
+		if (w != null)
+			LockSupport.unpark(w);
+	}
+
+	/**
+	 * Waits until at least one event is pending.
+	 * @param timeout the maximum time to wait in nanoseconds, or a negative value to wait indefinitely
+	 * @return TRUE if events are pending, FALSE if the timeout elapsed
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	boolean await(long timeout) throws InterruptedException {
+		if (!_queue.isEmpty()) return true;
+		long deadline = System.nanoTime() + timeout;
+		_waiter = Thread.currentThread();
+		try {
+			while (_queue.isEmpty()) {
+				if (_isClosed) return false;
+				if (Thread.interrupted())
+					throw new InterruptedException();
+
+				if (timeout < 0)
+					LockSupport.park(this);
+				else {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) return false;
+					LockSupport.parkNanos(this, remaining);
+				}
+			}
+
+			return true;
+		} finally {
+			_waiter = null;
+		}
+	}
+
+	/*
+	 * Removes the next pending event.
+	 */
+	private SystemEvent take() {
+		SystemEvent e = _queue.poll();
+		if (e != null) {
+			_depth.decrementAndGet();
+			wakeSenders();
+		}
+
+		return e;
+	}
+
+	/*
+	 * Records that the consumer has retrieved an event.
+	 */
+	private void consume(SystemEvent e, long now) {
+		setLastSequence(e.getSequence());
+		EventDispatcher.recordLatency(e, now);
+	}
+
+	/**
+	 * Waits until at least one event is pending, the timeout elapses or the subscription is closed.
+	 * @param timeout the maximum time to wait
+	 * @return TRUE if events are pending, otherwise FALSE
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public boolean await(Duration timeout) throws InterruptedException {
+		return await(Math.max(0, timeout.toNanos()));
+	}
+
+	/**
+	 * Removes and returns all pending events.
+	 * @return a Collection of SystemEvents
+	 */
+	public Collection<SystemEvent> poll() {
+		if (_queue.isEmpty()) return Collections.emptyList();
+		Collection<SystemEvent> results = new ArrayList<SystemEvent>();
+		long now = System.nanoTime();
+		SystemEvent e = take();
+		while (e != null) {
+			results.add(e);
+			consume(e, now);
+			e = take();
+		}
+
+		return results;
+	}
+
+	/**
+	 * Moves pending events and the overflow count to another subscription, without recording the events as retrieved.
+	 * @param s the Subscription
+	 */
+	void moveTo(Subscription s) {
+		s._overflows.addAndGet(_overflows.get());
+		SystemEvent e = take();
+		while (e != null) {
+			if (e instanceof ResyncEvent) {
+				s._depth.incrementAndGet();
+				s.enqueue(e);
+			} else
+				s.offer(e, false);
+
+			e = take();
+		}
+	}
+
+	/**
+	 * Moves pending events into a collection.
+	 * @param sink the Collection to add events to
+	 * @param max the maximum number of events to move
+	 * @return the number of events moved
+	 */
+	public int drainTo(Collection<? super SystemEvent> sink, int max) {
+		int cnt = 0;
+		long now = System.nanoTime();
+		while (cnt < max) {
+			SystemEvent e = take();
+			if (e == null) break;
+			sink.add(e);
+			consume(e, now);
+			cnt++;
+		}
+
+		return cnt;
+	}
+
+	/**
+	 * Waits until at least one event is pending, and moves pending events into a collection.
+	 * @param sink the Collection to add events to
+	 * @param max the maximum number of events to move
+	 * @param timeout the maximum time to wait
+	 * @return the number of events moved, or zero if the timeout elapsed or the subscription was closed
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public int drain(Collection<? super SystemEvent> sink, int max, Duration timeout) throws InterruptedException {
+		return await(timeout) ? drainTo(sink, Math.max(1, max)) : 0;
+	}
+
+	/**
+	 * Discards all pending events.
+	 */
+	void clear() {
+		while (take() != null);
+	}
+
+	/**
+	 * Closes the subscription. No further events are queued, pending events are discarded, and any thread waiting for events returns.
+	 */
+	@Override
+	public void close() {
+		_isClosed = true;
+		EventDispatcher.remove(this);
+		clear();
+		wakeSenders();
+		Thread w = _waiter;
+		if (w != null)
+			LockSupport.unpark(w);
+	}
+
+	@Override
+	public String toString() {
+		if (_name != null) return _name;
+		return (_owner == null) ? String.format("Subscription-%d", Long.valueOf(_id)) : _owner.getName();
+	}
+}
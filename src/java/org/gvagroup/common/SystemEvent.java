@@ -1,18 +1,20 @@
-// Copyright 2007, 2008, 2010, 2011, 2012, 2015, 2017 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2007, 2008, 2010, 2011, 2012, 2015, 2017, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.common;
 
 /**
  * A class to hold cross-application event data.
  * @author Luke
- * @version 2.33
+ * @version 3.12
  * @since 1.0
  */
 
-public class SystemEvent implements java.io.Serializable, Comparable<SystemEvent> {
+public class SystemEvent implements java.io.Serializable, Cloneable, Comparable<SystemEvent> {
 	
 	private static final long serialVersionUID = -4971005909500879396L;
 
 	private final EventType _code;
+	private transient long _seq;
+	private transient long _sendTime;
 
 	/**
 	 * Creates a System Event.
@@ -30,6 +32,53 @@ public class SystemEvent implements java.io.Serializable, Comparable<SystemEvent
 		return _code;
 	}
 	
+	/**
+	 * Returns the journal sequence number of this event.
+	 * @return the sequence number, or zero if the event has not been journaled
+	 * @see EventJournal
+	 */
+	public long getSequence() {
+		return _seq;
+	}
+
+	/**
+	 * Updates the journal sequence number of this event.
+	 * @param seq the sequence number
+	 */
+	void setSequence(long seq) {
+		_seq = seq;
+	}
+	
+	/**
+	 * Returns when this event was sent.
+	 * @return the {@link System#nanoTime()} value when sent, or zero if not sent
+	 */
+	public long getSendTime() {
+		return _sendTime;
+	}
+
+	/**
+	 * Updates when this event was sent.
+	 * @param t the {@link System#nanoTime()} value
+	 */
+	void setSendTime(long t) {
+		_sendTime = t;
+	}
+
+	/**
+	 * Creates a copy of this event to journal and deliver, so that the sender's instance is never updated and may be sent again.
+	 * @return a copy of the event, without a sequence number
+	 */
+	SystemEvent copy() {
+		try {
+			SystemEvent e = (SystemEvent) super.clone();
+			e._seq = 0;
+			return e;
+		} catch (CloneNotSupportedException cnse) {
+			throw new IllegalStateException(cnse);
+		}
+	}
+
 	@Override
 	public int compareTo(SystemEvent ev2) {
 		return _code.compareTo(ev2._code);
@@ -0,0 +1,173 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A utility class to read and write the primitive values shared by the compact binary formats, such as {@link IPCSchema}, {@link TrackCodec}
+ * and the system event codec. Unsigned values are written as little-endian base 128 varints, signed values are zigzag encoded first so that
+ * small negative values stay short, and strings are written as UTF-8 prefixed by their length plus one as a varint, with zero for null.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public final class BinaryFormat {
+
+	private static final ThreadLocal<byte[]> _scratch = ThreadLocal.withInitial(() -> new byte[256]);
+
+	// static class
+	private BinaryFormat() {
+		super();
+	}
+
+	/**
+	 * Zigzag encodes a signed value, so small negative values have short varints.
+	 * @param v the value
+	 * @return the encoded value
+	 */
+	public static long zigzag(long v) {
+		return (v << 1) ^ (v >> 63);
+	}
+
+	/**
+	 * Decodes a zigzag encoded value.
+	 * @param v the encoded value
+	 * @return the value
+	 */
+	public static long unzigzag(long v) {
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	/**
+	 * Returns the size of an unsigned varint.
+	 * @param v the value
+	 * @return the size in bytes
+	 */
+	public static int varintSize(long v) {
+		return Math.max(1, (70 - Long.numberOfLeadingZeros(v)) / 7);
+	}
+
+	/**
+	 * Writes an unsigned varint.
+	 * @param v the value
+	 * @param buf the ByteBuffer to write to
+	 */
+	public static void putVarint(long v, ByteBuffer buf) {
+		long x = v;
+		while ((x & ~0x7FL) != 0) {
+			buf.put((byte) ((x & 0x7F) | 0x80));
+			x >>>= 7;
+		}
+
+		buf.put((byte) x);
+	}
+
+	/**
+	 * Reads an unsigned varint.
+	 * @param buf the ByteBuffer to read from
+	 * @return the value
+	 * @throws IllegalArgumentException if the varint is longer than 64 bits
+	 */
+	public static long getVarint(ByteBuffer buf) {
+		long v = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buf.get();
+			v |= (long) (b & 0x7F) << shift;
+			if (b >= 0) return v;
+		}
+
+		throw new IllegalArgumentException("Invalid varint");
+	}
+
+	/**
+	 * Returns the number of UTF-8 bytes in a string. Unpaired surrogates are encoded as '?'.
+	 * @param s the String
+	 * @return the number of bytes
+	 */
+	public static int utf8Length(String s) {
+		int len = 0;
+		for (int x = 0; x < s.length(); x++) {
+			char c = s.charAt(x);
+			if (c < 0x80)
+				len++;
+			else if (c < 0x800)
+				len += 2;
+			else if (Character.isHighSurrogate(c) && ((x + 1) < s.length()) && Character.isLowSurrogate(s.charAt(x + 1))) {
+				len += 4;
+				x++;
+			} else if (Character.isSurrogate(c))
+				len++;
+			else
+				len += 3;
+		}
+
+		return len;
+	}
+
+	/**
+	 * Returns the encoded size of a length-prefixed string.
+	 * @param s the String, or null
+	 * @return the size in bytes
+	 */
+	public static int stringSize(String s) {
+		if (s == null) return 1;
+		int len = utf8Length(s);
+		return varintSize(len + 1) + len;
+	}
+
+	/**
+	 * Writes a length-prefixed UTF-8 string, without allocating an intermediate byte array.
+	 * @param s the String, or null
+	 * @param buf the ByteBuffer to write to
+	 */
+	public static void putString(String s, ByteBuffer buf) {
+		if (s == null) {
+			buf.put((byte) 0);
+			return;
+		}
+
+		putVarint(utf8Length(s) + 1, buf);
+		for (int x = 0; x < s.length(); x++) {
+			char c = s.charAt(x);
+			if (c < 0x80)
+				buf.put((byte) c);
+			else if (c < 0x800)
+				buf.put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));
+			else if (Character.isHighSurrogate(c) && ((x + 1) < s.length()) && Character.isLowSurrogate(s.charAt(x + 1))) {
+				int cp = Character.toCodePoint(c, s.charAt(++x));
+				buf.put((byte) (0xF0 | (cp >> 18))).put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+				buf.put((byte) (0x80 | ((cp >> 6) & 0x3F))).put((byte) (0x80 | (cp & 0x3F)));
+			} else if (Character.isSurrogate(c))
+				buf.put((byte) '?');
+			else
+				buf.put((byte) (0xE0 | (c >> 12))).put((byte) (0x80 | ((c >> 6) & 0x3F))).put((byte) (0x80 | (c & 0x3F)));
+		}
+	}
+
+	/**
+	 * Reads a length-prefixed UTF-8 string. Strings in direct buffers are copied through a per-thread scratch array.
+	 * @param buf the ByteBuffer to read from
+	 * @return the String, or null
+	 * @throws BufferUnderflowException if the buffer does not contain the complete string
+	 */
+	public static String getString(ByteBuffer buf) {
+		int len = (int) getVarint(buf) - 1;
+		if (len < 0) return null;
+		if (len > buf.remaining()) throw new BufferUnderflowException();
+		if (buf.hasArray()) {
+			String s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+			buf.position(buf.position() + len);
+			return s;
+		}
+
+		byte[] data = _scratch.get();
+		if (data.length < len) {
+			data = new byte[Math.max(len, data.length * 2)];
+			_scratch.set(data);
+		}
+
+		buf.get(data, 0, len);
+		return new String(data, 0, len, StandardCharsets.UTF_8);
+	}
+}
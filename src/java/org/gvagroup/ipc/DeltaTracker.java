@@ -0,0 +1,212 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.locks.*;
+
+import org.apache.logging.log4j.*;
+
+/**
+ * A utility class to track changes to a keyed set of IPC objects, so that {@link IPCInfo#getSerializedInfo(long)} can return only the
+ * objects changed since a caller's last request. Each object is serialized once when it changes rather than on every request, and an
+ * object whose serialized form has not changed does not get a new version.<br>
+ * <br>
+ * Removed keys are retained for a limited number of removals. If a caller's version is older than the oldest retained removal, it is
+ * sent a full snapshot. Versions start at the time the tracker was created, so a version from a previous instance is treated as too old
+ * or too new and also results in a full snapshot.
+ * @version 3.12
+ * @since 3.12
+ * @param <K> the key type
+ * @param <V> the object type
+ */
+
+public class DeltaTracker<K extends Serializable, V extends Serializable> {
+
+	private static final Logger log = LogManager.getLogger(DeltaTracker.class);
+
+	private final Map<K, Entry> _entries = new HashMap<K, Entry>();
+	private final LinkedHashMap<K, Long> _removed = new LinkedHashMap<K, Long>();
+	private final int _maxRemoved;
+
+	private long _version = System.currentTimeMillis() * 1000;
+	private long _minVersion = _version;
+
+	private final ReentrantReadWriteLock _lock = new ReentrantReadWriteLock();
+	private final Lock _r = _lock.readLock();
+	private final Lock _w = _lock.writeLock();
+
+	private static class Entry {
+		private final byte[] _data;
+		private final long _version;
+
+		Entry(byte[] data, long version) {
+			super();
+			_data = data;
+			_version = version;
+		}
+	}
+
+	/**
+	 * Creates the tracker.
+	 * @param maxRemoved the maximum number of removed keys to retain
+	 */
+	public DeltaTracker(int maxRemoved) {
+		super();
+		_maxRemoved = Math.max(16, maxRemoved);
+	}
+
+	/*
+	 * Serializes an object.
+	 */
+	private static byte[] serialize(Serializable obj) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+		try (ObjectOutputStream oo = new ObjectOutputStream(out)) {
+			oo.writeObject(obj);
+		} catch (IOException ie) {
+			log.warn("Error serializing {} - {}", obj, ie.getMessage());
+			return null;
+		}
+
+		return out.toByteArray();
+	}
+
+	/*
+	 * Updates an entry. Must be called while holding the write lock.
+	 */
+	private boolean putEntry(K key, byte[] data) {
+		Entry e = _entries.get(key);
+		if ((data == null) || ((e != null) && Arrays.equals(e._data, data)))
+			return false;
+
+		_entries.put(key, new Entry(data, ++_version));
+		_removed.remove(key);
+		return true;
+	}
+
+	/*
+	 * Removes an entry. Must be called while holding the write lock.
+	 */
+	private boolean removeEntry(K key) {
+		if (_entries.remove(key) == null) return false;
+		_removed.put(key, Long.valueOf(++_version));
+		if (_removed.size() > _maxRemoved) {
+			Iterator<Map.Entry<K, Long>> i = _removed.entrySet().iterator();
+			_minVersion = i.next().getValue().longValue();
+			i.remove();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adds or updates an object.
+	 * @param key the key
+	 * @param value the object
+	 * @return TRUE if the object was added or changed, otherwise FALSE
+	 */
+	public boolean put(K key, V value) {
+		byte[] data = serialize(value);
+		try {
+			_w.lock();
+			return putEntry(key, data);
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	/**
+	 * Removes an object.
+	 * @param key the key
+	 * @return TRUE if the object was removed, otherwise FALSE
+	 */
+	public boolean remove(K key) {
+		try {
+			_w.lock();
+			return removeEntry(key);
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	/**
+	 * Replaces all objects. Objects not present in the Map are removed, and objects whose serialized form has not changed keep their version.
+	 * @param data a Map of objects, keyed by key
+	 * @return the number of objects added, changed or removed
+	 */
+	public int update(Map<K, ? extends V> data) {
+		Map<K, byte[]> sData = new HashMap<K, byte[]>(data.size() * 2);
+		data.forEach((k, v) -> sData.put(k, serialize(v)));
+		try {
+			_w.lock();
+			int cnt = 0;
+			for (Map.Entry<K, byte[]> me : sData.entrySet()) {
+				if (putEntry(me.getKey(), me.getValue()))
+					cnt++;
+			}
+
+			Collection<K> oldKeys = new ArrayList<K>(_entries.keySet());
+			oldKeys.removeAll(sData.keySet());
+			for (K key : oldKeys) {
+				if (removeEntry(key))
+					cnt++;
+			}
+
+			return cnt;
+		} finally {
+			_w.unlock();
+		}
+	}
+
+	/**
+	 * Returns the current version.
+	 * @return the version
+	 */
+	public long getVersion() {
+		try {
+			_r.lock();
+			return _version;
+		} finally {
+			_r.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of objects.
+	 * @return the number of objects
+	 */
+	public int size() {
+		try {
+			_r.lock();
+			return _entries.size();
+		} finally {
+			_r.unlock();
+		}
+	}
+
+	/**
+	 * Returns the objects added, changed or removed since a version. If the version is older than the oldest retained removal or newer than
+	 * the current version, a full snapshot is returned.
+	 * @param sinceVersion the caller's last version, or zero for a full snapshot
+	 * @return an IPCDelta
+	 */
+	public IPCDelta<K> getDelta(long sinceVersion) {
+		try {
+			_r.lock();
+			boolean isFull = (sinceVersion < _minVersion) || (sinceVersion > _version);
+			Collection<byte[]> updates = new ArrayList<byte[]>();
+			for (Entry e : _entries.values()) {
+				if (isFull || (e._version > sinceVersion))
+					updates.add(e._data);
+			}
+
+			Collection<K> removed = new ArrayList<K>();
+			if (!isFull)
+				_removed.forEach((k, v) -> { if (v.longValue() > sinceVersion) removed.add(k); });
+
+			return new IPCDelta<K>(_version, isFull, updates, removed);
+		} finally {
+			_r.unlock();
+		}
+	}
+}
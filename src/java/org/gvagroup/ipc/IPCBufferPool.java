@@ -0,0 +1,109 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A pool of heap byte buffers used to encode IPC payloads. Buffers are pooled in power of two size classes from 4KB to 4MB, and a small
+ * number of buffers of each size are retained, so encoding a payload does not allocate a scratch buffer once the pool is warm. Larger
+ * buffers are allocated on demand and not retained.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public final class IPCBufferPool {
+
+	private static final int MIN_SHIFT = 12;
+	private static final int MAX_SHIFT = 22;
+	private static final int MAX_POOLED = 8;
+
+	private static final Queue<ByteBuffer>[] _pools = createPools();
+	private static final AtomicInteger[] _sizes = new AtomicInteger[MAX_SHIFT - MIN_SHIFT + 1];
+	private static final AtomicLong _hits = new AtomicLong();
+	private static final AtomicLong _misses = new AtomicLong();
+
+	static {
+		for (int x = 0; x < _sizes.length; x++)
+			_sizes[x] = new AtomicInteger();
+	}
+
+	// static class
+	private IPCBufferPool() {
+		super();
+	}
+
+	/*
+	 * Creates the pool queues.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Queue<ByteBuffer>[] createPools() {
+		Queue<ByteBuffer>[] pools = new Queue[MAX_SHIFT - MIN_SHIFT + 1];
+		for (int x = 0; x < pools.length; x++)
+			pools[x] = new ConcurrentLinkedQueue<ByteBuffer>();
+
+		return pools;
+	}
+
+	/*
+	 * Returns the size class for a buffer size.
+	 */
+	private static int sizeClass(int size) {
+		int shift = 32 - Integer.numberOfLeadingZeros(Math.max(1, size) - 1);
+		return Math.max(MIN_SHIFT, shift) - MIN_SHIFT;
+	}
+
+	/**
+	 * Obtains a cleared buffer from the pool.
+	 * @param minSize the minimum buffer size in bytes
+	 * @return a heap ByteBuffer
+	 */
+	public static ByteBuffer acquire(int minSize) {
+		int idx = sizeClass(minSize);
+		if (idx >= _pools.length) {
+			_misses.incrementAndGet();
+			return ByteBuffer.allocate(minSize);
+		}
+
+		ByteBuffer buf = _pools[idx].poll();
+		if (buf == null) {
+			_misses.incrementAndGet();
+			return ByteBuffer.allocate(1 << (idx + MIN_SHIFT));
+		}
+
+		_sizes[idx].decrementAndGet();
+		_hits.incrementAndGet();
+		return buf.clear();
+	}
+
+	/**
+	 * Returns a buffer to the pool. The buffer must not be used after it has been released.
+	 * @param buf the ByteBuffer
+	 */
+	public static void release(ByteBuffer buf) {
+		if ((buf == null) || buf.isDirect() || buf.isReadOnly() || (buf.capacity() < (1 << MIN_SHIFT)) || (Integer.bitCount(buf.capacity()) != 1)) return;
+		int idx = sizeClass(buf.capacity());
+		if ((idx < _pools.length) && (_sizes[idx].incrementAndGet() <= MAX_POOLED))
+			_pools[idx].offer(buf);
+		else if (idx < _pools.length)
+			_sizes[idx].decrementAndGet();
+	}
+
+	/**
+	 * Returns the number of buffer requests satisfied from the pool.
+	 * @return the number of requests
+	 */
+	public static long getHits() {
+		return _hits.get();
+	}
+
+	/**
+	 * Returns the number of buffer requests that required a new buffer.
+	 * @return the number of requests
+	 */
+	public static long getMisses() {
+		return _misses.get();
+	}
+}
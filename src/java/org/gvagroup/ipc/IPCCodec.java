@@ -0,0 +1,136 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.nio.*;
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * An interface for codecs that encode IPC beans into a compact binary format. Unlike Java serialization, an encoded payload contains
+ * no class descriptors, so it can be decoded by a codec in another class loader or virtual machine that uses its own copy of the bean
+ * class, provided both codecs have the same fingerprint. A payload consists of:
+ * <ul>
+ * <li>the format version (1 byte)</li>
+ * <li>the codec fingerprint (4 bytes)</li>
+ * <li>the number of beans (4 bytes)</li>
+ * <li>each encoded bean</li>
+ * </ul>
+ * @version 3.12
+ * @since 3.12
+ * @param <T> the bean type
+ * @see IPCSchema
+ */
+
+public interface IPCCodec<T> {
+
+	/**
+	 * The payload format version.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The maximum payload size.
+	 */
+	public static final int MAX_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * The payload header size.
+	 */
+	public static final int HEADER_SIZE = 9;
+
+	/**
+	 * Returns the codec fingerprint. Codecs with the same fingerprint encode beans in the same format.
+	 * @return the fingerprint
+	 */
+	public int getFingerprint();
+
+	/**
+	 * Encodes a bean into a buffer, starting at its current position.
+	 * @param obj the bean
+	 * @param buf the ByteBuffer to write to
+	 * @throws BufferOverflowException if the buffer is too small, in which case its position is undefined
+	 */
+	public void write(T obj, ByteBuffer buf);
+
+	/**
+	 * Decodes a bean from a buffer, starting at its current position.
+	 * @param buf the ByteBuffer to read from
+	 * @return the bean
+	 * @throws BufferUnderflowException if the buffer does not contain a complete bean
+	 */
+	public T read(ByteBuffer buf);
+
+	/**
+	 * Encodes a Collection of beans into a single payload. The beans are encoded into a pooled buffer, so the only allocation is the
+	 * returned array.
+	 * @param data a Collection of beans
+	 * @return the encoded payload
+	 * @throws IllegalArgumentException if the payload is larger than {@link IPCCodec#MAX_SIZE}
+	 */
+	public default byte[] encode(Collection<? extends T> data) {
+		return encodePayload(getFingerprint(), 4096, buf -> {
+			for (T obj : data)
+				write(obj, buf);
+
+			return data.size();
+		});
+	}
+
+	/**
+	 * Encodes a payload into a pooled buffer. The header is written first, and then the writer encodes the beans and returns the number
+	 * written, which is stored in the header. If the buffer overflows, the writer is called again with a buffer twice the size.
+	 * @param fingerprint the codec fingerprint
+	 * @param minSize the initial buffer size in bytes
+	 * @param writer a function that encodes the beans into a buffer and returns the number of beans written
+	 * @return the encoded payload
+	 * @throws IllegalArgumentException if the payload is larger than {@link IPCCodec#MAX_SIZE}
+	 */
+	public static byte[] encodePayload(int fingerprint, int minSize, ToIntFunction<ByteBuffer> writer) {
+		ByteBuffer buf = IPCBufferPool.acquire(Math.min(MAX_SIZE, Math.max(HEADER_SIZE, minSize)));
+		try {
+			while (true) {
+				try {
+					buf.put((byte) VERSION).putInt(fingerprint).putInt(0);
+					int cnt = writer.applyAsInt(buf);
+					buf.putInt(HEADER_SIZE - 4, cnt);
+					return Arrays.copyOf(buf.array(), buf.position());
+				} catch (BufferOverflowException boe) {
+					if (buf.capacity() >= MAX_SIZE)
+						throw new IllegalArgumentException(String.format("Payload larger than %d bytes", Integer.valueOf(MAX_SIZE)));
+
+					ByteBuffer nb = IPCBufferPool.acquire(Math.min(MAX_SIZE, buf.capacity() * 2));
+					IPCBufferPool.release(buf);
+					buf = nb;
+				}
+			}
+		} finally {
+			IPCBufferPool.release(buf);
+		}
+	}
+
+	/**
+	 * Decodes a payload.
+	 * @param data the encoded payload
+	 * @return a List of beans
+	 * @throws IllegalArgumentException if the payload uses an unsupported format version or was encoded by a codec with a different fingerprint
+	 * @throws BufferUnderflowException if the payload is truncated
+	 */
+	public default List<T> decode(byte[] data) {
+		ByteBuffer buf = ByteBuffer.wrap(data);
+		int version = buf.get();
+		if (version != VERSION)
+			throw new IllegalArgumentException(String.format("Unsupported format version %d", Integer.valueOf(version)));
+		int fp = buf.getInt();
+		if (fp != getFingerprint())
+			throw new IllegalArgumentException(String.format("Fingerprint mismatch - expected %08x, was %08x", Integer.valueOf(getFingerprint()), Integer.valueOf(fp)));
+		int size = buf.getInt();
+		if ((size < 0) || (size > buf.remaining()))
+			throw new IllegalArgumentException(String.format("Invalid payload size - %d", Integer.valueOf(size)));
+
+		List<T> results = new ArrayList<T>(size);
+		for (int x = 0; x < size; x++)
+			results.add(read(buf));
+
+		return results;
+	}
+}
@@ -0,0 +1,83 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.util.*;
+
+/**
+ * A bean to return the IPC data changed since a version. If the requested version is too old, or zero, the delta is a full snapshot
+ * and the caller should discard all of its existing data before applying it.
+ * @version 3.12
+ * @since 3.12
+ * @param <K> the key type
+ * @see DeltaTracker
+ */
+
+public class IPCDelta<K extends java.io.Serializable> implements java.io.Serializable {
+
+	private static final long serialVersionUID = -3183826514903947560L;
+
+	private final long _version;
+	private final boolean _isFull;
+	private final Collection<byte[]> _updates;
+	private final Collection<K> _removed;
+
+	/**
+	 * Creates the bean.
+	 * @param version the version of the data
+	 * @param isFull TRUE if this is a full snapshot, otherwise FALSE
+	 * @param updates a Collection of serialized objects added or changed
+	 * @param removed a Collection of keys removed
+	 */
+	public IPCDelta(long version, boolean isFull, Collection<byte[]> updates, Collection<K> removed) {
+		super();
+		_version = version;
+		_isFull = isFull;
+		_updates = updates;
+		_removed = removed;
+	}
+
+	/**
+	 * Returns the version token, to be passed in the next request for changes.
+	 * @return the version
+	 */
+	public long getVersion() {
+		return _version;
+	}
+
+	/**
+	 * Returns whether this is a full snapshot rather than a delta.
+	 * @return TRUE if a full snapshot, otherwise FALSE
+	 */
+	public boolean isFull() {
+		return _isFull;
+	}
+
+	/**
+	 * Returns the objects added or changed. Each element is a byte array which can be fed into an ObjectInputStream for deserialization.
+	 * @return a Collection of byte arrays
+	 */
+	public Collection<byte[]> getUpdates() {
+		return _updates;
+	}
+
+	/**
+	 * Returns the keys of the objects removed.
+	 * @return a Collection of keys
+	 */
+	public Collection<K> getRemoved() {
+		return _removed;
+	}
+
+	/**
+	 * Returns whether nothing has changed.
+	 * @return TRUE if no objects were added, changed or removed, otherwise FALSE
+	 */
+	public boolean isEmpty() {
+		return !_isFull && _updates.isEmpty() && _removed.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("v%d%s +%d -%d", Long.valueOf(_version), _isFull ? " full" : "", Integer.valueOf(_updates.size()), Integer.valueOf(_removed.size()));
+	}
+}
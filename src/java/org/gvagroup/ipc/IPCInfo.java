@@ -1,12 +1,13 @@
-// Copyright 2007, 2016 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2007, 2016, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.ipc;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.util.*;
 
 /**
  * An interface to define classes that can dump info via serialization.
  * @author Luke
- * @version 2.10
+ * @version 3.12
  * @since 1.0
  * @param <T> the serialized output type
  */
@@ -19,4 +20,36 @@ public interface IPCInfo<T extends java.io.Serializable> {
 	 * @return a Collection of byte arrays
 	 */
 	public Collection<byte[]> getSerializedInfo();
+
+	/**
+	 * Returns the data added, changed or removed since a version, in a serialized fashion. The default implementation always returns a full
+	 * snapshot of {@link IPCInfo#getSerializedInfo()}.
+	 * @param sinceVersion the version returned by the caller's last request, or zero for a full snapshot
+	 * @return an IPCDelta, containing a full snapshot if the version is too old
+	 * @see DeltaTracker
+	 */
+	public default IPCDelta<?> getSerializedInfo(long sinceVersion) {
+		return new IPCDelta<java.io.Serializable>(0, true, getSerializedInfo(), Collections.emptyList());
+	}
+
+	/**
+	 * Streams the data in a serialized fashion as length-prefixed records, so the data does not need to be held in memory. Each record can
+	 * be read with {@link RecordReader#readObject()}. The default implementation writes each element of {@link IPCInfo#getSerializedInfo()},
+	 * and implementations should override it to write each object with {@link RecordWriter#writeObject(java.io.Serializable)}.
+	 * @param out the RecordWriter to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public default void writeSerializedInfo(RecordWriter out) throws IOException {
+		for (byte[] data : getSerializedInfo())
+			out.write(data);
+	}
+
+	/**
+	 * Returns the data encoded into a single payload by an {@link IPCCodec}. This is much smaller and faster to create than the serialized
+	 * data, and should be preferred by callers that have a codec with the same fingerprint.
+	 * @return the encoded payload, or null if not supported, in which case callers should use {@link IPCInfo#getSerializedInfo()}
+	 */
+	public default byte[] getEncodedInfo() {
+		return null;
+	}
 }
\ No newline at end of file
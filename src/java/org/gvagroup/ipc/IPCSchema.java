@@ -0,0 +1,264 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.*;
+import java.util.zip.CRC32;
+
+/**
+ * A schema-based IPC codec. The schema is an ordered list of named, typed fields, each with a getter to encode it and a setter to decode it
+ * into a new bean. Fields are encoded in schema order without tags:
+ * <ul>
+ * <li>booleans as a single byte</li>
+ * <li>integers and longs as zigzag varints</li>
+ * <li>doubles as 8 bytes</li>
+ * <li>strings as UTF-8, prefixed by their length plus one as a varint, with zero for null</li>
+ * <li>instants as the epoch millisecond plus one as a zigzag varint, with zero for null</li>
+ * <li>enumerations as the ordinal plus one as a varint, with zero for null</li>
+ * </ul>
+ * The fingerprint is a checksum of the field names and types, and of the constant names of enumerated fields, so a payload can only be
+ * decoded by a schema with the same fields.
+ * @version 3.12
+ * @since 3.12
+ * @param <T> the bean type
+ */
+
+public class IPCSchema<T> implements IPCCodec<T> {
+
+	private final Supplier<T> _factory;
+	private final Field<T>[] _fields;
+	private final int _fingerprint;
+
+	/**
+	 * An interface for boolean field setters.
+	 * @param <T> the bean type
+	 */
+	@FunctionalInterface
+	public interface ObjBooleanConsumer<T> {
+
+		/**
+		 * Sets the field value.
+		 * @param obj the bean
+		 * @param value the value
+		 */
+		public void accept(T obj, boolean value);
+	}
+
+	/*
+	 * A field encoder.
+	 */
+	private interface FieldWriter<T> {
+		void write(T obj, ByteBuffer buf);
+	}
+
+	/*
+	 * A field decoder.
+	 */
+	private interface FieldReader<T> {
+		void read(T obj, ByteBuffer buf);
+	}
+
+	private static class Field<T> {
+		private final String _name;
+		private final String _type;
+		private final FieldWriter<T> _w;
+		private final FieldReader<T> _r;
+
+		Field(String name, String type, FieldWriter<T> w, FieldReader<T> r) {
+			super();
+			_name = name;
+			_type = type;
+			_w = w;
+			_r = r;
+		}
+	}
+
+	/**
+	 * A builder for schemas.
+	 * @param <T> the bean type
+	 */
+	public static class Builder<T> {
+
+		private final Supplier<T> _factory;
+		private final List<Field<T>> _fields = new ArrayList<Field<T>>();
+
+		Builder(Supplier<T> factory) {
+			super();
+			_factory = factory;
+		}
+
+		private Builder<T> add(String name, String type, FieldWriter<T> w, FieldReader<T> r) {
+			if (_fields.stream().anyMatch(f -> f._name.equals(name)))
+				throw new IllegalArgumentException(String.format("Duplicate field %s", name));
+
+			_fields.add(new Field<T>(name, type, w, r));
+			return this;
+		}
+
+		/**
+		 * Adds a boolean field.
+		 * @param name the field name
+		 * @param get the getter
+		 * @param set the setter
+		 * @return this Builder
+		 */
+		public Builder<T> addBoolean(String name, Predicate<T> get, ObjBooleanConsumer<T> set) {
+			return add(name, "Z", (obj, buf) -> buf.put((byte) (get.test(obj) ? 1 : 0)), (obj, buf) -> set.accept(obj, (buf.get() != 0)));
+		}
+
+		/**
+		 * Adds an integer field.
+		 * @param name the field name
+		 * @param get the getter
+		 * @param set the setter
+		 * @return this Builder
+		 */
+		public Builder<T> addInt(String name, ToIntFunction<T> get, ObjIntConsumer<T> set) {
+			return add(name, "I", (obj, buf) -> BinaryFormat.putVarint(BinaryFormat.zigzag(get.applyAsInt(obj)), buf), (obj, buf) -> set.accept(obj, (int) BinaryFormat.unzigzag(BinaryFormat.getVarint(buf))));
+		}
+
+		/**
+		 * Adds a long field.
+		 * @param name the field name
+		 * @param get the getter
+		 * @param set the setter
+		 * @return this Builder
+		 */
+		public Builder<T> addLong(String name, ToLongFunction<T> get, ObjLongConsumer<T> set) {
+			return add(name, "J", (obj, buf) -> BinaryFormat.putVarint(BinaryFormat.zigzag(get.applyAsLong(obj)), buf), (obj, buf) -> set.accept(obj, BinaryFormat.unzigzag(BinaryFormat.getVarint(buf))));
+		}
+
+		/**
+		 * Adds a double field.
+		 * @param name the field name
+		 * @param get the getter
+		 * @param set the setter
+		 * @return this Builder
+		 */
+		public Builder<T> addDouble(String name, ToDoubleFunction<T> get, ObjDoubleConsumer<T> set) {
+			return add(name, "D", (obj, buf) -> buf.putDouble(get.applyAsDouble(obj)), (obj, buf) -> set.accept(obj, buf.getDouble()));
+		}
+
+		/**
+		 * Adds a string field.
+		 * @param name the field name
+		 * @param get the getter
+		 * @param set the setter
+		 * @return this Builder
+		 */
+		public Builder<T> addString(String name, Function<T, String> get, BiConsumer<T, String> set) {
+			return add(name, "S", (obj, buf) -> BinaryFormat.putString(get.apply(obj), buf), (obj, buf) -> set.accept(obj, BinaryFormat.getString(buf)));
+		}
+
+		/**
+		 * Adds a date/time field. Values are encoded with millisecond precision.
+		 * @param name the field name
+		 * @param get the getter
+		 * @param set the setter
+		 * @return this Builder
+		 */
+		public Builder<T> addInstant(String name, Function<T, Instant> get, BiConsumer<T, Instant> set) {
+			return add(name, "T", (obj, buf) -> {
+				Instant dt = get.apply(obj);
+				BinaryFormat.putVarint((dt == null) ? 0 : BinaryFormat.zigzag(dt.toEpochMilli()) + 1, buf);
+			}, (obj, buf) -> {
+				long v = BinaryFormat.getVarint(buf);
+				set.accept(obj, (v == 0) ? null : Instant.ofEpochMilli(BinaryFormat.unzigzag(v - 1)));
+			});
+		}
+
+		/**
+		 * Adds an enumerated field.
+		 * @param <E> the enumeration type
+		 * @param name the field name
+		 * @param c the enumeration class
+		 * @param get the getter
+		 * @param set the setter
+		 * @return this Builder
+		 */
+		public <E extends Enum<E>> Builder<T> addEnum(String name, Class<E> c, Function<T, E> get, BiConsumer<T, E> set) {
+			E[] values = c.getEnumConstants();
+			StringJoiner type = new StringJoiner(",", "E(", ")");
+			Arrays.stream(values).forEach(v -> type.add(v.name()));
+			return add(name, type.toString(), (obj, buf) -> {
+				E v = get.apply(obj);
+				BinaryFormat.putVarint((v == null) ? 0 : v.ordinal() + 1, buf);
+			}, (obj, buf) -> {
+				int idx = (int) BinaryFormat.getVarint(buf) - 1;
+				if (idx >= values.length)
+					throw new IllegalArgumentException(String.format("Invalid %s ordinal - %d", c.getSimpleName(), Integer.valueOf(idx)));
+
+				set.accept(obj, (idx < 0) ? null : values[idx]);
+			});
+		}
+
+		/**
+		 * Creates the schema.
+		 * @return the IPCSchema
+		 */
+		public IPCSchema<T> build() {
+			return new IPCSchema<T>(_factory, _fields);
+		}
+	}
+
+	/*
+	 * Creates the schema and calculates its fingerprint.
+	 */
+	@SuppressWarnings("unchecked")
+	private IPCSchema(Supplier<T> factory, List<Field<T>> fields) {
+		super();
+		_factory = factory;
+		_fields = fields.toArray(new Field[0]);
+		CRC32 crc = new CRC32();
+		for (Field<T> f : _fields)
+			crc.update((f._name + ':' + f._type + ';').getBytes(StandardCharsets.UTF_8));
+
+		_fingerprint = (int) crc.getValue();
+	}
+
+	/**
+	 * Creates a schema builder.
+	 * @param <T> the bean type
+	 * @param factory a Supplier to create empty beans when decoding
+	 * @return a Builder
+	 */
+	public static <T> Builder<T> builder(Supplier<T> factory) {
+		return new Builder<T>(factory);
+	}
+
+	@Override
+	public int getFingerprint() {
+		return _fingerprint;
+	}
+
+	/**
+	 * Returns the field names.
+	 * @return a List of field names, in schema order
+	 */
+	public List<String> getFields() {
+		return Arrays.stream(_fields).map(f -> f._name).toList();
+	}
+
+	@Override
+	public void write(T obj, ByteBuffer buf) {
+		for (Field<T> f : _fields)
+			f._w.write(obj, buf);
+	}
+
+	@Override
+	public T read(ByteBuffer buf) {
+		T obj = _factory.get();
+		for (Field<T> f : _fields)
+			f._r.read(obj, buf);
+
+		return obj;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("IPCSchema-%08x%s", Integer.valueOf(_fingerprint), getFields());
+	}
+}
@@ -0,0 +1,147 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds. Values are counted in log-linear buckets, with four buckets per power of two, so
+ * percentiles are accurate to within 25% across the full range of values while the histogram uses a fixed 2KB of memory. Recording a
+ * value is wait-free and never allocates.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class LatencyHistogram implements java.io.Serializable {
+
+	private static final long serialVersionUID = -1629371203887360712L;
+
+	private static final int SUB_BITS = 2;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+	private final AtomicLongArray _counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong _count = new AtomicLong();
+	private final AtomicLong _total = new AtomicLong();
+	private final AtomicLong _max = new AtomicLong();
+
+	/*
+	 * Returns the bucket for a value.
+	 */
+	private static int bucket(long v) {
+		if (v < SUB_BUCKETS) return (int) Math.max(0, v);
+		int exp = 63 - Long.numberOfLeadingZeros(v);
+		int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return ((exp - SUB_BITS + 1) << SUB_BITS) + sub;
+	}
+
+	/*
+	 * Returns the largest value in a bucket.
+	 */
+	private static long upperBound(int idx) {
+		if (idx < SUB_BUCKETS) return idx;
+		int exp = (idx >> SUB_BITS) + SUB_BITS - 1;
+		long width = 1L << (exp - SUB_BITS);
+		return ((SUB_BUCKETS + (idx & (SUB_BUCKETS - 1))) * width) + width - 1;
+	}
+
+	/**
+	 * Records a latency.
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void record(long nanos) {
+		long v = Math.max(0, nanos);
+		_counts.incrementAndGet(bucket(v));
+		_count.incrementAndGet();
+		_total.addAndGet(v);
+		long max = _max.get();
+		while ((v > max) && !_max.compareAndSet(max, v))
+			max = _max.get();
+	}
+
+	/**
+	 * Returns the number of recorded latencies.
+	 * @return the number of latencies
+	 */
+	public long getCount() {
+		return _count.get();
+	}
+
+	/**
+	 * Returns the mean latency.
+	 * @return the mean latency in nanoseconds
+	 */
+	public long getMean() {
+		long cnt = _count.get();
+		return (cnt == 0) ? 0 : _total.get() / cnt;
+	}
+
+	/**
+	 * Returns the maximum latency.
+	 * @return the maximum latency in nanoseconds
+	 */
+	public long getMax() {
+		return _max.get();
+	}
+
+	/**
+	 * Returns a latency percentile. The value returned is the upper bound of the bucket containing the percentile, limited to the
+	 * maximum recorded latency.
+	 * @param pct the percentile, between 0 and 100
+	 * @return the latency in nanoseconds
+	 */
+	public long getPercentile(double pct) {
+		long cnt = 0;
+		for (int x = 0; x < BUCKETS; x++)
+			cnt += _counts.get(x);
+
+		long target = (long) Math.ceil(cnt * Math.clamp(pct, 0, 100) / 100);
+		long seen = 0;
+		for (int x = 0; (x < BUCKETS) && (cnt > 0); x++) {
+			seen += _counts.get(x);
+			if (seen >= Math.max(1, target))
+				return Math.min(upperBound(x), _max.get());
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Adds the latencies recorded in another histogram to this histogram.
+	 * @param h the LatencyHistogram to add
+	 */
+	public void add(LatencyHistogram h) {
+		for (int x = 0; x < BUCKETS; x++) {
+			long cnt = h._counts.get(x);
+			if (cnt > 0)
+				_counts.addAndGet(x, cnt);
+		}
+
+		_count.addAndGet(h._count.get());
+		_total.addAndGet(h._total.get());
+		long v = h._max.get();
+		long max = _max.get();
+		while ((v > max) && !_max.compareAndSet(max, v))
+			max = _max.get();
+	}
+
+	/**
+	 * Returns a copy of this histogram. Values recorded while the copy is being made may be partially included.
+	 * @return a LatencyHistogram
+	 */
+	public LatencyHistogram snapshot() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (int x = 0; x < BUCKETS; x++)
+			h._counts.set(x, _counts.get(x));
+
+		h._count.set(_count.get());
+		h._total.set(_total.get());
+		h._max.set(_max.get());
+		return h;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("n=%d, mean=%dns, p50=%dns, p99=%dns, max=%dns", Long.valueOf(getCount()), Long.valueOf(getMean()), Long.valueOf(getPercentile(50)),
+			Long.valueOf(getPercentile(99)), Long.valueOf(getMax()));
+	}
+}
@@ -1,4 +1,4 @@
-// Copyright 2005 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2005, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.ipc;
 
 import java.util.Collection;
@@ -6,7 +6,7 @@ import java.util.Collection;
 /**
  * An interface to allow multi-threaded servers to return worker thread information.
  * @author Luke
- * @version 1.4
+ * @version 3.12
  * @since 1.4
  */
 
@@ -17,4 +17,12 @@ public interface PoolWorkerInfo {
 	 * @return a Collection of WorkerStatus beans
 	 */
 	public Collection<WorkerStatus> getWorkers();
+
+	/**
+	 * Returns the duration of the longest current execution of any worker thread, to detect stalled or saturated workers.
+	 * @return the execution time in milliseconds, or zero if all workers are idle
+	 */
+	public default long getLongestInFlight() {
+		return getWorkers().stream().mapToLong(WorkerStatus::getInFlightTime).max().orElse(0);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A utility class to read length-prefixed records written by a {@link RecordWriter} from a channel, through a reusable buffer. Each record
+ * is returned as a read-only view of the buffer, which is only valid until the next record is read. Records larger than the buffer are
+ * read into a pooled scratch buffer.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class RecordReader implements AutoCloseable {
+
+	private final ReadableByteChannel _ch;
+	private final ByteBuffer _buf;
+	private ByteBuffer _scratch;
+	private long _count;
+
+	/**
+	 * Creates a reader with a 64KB direct buffer.
+	 * @param ch the ReadableByteChannel to read from
+	 */
+	public RecordReader(ReadableByteChannel ch) {
+		this(ch, ByteBuffer.allocateDirect(65536));
+	}
+
+	/**
+	 * Creates a reader.
+	 * @param ch the ReadableByteChannel to read from, or null to read from the buffer only
+	 * @param buf the buffer, which must be at least 16 bytes
+	 */
+	public RecordReader(ReadableByteChannel ch, ByteBuffer buf) {
+		super();
+		if (buf.capacity() < 16)
+			throw new IllegalArgumentException("Buffer too small");
+
+		_ch = ch;
+		_buf = buf;
+		if (ch != null)
+			_buf.clear().limit(0);
+	}
+
+	/**
+	 * Creates a reader that reads the records from a buffer's position to its limit.
+	 * @param buf the ByteBuffer
+	 */
+	public RecordReader(ByteBuffer buf) {
+		this(null, buf);
+	}
+
+	/**
+	 * Returns the number of records read.
+	 * @return the number of records
+	 */
+	public long getCount() {
+		return _count;
+	}
+
+	/*
+	 * Reads from the channel until the buffer contains the requested number of bytes.
+	 */
+	private boolean fill(int size) throws IOException {
+		if (_buf.remaining() >= size) return true;
+		if (_ch == null) return false;
+		_buf.compact();
+		try {
+			while (_buf.position() < size) {
+				if (_ch.read(_buf) < 0)
+					return false;
+			}
+		} finally {
+			_buf.flip();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Reads the next record.
+	 * @return a read-only ByteBuffer containing the record data, or null if there are no more records
+	 * @throws IOException if an I/O error occurs
+	 * @throws EOFException if the last record is incomplete
+	 */
+	public ByteBuffer next() throws IOException {
+		if (!fill(4)) {
+			if (_buf.hasRemaining())
+				throw new EOFException("Incomplete record length");
+
+			return null;
+		}
+
+		int len = _buf.getInt();
+		if ((len < 0) || (len > IPCCodec.MAX_SIZE))
+			throw new IOException(String.format("Invalid record length %d", Integer.valueOf(len)));
+
+		_count++;
+		if (len <= _buf.capacity()) {
+			if (!fill(len))
+				throw new EOFException(String.format("Incomplete record, expected %d bytes", Integer.valueOf(len)));
+
+			ByteBuffer data = _buf.slice(_buf.position(), len).asReadOnlyBuffer();
+			_buf.position(_buf.position() + len);
+			return data;
+		}
+
+		// Larger than the buffer
+		if ((_scratch == null) || (_scratch.capacity() < len)) {
+			IPCBufferPool.release(_scratch);
+			_scratch = IPCBufferPool.acquire(len);
+		}
+
+		_scratch.clear().limit(len);
+		while (_scratch.hasRemaining()) {
+			if (!fill(1))
+				throw new EOFException(String.format("Incomplete record, expected %d bytes", Integer.valueOf(len)));
+
+			int chunk = Math.min(_scratch.remaining(), _buf.remaining());
+			_scratch.put(_scratch.position(), _buf, _buf.position(), chunk);
+			_scratch.position(_scratch.position() + chunk);
+			_buf.position(_buf.position() + chunk);
+		}
+
+		return _scratch.flip().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Reads the next record as a serialized object.
+	 * @return the object, or null if there are no more records
+	 * @throws IOException if an I/O error occurs
+	 * @throws ClassNotFoundException if the object's class cannot be loaded
+	 */
+	public Object readObject() throws IOException, ClassNotFoundException {
+		ByteBuffer data = next();
+		if (data == null) return null;
+		try (ObjectInputStream oi = new ObjectInputStream(new InputStream() {
+			@Override
+			public int read() {
+				return data.hasRemaining() ? (data.get() & 0xFF) : -1;
+			}
+
+			@Override
+			public int read(byte[] b, int ofs, int len) {
+				if (!data.hasRemaining()) return -1;
+				int cnt = Math.min(len, data.remaining());
+				data.get(b, ofs, cnt);
+				return cnt;
+			}
+		})) {
+			return oi.readObject();
+		}
+	}
+
+	/**
+	 * Reads the next record as a bean encoded by a codec.
+	 * @param <T> the bean type
+	 * @param codec the IPCCodec
+	 * @return the bean, or null if there are no more records
+	 * @throws IOException if an I/O error occurs
+	 */
+	public <T> T read(IPCCodec<T> codec) throws IOException {
+		ByteBuffer data = next();
+		return (data == null) ? null : codec.read(data);
+	}
+
+	/**
+	 * Releases the scratch buffer. The channel is not closed.
+	 */
+	@Override
+	public void close() {
+		IPCBufferPool.release(_scratch);
+		_scratch = null;
+	}
+}
@@ -0,0 +1,161 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * A utility class to share the result of an expensive IPC call, such as {@link IPCInfo#getSerializedInfo()}, between concurrent callers.
+ * The result is cached until it is older than a maximum age, or until an optional version counter changes. If several threads request an
+ * expired result, only one builds it and the others wait for and share that build. If the build fails, the exception is thrown to all
+ * waiting threads and the next request builds it again.<br>
+ * <br>
+ * The cached result is returned to every caller, so it must be treated as read-only. This includes the byte arrays in a serialized
+ * Collection.
+ * @version 3.12
+ * @since 3.12
+ * @param <T> the result type
+ */
+
+public class SnapshotMemoizer<T> {
+
+	private final Supplier<T> _builder;
+	private final long _maxAge;
+	private final LongSupplier _version;
+
+	private volatile Snapshot<T> _snapshot;
+	private final AtomicReference<CompletableFuture<Snapshot<T>>> _build = new AtomicReference<CompletableFuture<Snapshot<T>>>();
+
+	private final AtomicLong _hits = new AtomicLong();
+	private final AtomicLong _builds = new AtomicLong();
+
+	private static class Snapshot<T> {
+		private final T _value;
+		private final long _builtOn = System.nanoTime();
+		private final long _version;
+
+		Snapshot(T value, long version) {
+			super();
+			_value = value;
+			_version = version;
+		}
+	}
+
+	/**
+	 * Creates the memoizer.
+	 * @param builder a Supplier to build the result
+	 * @param maxAge the maximum age of the cached result
+	 * @param version a LongSupplier returning a version counter that changes when the result should be rebuilt, or null
+	 */
+	public SnapshotMemoizer(Supplier<T> builder, Duration maxAge, LongSupplier version) {
+		super();
+		_builder = builder;
+		_maxAge = Math.max(0, maxAge.toNanos());
+		_version = version;
+	}
+
+	/**
+	 * Creates a memoizer for the serialized data of an IPCInfo implementation. The cached Collection is unmodifiable.
+	 * @param info the IPCInfo
+	 * @param maxAge the maximum age of the cached result
+	 * @param version a LongSupplier returning a version counter that changes when the data changes, or null
+	 * @return a SnapshotMemoizer
+	 */
+	public static SnapshotMemoizer<Collection<byte[]>> of(IPCInfo<?> info, Duration maxAge, LongSupplier version) {
+		return new SnapshotMemoizer<Collection<byte[]>>(() -> Collections.unmodifiableCollection(info.getSerializedInfo()), maxAge, version);
+	}
+
+	/*
+	 * Returns whether a snapshot can be returned.
+	 */
+	private boolean isValid(Snapshot<T> s, long version) {
+		return (s != null) && (s._version == version) && ((System.nanoTime() - s._builtOn) < _maxAge);
+	}
+
+	/**
+	 * Returns the result, building it if the cached result has expired. A shared build is only returned if it was built for the same version
+	 * this caller read, otherwise the caller tries again.
+	 * @return the result
+	 */
+	public T get() {
+		while (true) {
+			long version = (_version == null) ? 0 : _version.getAsLong();
+			Snapshot<T> s = _snapshot;
+			if (isValid(s, version)) {
+				_hits.incrementAndGet();
+				return s._value;
+			}
+
+			CompletableFuture<Snapshot<T>> f = new CompletableFuture<Snapshot<T>>();
+			CompletableFuture<Snapshot<T>> of = _build.compareAndExchange(null, f);
+			if (of != null) {
+				s = join(of);
+				if (s._version == version) {
+					_hits.incrementAndGet();
+					return s._value;
+				}
+
+				continue;
+			}
+
+			try {
+				s = _snapshot;
+				if (!isValid(s, version)) {
+					s = new Snapshot<T>(_builder.get(), version);
+					_snapshot = s;
+					_builds.incrementAndGet();
+				}
+
+				_build.set(null);
+				f.complete(s);
+				return s._value;
+			} catch (RuntimeException | Error e) {
+				_build.set(null);
+				f.completeExceptionally(e);
+				throw e;
+			}
+		}
+	}
+
+	/*
+	 * Waits for another thread's build, and throws its exception if it failed.
+	 */
+	private static <T> Snapshot<T> join(CompletableFuture<Snapshot<T>> f) {
+		try {
+			return f.join();
+		} catch (CompletionException ce) {
+			if (ce.getCause() instanceof RuntimeException re)
+				throw re;
+			else if (ce.getCause() instanceof Error e)
+				throw e;
+
+			throw ce;
+		}
+	}
+
+	/**
+	 * Discards the cached result, so the next request builds it again.
+	 */
+	public void invalidate() {
+		_snapshot = null;
+	}
+
+	/**
+	 * Returns the number of requests that returned a cached or shared result.
+	 * @return the number of requests
+	 */
+	public long getHits() {
+		return _hits.get();
+	}
+
+	/**
+	 * Returns the number of times the result has been built.
+	 * @return the number of builds
+	 */
+	public long getBuilds() {
+		return _builds.get();
+	}
+}
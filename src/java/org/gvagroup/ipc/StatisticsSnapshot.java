@@ -0,0 +1,239 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.util.*;
+
+/**
+ * A flat snapshot of statistics, stored as one primitive array per column rather than one bean per row. Each row has a key, such as a
+ * connection name, and a long value for each column. Aggregating a column reads a single array and does not allocate, so callers can
+ * update dashboard counters on every request cheaply. {@link StatisticsSnapshot#getRows()} returns row views for existing callers that
+ * expect a Collection of beans.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class StatisticsSnapshot implements java.io.Serializable {
+
+	private static final long serialVersionUID = 2845531950412658791L;
+
+	private final String[] _columns;
+	private final String[] _keys;
+	private final long[][] _data;
+
+	/**
+	 * A view of a snapshot row.
+	 */
+	public class Row {
+
+		private final int _row;
+
+		Row(int row) {
+			super();
+			_row = row;
+		}
+
+		/**
+		 * Returns the row key.
+		 * @return the key
+		 */
+		public String getKey() {
+			return _keys[_row];
+		}
+
+		/**
+		 * Returns a column value.
+		 * @param column the column name
+		 * @return the value
+		 * @throws IllegalArgumentException if the column does not exist
+		 */
+		public long get(String column) {
+			return _data[getColumn(column)][_row];
+		}
+
+		@Override
+		public String toString() {
+			StringJoiner buf = new StringJoiner(", ", getKey() + " [", "]");
+			for (int c = 0; c < _columns.length; c++)
+				buf.add(_columns[c] + "=" + _data[c][_row]);
+
+			return buf.toString();
+		}
+	}
+
+	/**
+	 * A builder for snapshots.
+	 */
+	public static class Builder {
+
+		private final String[] _columns;
+		private String[] _keys = new String[16];
+		private long[][] _data;
+		private int _size;
+
+		Builder(String... columns) {
+			super();
+			if (new HashSet<String>(Arrays.asList(columns)).size() != columns.length)
+				throw new IllegalArgumentException("Duplicate column in " + Arrays.toString(columns));
+
+			_columns = columns.clone();
+			_data = new long[columns.length][16];
+		}
+
+		/**
+		 * Adds a row.
+		 * @param key the row key
+		 * @param values the column values, in column order
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the number of values does not match the number of columns
+		 */
+		public Builder add(String key, long... values) {
+			if (values.length != _columns.length)
+				throw new IllegalArgumentException(String.format("Expected %d values, was %d", Integer.valueOf(_columns.length), Integer.valueOf(values.length)));
+			if (_size == _keys.length) {
+				_keys = Arrays.copyOf(_keys, _size * 2);
+				for (int c = 0; c < _data.length; c++)
+					_data[c] = Arrays.copyOf(_data[c], _size * 2);
+			}
+
+			_keys[_size] = key;
+			for (int c = 0; c < values.length; c++)
+				_data[c][_size] = values[c];
+
+			_size++;
+			return this;
+		}
+
+		/**
+		 * Creates the snapshot.
+		 * @return the StatisticsSnapshot
+		 */
+		public StatisticsSnapshot build() {
+			long[][] data = new long[_columns.length][];
+			for (int c = 0; c < data.length; c++)
+				data[c] = Arrays.copyOf(_data[c], _size);
+
+			return new StatisticsSnapshot(_columns, Arrays.copyOf(_keys, _size), data);
+		}
+	}
+
+	/*
+	 * Creates the snapshot.
+	 */
+	private StatisticsSnapshot(String[] columns, String[] keys, long[][] data) {
+		super();
+		_columns = columns;
+		_keys = keys;
+		_data = data;
+	}
+
+	/**
+	 * Creates a snapshot builder.
+	 * @param columns the column names
+	 * @return a Builder
+	 */
+	public static Builder builder(String... columns) {
+		return new Builder(columns);
+	}
+
+	/**
+	 * Returns the number of rows.
+	 * @return the number of rows
+	 */
+	public int size() {
+		return _keys.length;
+	}
+
+	/**
+	 * Returns the column names.
+	 * @return a List of column names
+	 */
+	public List<String> getColumns() {
+		return List.of(_columns);
+	}
+
+	/**
+	 * Returns the index of a column.
+	 * @param column the column name
+	 * @return the column index
+	 * @throws IllegalArgumentException if the column does not exist
+	 */
+	public int getColumn(String column) {
+		for (int c = 0; c < _columns.length; c++) {
+			if (_columns[c].equals(column))
+				return c;
+		}
+
+		throw new IllegalArgumentException("Unknown column " + column);
+	}
+
+	/**
+	 * Returns a row key.
+	 * @param row the row index
+	 * @return the key
+	 */
+	public String getKey(int row) {
+		return _keys[row];
+	}
+
+	/**
+	 * Returns a value.
+	 * @param row the row index
+	 * @param col the column index
+	 * @return the value
+	 */
+	public long get(int row, int col) {
+		return _data[col][row];
+	}
+
+	/**
+	 * Returns a copy of a column's values.
+	 * @param column the column name
+	 * @return an array of values, in row order
+	 */
+	public long[] getValues(String column) {
+		return _data[getColumn(column)].clone();
+	}
+
+	/**
+	 * Returns the total of a column's values.
+	 * @param column the column name
+	 * @return the total
+	 */
+	public long sum(String column) {
+		long total = 0;
+		for (long v : _data[getColumn(column)])
+			total += v;
+
+		return total;
+	}
+
+	/**
+	 * Returns the largest of a column's values.
+	 * @param column the column name
+	 * @return the maximum, or zero if there are no rows
+	 */
+	public long max(String column) {
+		long max = (_keys.length == 0) ? 0 : Long.MIN_VALUE;
+		for (long v : _data[getColumn(column)])
+			max = Math.max(max, v);
+
+		return max;
+	}
+
+	/**
+	 * Returns views of each row, for callers that expect a Collection of beans.
+	 * @return a List of Rows
+	 */
+	public List<Row> getRows() {
+		List<Row> results = new ArrayList<Row>(_keys.length);
+		for (int r = 0; r < _keys.length; r++)
+			results.add(new Row(r));
+
+		return results;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s x %d", getColumns(), Integer.valueOf(size()));
+	}
+}
@@ -0,0 +1,377 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.ipc;
+
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.*;
+import java.util.zip.CRC32;
+
+/**
+ * A codec for ordered sequences of route entries, such as the position history of an ACARS flight. Consecutive route entries differ only
+ * slightly, so each value is encoded as the difference from the previous entry rather than in full:
+ * <ul>
+ * <li>latitude and longitude are rounded to a fixed number of decimal places, by default 5 (about 1.1m), and encoded as fixed-point
+ * integers</li>
+ * <li>each value is encoded as the zigzag varint delta from the same value in the previous entry, so a typical entry takes a few bytes</li>
+ * </ul>
+ * Additional integer fields, such as altitude or a timestamp, can be added and are delta encoded the same way. A track can optionally be
+ * simplified before encoding, using the Douglas-Peucker algorithm to discard entries that are within a horizontal tolerance of the line
+ * between the entries that are kept. The first and last entries are always kept.<br>
+ * <br>
+ * A payload consists of:
+ * <ul>
+ * <li>the format version (1 byte)</li>
+ * <li>the codec fingerprint (4 bytes)</li>
+ * <li>the number of entries (4 bytes)</li>
+ * <li>the number of decimal places (1 byte)</li>
+ * <li>each encoded entry</li>
+ * </ul>
+ * The fingerprint is a checksum of the field names and types, so a payload can only be decoded by a codec with the same fields.
+ * @version 3.12
+ * @since 3.12
+ * @param <T> the route entry type
+ */
+
+public class TrackCodec<T> {
+
+	/**
+	 * The default number of decimal places for latitude and longitude.
+	 */
+	public static final int DEFAULT_PRECISION = 5;
+
+	private static final double EARTH_RADIUS = 6371008.8;
+
+	private final Supplier<T> _factory;
+	private final ToDoubleFunction<T> _getLat;
+	private final ObjDoubleConsumer<T> _setLat;
+	private final ToDoubleFunction<T> _getLng;
+	private final ObjDoubleConsumer<T> _setLng;
+	private final Field<T>[] _fields;
+	private final int _precision;
+	private final double _scale;
+	private final int _fingerprint;
+
+	private static class Field<T> {
+		private final String _name;
+		private final String _type;
+		private final ToLongFunction<T> _get;
+		private final ObjLongConsumer<T> _set;
+
+		Field(String name, String type, ToLongFunction<T> get, ObjLongConsumer<T> set) {
+			super();
+			_name = name;
+			_type = type;
+			_get = get;
+			_set = set;
+		}
+	}
+
+	/**
+	 * A builder for track codecs.
+	 * @param <T> the route entry type
+	 */
+	public static class Builder<T> {
+
+		private final Supplier<T> _factory;
+		private final ToDoubleFunction<T> _getLat;
+		private final ObjDoubleConsumer<T> _setLat;
+		private final ToDoubleFunction<T> _getLng;
+		private final ObjDoubleConsumer<T> _setLng;
+		private final List<Field<T>> _fields = new ArrayList<Field<T>>();
+		private int _precision = DEFAULT_PRECISION;
+
+		Builder(Supplier<T> factory, ToDoubleFunction<T> getLat, ObjDoubleConsumer<T> setLat, ToDoubleFunction<T> getLng, ObjDoubleConsumer<T> setLng) {
+			super();
+			_factory = factory;
+			_getLat = getLat;
+			_setLat = setLat;
+			_getLng = getLng;
+			_setLng = setLng;
+		}
+
+		private Builder<T> add(String name, String type, ToLongFunction<T> get, ObjLongConsumer<T> set) {
+			if ("lat".equals(name) || "lng".equals(name) || _fields.stream().anyMatch(f -> f._name.equals(name)))
+				throw new IllegalArgumentException(String.format("Duplicate field %s", name));
+
+			_fields.add(new Field<T>(name, type, get, set));
+			return this;
+		}
+
+		/**
+		 * Adds an integer field.
+		 * @param name the field name
+		 * @param get the getter
+		 * @param set the setter
+		 * @return this Builder
+		 */
+		public Builder<T> addInt(String name, ToIntFunction<T> get, ObjIntConsumer<T> set) {
+			return add(name, "I", obj -> get.applyAsInt(obj), (obj, v) -> set.accept(obj, (int) v));
+		}
+
+		/**
+		 * Adds a long field, such as a timestamp in milliseconds.
+		 * @param name the field name
+		 * @param get the getter
+		 * @param set the setter
+		 * @return this Builder
+		 */
+		public Builder<T> addLong(String name, ToLongFunction<T> get, ObjLongConsumer<T> set) {
+			return add(name, "J", get, set);
+		}
+
+		/**
+		 * Updates the number of decimal places latitude and longitude are rounded to.
+		 * @param digits the number of decimal places, from 0 to 7
+		 * @return this Builder
+		 */
+		public Builder<T> setPrecision(int digits) {
+			if ((digits < 0) || (digits > 7))
+				throw new IllegalArgumentException(String.format("Invalid precision - %d", Integer.valueOf(digits)));
+
+			_precision = digits;
+			return this;
+		}
+
+		/**
+		 * Creates the codec.
+		 * @return the TrackCodec
+		 */
+		public TrackCodec<T> build() {
+			return new TrackCodec<T>(this);
+		}
+	}
+
+	/*
+	 * Creates the codec and calculates its fingerprint.
+	 */
+	@SuppressWarnings("unchecked")
+	private TrackCodec(Builder<T> b) {
+		super();
+		_factory = b._factory;
+		_getLat = b._getLat;
+		_setLat = b._setLat;
+		_getLng = b._getLng;
+		_setLng = b._setLng;
+		_fields = b._fields.toArray(new Field[0]);
+		_precision = b._precision;
+		_scale = Math.pow(10, _precision);
+		CRC32 crc = new CRC32();
+		crc.update("lat:P;lng:P;".getBytes(StandardCharsets.UTF_8));
+		for (Field<T> f : _fields)
+			crc.update((f._name + ':' + f._type + ';').getBytes(StandardCharsets.UTF_8));
+
+		_fingerprint = (int) crc.getValue();
+	}
+
+	/**
+	 * Creates a track codec builder.
+	 * @param <T> the route entry type
+	 * @param factory a Supplier to create empty route entries when decoding
+	 * @param getLat the latitude getter
+	 * @param setLat the latitude setter
+	 * @param getLng the longitude getter
+	 * @param setLng the longitude setter
+	 * @return a Builder
+	 */
+	public static <T> Builder<T> builder(Supplier<T> factory, ToDoubleFunction<T> getLat, ObjDoubleConsumer<T> setLat, ToDoubleFunction<T> getLng, ObjDoubleConsumer<T> setLng) {
+		return new Builder<T>(factory, getLat, setLat, getLng, setLng);
+	}
+
+	/**
+	 * Returns the codec fingerprint. Codecs with the same fingerprint encode route entries in the same format.
+	 * @return the fingerprint
+	 */
+	public int getFingerprint() {
+		return _fingerprint;
+	}
+
+	/**
+	 * Returns the number of decimal places latitude and longitude are rounded to.
+	 * @return the number of decimal places
+	 */
+	public int getPrecision() {
+		return _precision;
+	}
+
+	/**
+	 * Encodes a track without simplification.
+	 * @param track a List of route entries, in order
+	 * @return the encoded payload
+	 */
+	public byte[] encode(List<? extends T> track) {
+		return encode(track, 0);
+	}
+
+	/**
+	 * Encodes a track, discarding route entries within a horizontal tolerance of the simplified track.
+	 * @param track a List of route entries, in order
+	 * @param tolerance the tolerance in meters, or zero to keep all entries
+	 * @return the encoded payload
+	 * @throws IllegalArgumentException if the payload is larger than {@link IPCCodec#MAX_SIZE}
+	 */
+	public byte[] encode(List<? extends T> track, double tolerance) {
+		int size = track.size();
+		double[] lat = new double[size];
+		double[] lng = new double[size];
+		int x = 0;
+		for (T obj : track) {
+			lat[x] = _getLat.applyAsDouble(obj);
+			lng[x++] = _getLng.applyAsDouble(obj);
+		}
+
+		boolean[] keep = new boolean[size];
+		int cnt = (tolerance > 0) ? simplify(lat, lng, tolerance, keep) : size;
+		if (tolerance <= 0)
+			Arrays.fill(keep, true);
+
+		// Size the buffer for a few bytes per value, to avoid encoding the track again if it overflows
+		long[] prev = new long[_fields.length];
+		int minSize = (int) Math.min(IPCCodec.MAX_SIZE, 16 + (cnt * (6L + (_fields.length * 2L))));
+		return IPCCodec.encodePayload(_fingerprint, minSize, buf -> {
+			buf.put((byte) _precision);
+			Arrays.fill(prev, 0);
+			long pLat = 0;
+			long pLng = 0;
+			int idx = 0;
+			for (T obj : track) {
+				if (keep[idx]) {
+					long qLat = Math.round(lat[idx] * _scale);
+					long qLng = Math.round(lng[idx] * _scale);
+					BinaryFormat.putVarint(BinaryFormat.zigzag(qLat - pLat), buf);
+					BinaryFormat.putVarint(BinaryFormat.zigzag(qLng - pLng), buf);
+					pLat = qLat;
+					pLng = qLng;
+					for (int f = 0; f < _fields.length; f++) {
+						long v = _fields[f]._get.applyAsLong(obj);
+						BinaryFormat.putVarint(BinaryFormat.zigzag(v - prev[f]), buf);
+						prev[f] = v;
+					}
+				}
+
+				idx++;
+			}
+
+			return cnt;
+		});
+	}
+
+	/**
+	 * Decodes a payload.
+	 * @param data the encoded payload
+	 * @return a List of route entries, in order
+	 * @throws IllegalArgumentException if the payload uses an unsupported format version or was encoded by a codec with a different fingerprint
+	 * @throws BufferUnderflowException if the payload is truncated
+	 */
+	public List<T> decode(byte[] data) {
+		ByteBuffer buf = ByteBuffer.wrap(data);
+		int version = buf.get();
+		if (version != IPCCodec.VERSION)
+			throw new IllegalArgumentException(String.format("Unsupported format version %d", Integer.valueOf(version)));
+		int fp = buf.getInt();
+		if (fp != _fingerprint)
+			throw new IllegalArgumentException(String.format("Fingerprint mismatch - expected %08x, was %08x", Integer.valueOf(_fingerprint), Integer.valueOf(fp)));
+		int size = buf.getInt();
+		if ((size < 0) || (size > buf.remaining()))
+			throw new IllegalArgumentException(String.format("Invalid payload size - %d", Integer.valueOf(size)));
+		int precision = buf.get();
+		if ((precision < 0) || (precision > 7))
+			throw new IllegalArgumentException(String.format("Invalid precision - %d", Integer.valueOf(precision)));
+
+		double scale = Math.pow(10, precision);
+		long[] prev = new long[_fields.length];
+		long lat = 0;
+		long lng = 0;
+		List<T> results = new ArrayList<T>(size);
+		for (int x = 0; x < size; x++) {
+			T obj = _factory.get();
+			lat += BinaryFormat.unzigzag(BinaryFormat.getVarint(buf));
+			lng += BinaryFormat.unzigzag(BinaryFormat.getVarint(buf));
+			_setLat.accept(obj, lat / scale);
+			_setLng.accept(obj, lng / scale);
+			for (int f = 0; f < _fields.length; f++) {
+				prev[f] += BinaryFormat.unzigzag(BinaryFormat.getVarint(buf));
+				_fields[f]._set.accept(obj, prev[f]);
+			}
+
+			results.add(obj);
+		}
+
+		return results;
+	}
+
+	/*
+	 * Returns the distance in meters between a point and a segment, using an equirectangular projection centered on the start of the segment.
+	 */
+	private static double distance(double[] lat, double[] lng, int p, int a, int b, double cosLat) {
+		double bx = wrap(lng[b] - lng[a]) * cosLat;
+		double by = lat[b] - lat[a];
+		double px = wrap(lng[p] - lng[a]) * cosLat;
+		double py = lat[p] - lat[a];
+		double len = (bx * bx) + (by * by);
+		double t = (len == 0) ? 0 : Math.max(0, Math.min(1, ((px * bx) + (py * by)) / len));
+		double dx = px - (t * bx);
+		double dy = py - (t * by);
+		return Math.toRadians(Math.sqrt((dx * dx) + (dy * dy))) * EARTH_RADIUS;
+	}
+
+	/*
+	 * Normalizes a longitude difference across the antimeridian.
+	 */
+	private static double wrap(double dLng) {
+		if (dLng > 180) return dLng - 360;
+		if (dLng < -180) return dLng + 360;
+		return dLng;
+	}
+
+	/*
+	 * Marks the points to keep using the Douglas-Peucker algorithm. This uses an explicit stack, since long tracks can exceed the call stack.
+	 */
+	private static int simplify(double[] lat, double[] lng, double tolerance, boolean[] keep) {
+		int size = lat.length;
+		if (size <= 2) {
+			Arrays.fill(keep, true);
+			return size;
+		}
+
+		keep[0] = true;
+		keep[size - 1] = true;
+		int cnt = 2;
+		int[] stack = new int[size * 2];
+		int sp = 0;
+		stack[sp++] = 0;
+		stack[sp++] = size - 1;
+		while (sp > 0) {
+			int b = stack[--sp];
+			int a = stack[--sp];
+			double maxDist = 0;
+			int idx = -1;
+			double cosLat = Math.cos(Math.toRadians(lat[a]));
+			for (int x = a + 1; x < b; x++) {
+				double d = distance(lat, lng, x, a, b, cosLat);
+				if (d > maxDist) {
+					maxDist = d;
+					idx = x;
+				}
+			}
+
+			if (maxDist > tolerance) {
+				keep[idx] = true;
+				cnt++;
+				stack[sp++] = a;
+				stack[sp++] = idx;
+				stack[sp++] = idx;
+				stack[sp++] = b;
+			}
+		}
+
+		return cnt;
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner sj = new StringJoiner(", ", "[", "]").add("lat").add("lng");
+		Arrays.stream(_fields).forEach(f -> sj.add(f._name));
+		return String.format("TrackCodec-%08x%s", Integer.valueOf(_fingerprint), sj);
+	}
+}
@@ -1,24 +1,51 @@
-// Copyright 2004, 2005, 2006, 2007, 2008, 2010, 2016, 2017, 2023 Global Virtual Airline Group. All Rights Reserved.
+// Copyright 2004, 2005, 2006, 2007, 2008, 2010, 2016, 2017, 2023, 2026 Global Virtual Airline Group. All Rights Reserved.
 package org.gvagroup.ipc;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.*;
+
 /**
- * A bean to return worker thread information.
+ * A bean to return worker thread information. This bean is updated by the worker thread and read by monitoring threads without locking.
+ * In addition to the current or last execution, it keeps a rolling histogram of execution times covering between one and two windows of
+ * {@link WorkerStatus#WINDOW} milliseconds, which is used to calculate the worker's throughput.
  * @author Luke
- * @version 2.61
+ * @version 3.12
  * @since 1.4
  */
 
 public class WorkerStatus implements Comparable<WorkerStatus> {
 	
-	private long _execStartTime;
-	private long _execStopTime;
+	/**
+	 * The length of the rolling statistics window in milliseconds.
+	 */
+	public static final long WINDOW = 60_000;
+	
+	private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(WINDOW);
+	
+	private final AtomicLong _execStartTime = new AtomicLong();
+	private volatile long _lastExecTime;
 	
 	private final String _name;
-	private String _msg;
-	private WorkerState _status;
+	private volatile String _msg;
+	private volatile WorkerState _status;
 	private final int _sortOrder;
-	private long _execCount;
-	private boolean _isRunning;
+	private final AtomicLong _execCount = new AtomicLong();
+	private final AtomicLong _errorCount = new AtomicLong();
+	private volatile boolean _isRunning;
+	
+	private final AtomicReference<Interval> _current = new AtomicReference<Interval>(new Interval(System.nanoTime(), null));
+	
+	private static class Interval {
+		private final long _startTime;
+		private final LatencyHistogram _latency = new LatencyHistogram();
+		private volatile Interval _previous;
+
+		Interval(long startTime, Interval previous) {
+			super();
+			_startTime = startTime;
+			_previous = previous;
+		}
+	}
 	
 	/**
 	 * Initializes the bean.
@@ -31,7 +58,7 @@ public class WorkerStatus implements Comparable<WorkerStatus> {
 		_sortOrder = Math.max(0, sortOrder);
 	}
 
-	public synchronized String getMessage() {
+	public String getMessage() {
 		return _msg;
 	}
 	
@@ -44,10 +71,18 @@ public class WorkerStatus implements Comparable<WorkerStatus> {
 	}
 	
 	public long getExecutionCount() {
-		return _execCount;
+		return _execCount.get();
 	}
 	
-	public synchronized void setMessage(String msg) {
+	/**
+	 * Returns the number of executions that failed.
+	 * @return the number of errors
+	 */
+	public long getErrorCount() {
+		return _errorCount.get();
+	}
+	
+	public void setMessage(String msg) {
 		_msg = msg;
 	}
 	
@@ -55,23 +90,112 @@ public class WorkerStatus implements Comparable<WorkerStatus> {
 		_isRunning = isAlive;
 	}
 	
-	public synchronized void setStatus(WorkerState newStatus) {
+	public void setStatus(WorkerState newStatus) {
 		_status = newStatus;
 	}
 	
-	public synchronized void execute() {
-		_execStartTime = System.currentTimeMillis();
-		_execStopTime = 0;
+	public void execute() {
+		long now = System.nanoTime();
+		_execStartTime.set((now == 0) ? 1 : now);
+	}
+	
+	public void complete() {
+		complete(false);
+	}
+	
+	/**
+	 * Marks the current execution as complete and failed.
+	 */
+	public void fail() {
+		complete(true);
+	}
+	
+	/*
+	 * Completes an execution and records its duration.
+	 */
+	private void complete(boolean isError) {
+		long now = System.nanoTime();
+		long st = _execStartTime.get();
+		if (st != 0) {
+			_lastExecTime = now - st;
+			_execStartTime.set(0);
+		}
+
+		_execCount.incrementAndGet();
+		if (isError)
+			_errorCount.incrementAndGet();
+		if (st != 0)
+			getInterval(now)._latency.record(now - st);
 	}
 	
-	public synchronized void complete() {
-		_execStopTime = System.currentTimeMillis();
-		_execCount++;
+	/*
+	 * Returns the current statistics interval, starting a new one if it is older than the window. Each interval links to the one it replaced,
+	 * and that link is cleared so only two intervals are retained.
+	 */
+	private Interval getInterval(long now) {
+		Interval i = _current.get();
+		if ((now - i._startTime) < WINDOW_NANOS)
+			return i;
+
+		Interval ni = new Interval(now, i);
+		if (_current.compareAndSet(i, ni)) {
+			i._previous = null;
+			return ni;
+		}
+
+		return _current.get();
 	}
 	
-	public synchronized long getExecutionTime() {
-		if (_execStartTime == 0) return 0;
-		return ((_execStopTime == 0) ? System.currentTimeMillis() : _execStopTime) - _execStartTime;
+	/**
+	 * Returns the duration of the current execution, or of the last execution if the worker is idle.
+	 * @return the execution time in milliseconds
+	 */
+	public long getExecutionTime() {
+		long st = _execStartTime.get();
+		return TimeUnit.NANOSECONDS.toMillis((st == 0) ? _lastExecTime : System.nanoTime() - st);
+	}
+	
+	/**
+	 * Returns the duration of the current execution.
+	 * @return the execution time in milliseconds, or zero if the worker is idle
+	 */
+	public long getInFlightTime() {
+		long st = _execStartTime.get();
+		return (st == 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - st);
+	}
+	
+	/**
+	 * Returns the execution times within the rolling window. The previous interval is only included if it ended less than a window ago.
+	 * @return a LatencyHistogram of execution times in nanoseconds
+	 */
+	public LatencyHistogram getExecutionHistogram() {
+		long now = System.nanoTime();
+		Interval i = getInterval(now);
+		Interval pi = i._previous;
+		LatencyHistogram h = i._latency.snapshot();
+		if ((pi != null) && ((i._startTime - pi._startTime) < (WINDOW_NANOS * 2)))
+			h.add(pi._latency);
+
+		return h;
+	}
+	
+	/**
+	 * Returns the number of executions per second within the rolling window.
+	 * @return the number of executions per second
+	 */
+	public double getThroughput() {
+		long now = System.nanoTime();
+		Interval i = getInterval(now);
+		Interval pi = i._previous;
+		long cnt = i._latency.getCount();
+		long st = i._startTime;
+		if ((pi != null) && ((i._startTime - pi._startTime) < (WINDOW_NANOS * 2))) {
+			cnt += pi._latency.getCount();
+			st = pi._startTime;
+		}
+
+		double secs = Math.max(1, (now - st) / 1_000_000_000d);
+		return cnt / secs;
 	}
 	
 	/**
@@ -0,0 +1,83 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.pool;
+
+import java.util.*;
+
+import org.gvagroup.common.*;
+
+/**
+ * A class to mark which system events should invalidate a cached query result.
+ * @version 3.12
+ * @since 3.12
+ * @see QueryCache
+ */
+
+public class CacheTag implements java.io.Serializable {
+
+	private static final long serialVersionUID = -3193614387218409727L;
+
+	private final String _id;
+	private final Set<EventType> _types = EnumSet.noneOf(EventType.class);
+
+	/**
+	 * Creates a tag that matches all events of the given types.
+	 * @param types the EventTypes
+	 */
+	public CacheTag(EventType... types) {
+		this(null, types);
+	}
+
+	/**
+	 * Creates a tag that matches events of the given types with a particular ID.
+	 * @param id the IDEvent ID or UserEvent user ID, or null to match all events of these types
+	 * @param types the EventTypes
+	 */
+	public CacheTag(String id, EventType... types) {
+		super();
+		_id = id;
+		_types.addAll(Arrays.asList(types));
+	}
+
+	/**
+	 * Returns the ID to match.
+	 * @return the ID, or null if all events match
+	 */
+	public String getID() {
+		return _id;
+	}
+
+	/**
+	 * Returns the event types to match.
+	 * @return a Collection of EventTypes
+	 */
+	public Collection<EventType> getTypes() {
+		return Collections.unmodifiableSet(_types);
+	}
+
+	/**
+	 * Returns whether a system event should invalidate query results with this tag.
+	 * @param e the SystemEvent
+	 * @return TRUE if the event matches, otherwise FALSE
+	 */
+	public boolean matches(SystemEvent e) {
+		if (!_types.contains(e.getCode())) return false;
+		if (_id == null) return true;
+		if (e instanceof BatchEvent be)
+			return be.getEvents().stream().anyMatch(this::matches);
+		else if (e instanceof IDEvent ie)
+			return _id.equals(ie.getID());
+		else if (e instanceof UserEvent ue)
+			return _id.equals(String.valueOf(ue.getUserID()));
+
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder(_types.toString());
+		if (_id != null)
+			buf.append('-').append(_id);
+
+		return buf.toString();
+	}
+}
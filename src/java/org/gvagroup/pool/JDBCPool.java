@@ -1,4 +1,4 @@
-// Copyright 2004, 2005, 2006, 2007, 2008, 2009, 2010, 2011, 2013, 2014, 2015, 2016, 2017, 2020, 2021, 2022, 2023, 2024 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2004, 2005, 2006, 2007, 2008, 2009, 2010, 2011, 2013, 2014, 2015, 2016, 2017, 2020, 2021, 2022, 2023, 2024, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.pool;
 
 import java.sql.*;
@@ -8,7 +8,7 @@ import java.lang.reflect.*;
 /**
  * A user-configurable JDBC Connection Pool.
  * @author Luke
- * @version 3.03
+ * @version 3.12
  * @since 1.0
  */
 
@@ -91,6 +91,42 @@ public class JDBCPool extends ConnectionPool<Connection> {
 		throw new ClassCastException(String.format("%s does not implement java.sql.Driver", c.getName()));
 	}
 
+	/**
+	 * Borrows a Connection and executes a query, returning the results as a lazily populated stream of rows. Rows are retrieved from the
+	 * database in batches of the fetch size as the consumer advances, which with cursor fetching enabled keeps memory use bounded for
+	 * large result sets. The Connection is returned to the pool when the results have been fully read or the stream is closed, so callers
+	 * should use try-with-resources if they may not read every row.
+	 * @param <R> the row type
+	 * @param sql the SQL query
+	 * @param fetchSize the number of rows to fetch from the database at a time
+	 * @param mapper the RowMapper to convert each row
+	 * @param params the query parameters
+	 * @return a ResultStream
+	 * @throws ConnectionPoolException if a Connection cannot be borrowed
+	 * @throws SQLException if the query cannot be executed
+	 */
+	public <R> ResultStream<R> stream(String sql, int fetchSize, RowMapper<R> mapper, Object... params) throws ConnectionPoolException, SQLException {
+		Connection c = getConnection();
+		PreparedStatement ps = null;
+		try {
+			ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			ps.setFetchSize(Math.max(1, fetchSize));
+			for (int x = 0; x < params.length; x++)
+				ps.setObject(x + 1, params[x]);
+
+			return new ResultStream<R>(this, c, ps, ps.executeQuery(), fetchSize, mapper);
+		} catch (SQLException se) {
+			try {
+				if (ps != null) ps.close();
+			} catch (SQLException cse) {
+				log.warn("{} error closing statement - {}", getName(), cse.getMessage());
+			}
+
+			release(c);
+			throw se;
+		}
+	}
+
 	@Override
 	protected ConnectionPoolEntry<Connection> createConnection(int id) throws SQLException {
 		String url = _props.getProperty("junixsocket.file", _props.getProperty("url"));
@@ -1,4 +1,4 @@
-// Copyright 2007, 2009, 2011, 2013, 2014, 2016, 2017, 2020, 2024 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2007, 2009, 2011, 2013, 2014, 2016, 2017, 2020, 2024, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.pool;
 
 import java.sql.*;
@@ -10,7 +10,7 @@ import java.util.concurrent.Executor;
  * certain sensitive methods (such as {@link Connection#close()}) from being called by
  * command code. 
  * @author Luke
- * @version 3.02
+ * @version 3.12
  * @since 1.0
  */
 
@@ -36,7 +36,7 @@ public class JDBCWrapper implements ConnectionWrapper<Connection>, Connection {
 		_entry = cpe;
 	}
 	
-	private void recordLastUse() {
+	void recordLastUse() {
 		_lastUse = System.currentTimeMillis();
 	}
 	
@@ -0,0 +1,373 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.pool;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.logging.log4j.*;
+
+import org.gvagroup.common.*;
+
+/**
+ * An opt-in cache of query results in front of a JDBC Connection pool. Results are keyed by SQL, bound parameters and row mapper, and
+ * are expired after a fixed time or evicted in least recently used order when the estimated memory use exceeds a budget. The cache listens
+ * for system events, and a {@link EventType#CACHE_FLUSH} event or an event matching a result's {@link CacheTag} drops that result.
+ * Concurrent requests for the same uncached query share a single database load.<br>
+ * <br>
+ * Cached result lists are shared between callers and must be treated as read-only. Row mappers are compared by identity, since every
+ * instance of a capturing lambda shares the same class, so callers should reuse a single RowMapper instance for each query, such as a
+ * static field, or results will not be shared.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class QueryCache implements AutoCloseable {
+
+	private static final Logger log = LogManager.getLogger(QueryCache.class);
+
+	private final JDBCPool _pool;
+	private final long _ttl;
+	private final long _maxSize;
+	private int _fetchSize = 100;
+
+	private final ConcurrentMap<QueryKey, CacheEntry> _entries = new ConcurrentHashMap<QueryKey, CacheEntry>();
+	private final ConcurrentMap<QueryKey, CompletableFuture<CacheEntry>> _loads = new ConcurrentHashMap<QueryKey, CompletableFuture<CacheEntry>>();
+	private final Set<PendingLoad> _pending = ConcurrentHashMap.newKeySet();
+	private final QueryCacheInfo _info;
+	private final Subscription _sub;
+	private final Thread _listener;
+
+	static final class QueryKey {
+		private final String _sql;
+		private final Object[] _params;
+		private final RowMapper<?> _mapper;
+		private final int _hashCode;
+
+		QueryKey(String sql, RowMapper<?> mapper, Object[] params) {
+			super();
+			_sql = sql;
+			_mapper = mapper;
+			_params = params.clone();
+			_hashCode = (31 * sql.hashCode() + Arrays.deepHashCode(_params)) * 31 + System.identityHashCode(mapper);
+		}
+
+		long getSize() {
+			return 48 + _sql.length() + (_params.length * 24);
+		}
+
+		@Override
+		public int hashCode() {
+			return _hashCode;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return (o instanceof QueryKey k2) && (_hashCode == k2._hashCode) && (_mapper == k2._mapper) && _sql.equals(k2._sql) && Arrays.deepEquals(_params, k2._params);
+		}
+
+		@Override
+		public String toString() {
+			return _sql;
+		}
+	}
+
+	static final class CacheEntry {
+		private final List<?> _rows;
+		private final long _size;
+		private final long _expiryTime;
+		private final CacheTag _tag;
+		private volatile long _lastAccess;
+
+		CacheEntry(List<?> rows, long size, long expiryTime, CacheTag tag) {
+			super();
+			_rows = rows;
+			_size = size;
+			_expiryTime = expiryTime;
+			_tag = tag;
+			_lastAccess = System.nanoTime();
+		}
+
+		boolean isExpired(long now) {
+			return (now - _expiryTime) > 0;
+		}
+
+		boolean matches(SystemEvent e) {
+			return (_tag != null) && _tag.matches(e);
+		}
+	}
+
+	static final class PendingLoad {
+		private final CacheTag _tag;
+		private volatile boolean _isInvalidated;
+
+		PendingLoad(CacheTag tag) {
+			super();
+			_tag = tag;
+		}
+
+		boolean matches(SystemEvent e) {
+			return (e.getCode() == EventType.CACHE_FLUSH) || ((_tag != null) && _tag.matches(e));
+		}
+	}
+
+	/**
+	 * Creates the cache and registers its statistics as {@link SharedData#JDBC_CACHE} followed by the pool name.
+	 * @param pool the JDBC Connection pool to load results from
+	 * @param ttl the time to cache results for
+	 * @param maxSize the estimated memory budget in bytes
+	 */
+	public QueryCache(JDBCPool pool, Duration ttl, long maxSize) {
+		super();
+		_pool = pool;
+		_ttl = ttl.toNanos();
+		_maxSize = Math.max(1024, maxSize);
+		_info = new QueryCacheInfo(pool.getName(), _maxSize);
+		SharedData.addData(getInfoKey(pool.getName()), _info);
+		_sub = EventDispatcher.subscribe(new EventFilter());
+		_listener = Thread.ofVirtual().name(String.format("%s Query Cache", pool.getName())).start(this::listen);
+	}
+
+	/**
+	 * Returns the shared data key for a pool's cache statistics.
+	 * @param poolName the JDBC Connection pool name
+	 * @return the shared data key
+	 * @see SharedData#get(String)
+	 */
+	public static String getInfoKey(String poolName) {
+		return SharedData.JDBC_CACHE + "$" + poolName;
+	}
+
+	/**
+	 * Updates the number of rows retrieved from the database at a time when loading results.
+	 * @param size the fetch size
+	 */
+	public void setFetchSize(int size) {
+		_fetchSize = Math.max(1, size);
+	}
+
+	/**
+	 * Returns the cache statistics.
+	 * @return a QueryCacheInfo bean
+	 */
+	public QueryCacheInfo getInfo() {
+		return _info;
+	}
+
+	/**
+	 * Executes a query, or returns the cached results of an identical earlier query. The results are only invalidated by expiry or a
+	 * {@link EventType#CACHE_FLUSH} event.
+	 * @param <R> the row type
+	 * @param sql the SQL query
+	 * @param mapper the RowMapper to convert each row, which should be reused between calls
+	 * @param params the query parameters, which must be immutable
+	 * @return a read-only List of results
+	 * @throws ConnectionPoolException if a Connection cannot be borrowed
+	 * @throws SQLException if a JDBC error occurs
+	 */
+	public <R> List<R> query(String sql, RowMapper<R> mapper, Object... params) throws ConnectionPoolException, SQLException {
+		return query(null, sql, mapper, params);
+	}
+
+	/**
+	 * Executes a query, or returns the cached results of an identical earlier query.
+	 * @param <R> the row type
+	 * @param tag the CacheTag listing system events which invalidate the results, or null
+	 * @param sql the SQL query
+	 * @param mapper the RowMapper to convert each row, which should be reused between calls
+	 * @param params the query parameters, which must be immutable
+	 * @return a read-only List of results
+	 * @throws ConnectionPoolException if a Connection cannot be borrowed
+	 * @throws SQLException if a JDBC error occurs
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> List<R> query(CacheTag tag, String sql, RowMapper<R> mapper, Object... params) throws ConnectionPoolException, SQLException {
+		QueryKey key = new QueryKey(sql, mapper, params);
+		long now = System.nanoTime();
+		CacheEntry ce = _entries.get(key);
+		if ((ce != null) && !ce.isExpired(now)) {
+			ce._lastAccess = now;
+			_info.hit();
+			return (List<R>) ce._rows;
+		} else if ((ce != null) && _entries.remove(key, ce)) {
+			_info.remove(ce._size);
+			_info.evict();
+		}
+
+		// Check if someone else is loading this query
+		CompletableFuture<CacheEntry> f = new CompletableFuture<CacheEntry>();
+		CompletableFuture<CacheEntry> lf = _loads.putIfAbsent(key, f);
+		if (lf != null) {
+			_info.sharedLoad();
+			return (List<R>) await(lf)._rows;
+		}
+
+		_info.miss();
+		PendingLoad pl = new PendingLoad(tag);
+		_pending.add(pl);
+		try {
+			try {
+				ce = load(key, tag, mapper);
+				f.complete(ce);
+			} catch (ConnectionPoolException | SQLException | RuntimeException e) {
+				f.completeExceptionally(e);
+				throw e;
+			} finally {
+				_loads.remove(key, f);
+			}
+
+			// Only cache if no matching invalidation occurred during the load and the results are not too large
+			if ((ce._size < (_maxSize / 4)) && !pl._isInvalidated) {
+				CacheEntry oldEntry = _entries.put(key, ce);
+				if (oldEntry != null)
+					_info.remove(oldEntry._size);
+
+				_info.add(ce._size);
+
+				// An invalidation may have started after the check above but before the put, and missed this entry
+				if (pl._isInvalidated)
+					remove(key, ce, true);
+				else if (_info.getMemoryUse() > _maxSize)
+					evict();
+			}
+
+			return (List<R>) ce._rows;
+		} finally {
+			_pending.remove(pl);
+		}
+	}
+
+	/*
+	 * Waits for a concurrent load.
+	 */
+	private static CacheEntry await(CompletableFuture<CacheEntry> f) throws ConnectionPoolException, SQLException {
+		try {
+			return f.get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new ConnectionPoolException(ie);
+		} catch (ExecutionException ee) {
+			Throwable t = ee.getCause();
+			if (t instanceof SQLException se)
+				throw se;
+			else if (t instanceof ConnectionPoolException cpe)
+				throw cpe;
+			else if (t instanceof RuntimeException re)
+				throw re;
+
+			throw new ConnectionPoolException(t);
+		}
+	}
+
+	/**
+	 * Loads query results from the database.
+	 * @param key the query key
+	 * @param tag the CacheTag, or null
+	 * @param mapper the RowMapper
+	 * @return a CacheEntry
+	 * @throws ConnectionPoolException if a Connection cannot be borrowed
+	 * @throws SQLException if a JDBC error occurs
+	 */
+	CacheEntry load(QueryKey key, CacheTag tag, RowMapper<?> mapper) throws ConnectionPoolException, SQLException {
+		List<Object> results = new ArrayList<Object>();
+		try (ResultStream<?> rs = _pool.stream(key._sql, _fetchSize, mapper, key._params)) {
+			while (rs.hasNext())
+				results.add(rs.next());
+
+			long size = 16 + (results.size() * 4) + rs.getEstimatedSize() + key.getSize();
+			return new CacheEntry(Collections.unmodifiableList(results), size, System.nanoTime() + _ttl, tag);
+		} catch (ResultStream.StreamException se) {
+			throw se.getCause();
+		}
+	}
+
+	/*
+	 * Removes expired entries, then the least recently used entries until memory use is under 90% of the budget.
+	 */
+	private void evict() {
+		long now = System.nanoTime();
+		List<Map.Entry<QueryKey, CacheEntry>> entries = new ArrayList<Map.Entry<QueryKey, CacheEntry>>(_entries.entrySet());
+		for (Iterator<Map.Entry<QueryKey, CacheEntry>> i = entries.iterator(); i.hasNext(); ) {
+			Map.Entry<QueryKey, CacheEntry> me = i.next();
+			if (me.getValue().isExpired(now)) {
+				remove(me.getKey(), me.getValue(), false);
+				i.remove();
+			}
+		}
+
+		long targetSize = _maxSize * 9 / 10;
+		if (_info.getMemoryUse() <= targetSize) return;
+		entries.sort((e1, e2) -> Long.compare(e1.getValue()._lastAccess, e2.getValue()._lastAccess));
+		for (Iterator<Map.Entry<QueryKey, CacheEntry>> i = entries.iterator(); i.hasNext() && (_info.getMemoryUse() > targetSize); ) {
+			Map.Entry<QueryKey, CacheEntry> me = i.next();
+			remove(me.getKey(), me.getValue(), false);
+		}
+	}
+
+	/*
+	 * Removes an entry and updates statistics.
+	 */
+	private void remove(QueryKey key, CacheEntry ce, boolean isInvalidated) {
+		if (!_entries.remove(key, ce)) return;
+		_info.remove(ce._size);
+		if (isInvalidated)
+			_info.invalidate();
+		else
+			_info.evict();
+	}
+
+	/**
+	 * Drops cached results affected by a system event. Loads in progress for queries affected by the event are not cached.
+	 * @param e the SystemEvent
+	 */
+	public void invalidate(SystemEvent e) {
+		for (PendingLoad pl : _pending) {
+			if (pl.matches(e))
+				pl._isInvalidated = true;
+		}
+
+		boolean isFlush = (e.getCode() == EventType.CACHE_FLUSH);
+		_entries.forEach((k, ce) -> {
+			if (isFlush || ce.matches(e))
+				remove(k, ce, true);
+		});
+	}
+
+	/**
+	 * Clears the cache.
+	 */
+	public void clear() {
+		invalidate(new SystemEvent(EventType.CACHE_FLUSH));
+	}
+
+	/*
+	 * Event listener thread.
+	 */
+	private void listen() {
+		List<SystemEvent> events = new ArrayList<SystemEvent>();
+		try {
+			while (!_sub.isClosed()) {
+				_sub.drain(events, 64, Duration.ofMinutes(5));
+				for (SystemEvent e : events) {
+					log.debug("{} received {}", _info.getName(), e);
+					invalidate(e);
+				}
+
+				events.clear();
+			}
+		} catch (InterruptedException ie) {
+			log.info("{} event listener interrupted", _info.getName());
+		} finally {
+			_sub.close();
+		}
+	}
+
+	@Override
+	public void close() {
+		_sub.close();
+		_listener.interrupt();
+		_entries.clear();
+		SharedData.remove(getInfoKey(_info.getName()), _info);
+	}
+}
@@ -0,0 +1,154 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.pool;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * A bean to store query cache statistics. This is updated in place by the cache, and is published via
+ * {@link org.gvagroup.common.SharedData} so that other web applications can display it.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class QueryCacheInfo implements java.io.Serializable {
+
+	private static final long serialVersionUID = 3306158745021768364L;
+
+	private final String _name;
+	private final long _maxSize;
+
+	private final LongAdder _hits = new LongAdder();
+	private final LongAdder _misses = new LongAdder();
+	private final LongAdder _sharedLoads = new LongAdder();
+	private final LongAdder _evictions = new LongAdder();
+	private final LongAdder _invalidations = new LongAdder();
+	private final AtomicLong _size = new AtomicLong();
+	private final AtomicInteger _entries = new AtomicInteger();
+
+	/**
+	 * Creates the bean.
+	 * @param name the cache name
+	 * @param maxSize the cache memory budget in bytes
+	 */
+	QueryCacheInfo(String name, long maxSize) {
+		super();
+		_name = name;
+		_maxSize = maxSize;
+	}
+
+	void hit() {
+		_hits.increment();
+	}
+
+	void miss() {
+		_misses.increment();
+	}
+
+	void sharedLoad() {
+		_sharedLoads.increment();
+	}
+
+	void evict() {
+		_evictions.increment();
+	}
+
+	void invalidate() {
+		_invalidations.increment();
+	}
+
+	void add(long size) {
+		_size.addAndGet(size);
+		_entries.incrementAndGet();
+	}
+
+	void remove(long size) {
+		_size.addAndGet(-size);
+		_entries.decrementAndGet();
+	}
+
+	/**
+	 * Returns the cache name.
+	 * @return the name
+	 */
+	public String getName() {
+		return _name;
+	}
+
+	/**
+	 * Returns the number of queries answered from the cache.
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return _hits.longValue();
+	}
+
+	/**
+	 * Returns the number of queries executed against the database.
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return _misses.longValue();
+	}
+
+	/**
+	 * Returns the number of misses that waited for a concurrent load of the same query rather than executing it again.
+	 * @return the number of shared loads
+	 */
+	public long getSharedLoads() {
+		return _sharedLoads.longValue();
+	}
+
+	/**
+	 * Returns the number of entries evicted due to expiry or memory pressure.
+	 * @return the number of evictions
+	 */
+	public long getEvictions() {
+		return _evictions.longValue();
+	}
+
+	/**
+	 * Returns the number of entries removed by system events.
+	 * @return the number of invalidations
+	 */
+	public long getInvalidations() {
+		return _invalidations.longValue();
+	}
+
+	/**
+	 * Returns the cache hit rate.
+	 * @return the fraction of requests answered from the cache, from 0 to 1
+	 */
+	public double getHitRate() {
+		long hits = getHits(); long total = hits + getMisses() + getSharedLoads();
+		return (total == 0) ? 0 : (hits / (double) total);
+	}
+
+	/**
+	 * Returns the number of cached query results.
+	 * @return the number of entries
+	 */
+	public int getSize() {
+		return _entries.get();
+	}
+
+	/**
+	 * Returns the estimated memory used by the cache.
+	 * @return the estimated size in bytes
+	 */
+	public long getMemoryUse() {
+		return _size.get();
+	}
+
+	/**
+	 * Returns the cache memory budget.
+	 * @return the maximum size in bytes
+	 */
+	public long getMaxMemory() {
+		return _maxSize;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s [entries=%d, size=%d/%d, hitRate=%.3f]", _name, Integer.valueOf(getSize()), Long.valueOf(getMemoryUse()), Long.valueOf(_maxSize), Double.valueOf(getHitRate()));
+	}
+}
@@ -0,0 +1,155 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.pool;
+
+import java.sql.*;
+import java.util.*;
+import java.util.stream.*;
+
+import org.apache.logging.log4j.*;
+
+/**
+ * A lazily populated iterator over the results of a query. Rows are fetched from the database only as the consumer advances, so
+ * memory use is bounded by the statement fetch size and a slow consumer applies backpressure by simply not advancing. The borrowed
+ * Connection is returned to the pool once the results have been fully read, or when the stream is closed.
+ * @version 3.12
+ * @param <R> the row type
+ * @since 3.12
+ * @see JDBCPool#stream(String, int, RowMapper, Object...)
+ */
+
+public class ResultStream<R> implements Iterator<R>, AutoCloseable {
+
+	private static final Logger log = LogManager.getLogger(ResultStream.class);
+
+	private final Recycler<Connection> _pool;
+	private final Connection _c;
+	private final Statement _s;
+	private final ResultSet _rs;
+	private final Row _row;
+	private final RowMapper<R> _mapper;
+	private final int _fetchSize;
+
+	private R _next;
+	private boolean _isClosed;
+
+	/**
+	 * An unchecked exception thrown when a JDBC error occurs while iterating through the results.
+	 */
+	public static class StreamException extends RuntimeException {
+		private static final long serialVersionUID = 2385318297155862216L;
+
+		StreamException(SQLException se) {
+			super(se);
+		}
+
+		@Override
+		public synchronized SQLException getCause() {
+			return (SQLException) super.getCause();
+		}
+	}
+
+	/**
+	 * Creates the stream.
+	 * @param pool the Connection pool to return the Connection to
+	 * @param c the borrowed Connection
+	 * @param s the executed Statement
+	 * @param rs the ResultSet
+	 * @param fetchSize the statement fetch size
+	 * @param mapper the RowMapper
+	 * @throws SQLException if a JDBC error occurs
+	 */
+	ResultStream(Recycler<Connection> pool, Connection c, Statement s, ResultSet rs, int fetchSize, RowMapper<R> mapper) throws SQLException {
+		super();
+		_pool = pool;
+		_c = c;
+		_s = s;
+		_rs = rs;
+		_fetchSize = Math.max(1, fetchSize);
+		_mapper = mapper;
+		_row = new Row(rs);
+	}
+
+	/**
+	 * Returns the number of rows read so far.
+	 * @return the number of rows
+	 */
+	public long getRowCount() {
+		return _row.getRowNumber();
+	}
+
+	/**
+	 * Returns an estimate of the retained size of the values read so far.
+	 * @return the estimated size in bytes
+	 * @see Row#getEstimatedSize()
+	 */
+	public long getEstimatedSize() {
+		return _row.getEstimatedSize();
+	}
+
+	/**
+	 * Returns whether the stream has been closed and its Connection returned to the pool.
+	 * @return TRUE if closed, otherwise FALSE
+	 */
+	public boolean isClosed() {
+		return _isClosed;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (_next != null) return true;
+		if (_isClosed) return false;
+		try {
+			if (!_row.next()) {
+				close();
+				return false;
+			}
+
+			// Keep the connection monitor from considering a long export to be stale
+			if (((_row.getRowNumber() % _fetchSize) == 0) && (_c instanceof JDBCWrapper jw))
+				jw.recordLastUse();
+
+			_next = _mapper.map(_row);
+			return true;
+		} catch (SQLException se) {
+			close();
+			throw new StreamException(se);
+		}
+	}
+
+	@Override
+	public R next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+
+		R result = _next;
+		_next = null;
+		return result;
+	}
+
+	/**
+	 * Returns a sequential Stream over the remaining rows. Closing the Stream closes this object.
+	 * @return a Stream of mapped rows
+	 */
+	public Stream<R> stream() {
+		Spliterator<R> sp = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(sp, false).onClose(this::close);
+	}
+
+	/**
+	 * Closes the query and returns the Connection to the pool.
+	 */
+	@Override
+	public void close() {
+		if (_isClosed) return;
+		_isClosed = true;
+		_next = null;
+		try {
+			_rs.close();
+			_s.close();
+		} catch (SQLException se) {
+			log.warn("Error closing query after {} rows - {}", Long.valueOf(_row.getRowNumber()), se.getMessage());
+		} finally {
+			_pool.release(_c);
+		}
+	}
+}
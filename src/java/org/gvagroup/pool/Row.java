@@ -0,0 +1,192 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.pool;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * A view of the current row of a streamed query. Column labels are resolved to column indices once when the query is executed, so
+ * mapping a row does not require any ResultSetMetaData lookups.
+ * @version 3.12
+ * @since 3.12
+ */
+
+public class Row {
+
+	private final ResultSet _rs;
+	private final Map<String, Integer> _cols = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+	private final int _colCount;
+
+	private long _rowNumber;
+	private long _size;
+
+	/**
+	 * Creates the row view.
+	 * @param rs the ResultSet
+	 * @throws SQLException if a JDBC error occurs
+	 */
+	Row(ResultSet rs) throws SQLException {
+		super();
+		_rs = rs;
+		ResultSetMetaData md = rs.getMetaData();
+		_colCount = md.getColumnCount();
+		for (int x = _colCount; x > 0; x--) // so the first duplicate label wins, as per ResultSet.findColumn
+			_cols.put(md.getColumnLabel(x), Integer.valueOf(x));
+	}
+
+	/**
+	 * Advances to the next row.
+	 * @return TRUE if a row is available, otherwise FALSE
+	 * @throws SQLException if a JDBC error occurs
+	 */
+	boolean next() throws SQLException {
+		boolean hasRow = _rs.next();
+		if (hasRow) {
+			_rowNumber++;
+			_size += 16 + (_colCount * 4); // object header and field references
+		}
+		
+		return hasRow;
+	}
+
+	/**
+	 * Returns the number of this row within the query results.
+	 * @return the row number, starting at 1
+	 */
+	public long getRowNumber() {
+		return _rowNumber;
+	}
+
+	/**
+	 * Returns an estimate of the retained size of all values read through this view, for use in cache memory accounting.
+	 * @return the estimated size in bytes
+	 */
+	public long getEstimatedSize() {
+		return _size;
+	}
+
+	/*
+	 * Helper method to estimate the retained size of a value.
+	 */
+	private <V> V track(V v, int size) {
+		_size += (v == null) ? 0 : size;
+		return v;
+	}
+
+	/**
+	 * Returns the number of columns in the query results.
+	 * @return the number of columns
+	 */
+	public int getColumnCount() {
+		return _colCount;
+	}
+
+	/**
+	 * Returns the index of a column.
+	 * @param label the column label
+	 * @return the column index, starting at 1
+	 * @throws SQLException if the column label is unknown
+	 */
+	public int indexOf(String label) throws SQLException {
+		Integer idx = _cols.get(label);
+		if (idx == null)
+			throw new SQLException(String.format("Unknown column %s", label));
+
+		return idx.intValue();
+	}
+
+	/**
+	 * Returns the underlying ResultSet, for types not supported directly by this view. Callers should not move the cursor or close the ResultSet.
+	 * @return the ResultSet
+	 */
+	public ResultSet getResultSet() {
+		return _rs;
+	}
+
+	/**
+	 * Returns whether the last column read was SQL NULL.
+	 * @return TRUE if the last value was null, otherwise FALSE
+	 * @throws SQLException if a JDBC error occurs
+	 */
+	public boolean wasNull() throws SQLException {
+		return _rs.wasNull();
+	}
+
+	public int getInt(int idx) throws SQLException {
+		_size += 4;
+		return _rs.getInt(idx);
+	}
+
+	public int getInt(String label) throws SQLException {
+		return getInt(indexOf(label));
+	}
+
+	public long getLong(int idx) throws SQLException {
+		_size += 8;
+		return _rs.getLong(idx);
+	}
+
+	public long getLong(String label) throws SQLException {
+		return getLong(indexOf(label));
+	}
+
+	public double getDouble(int idx) throws SQLException {
+		_size += 8;
+		return _rs.getDouble(idx);
+	}
+
+	public double getDouble(String label) throws SQLException {
+		return getDouble(indexOf(label));
+	}
+
+	public boolean getBoolean(int idx) throws SQLException {
+		_size++;
+		return _rs.getBoolean(idx);
+	}
+
+	public boolean getBoolean(String label) throws SQLException {
+		return getBoolean(indexOf(label));
+	}
+
+	public String getString(int idx) throws SQLException {
+		String s = _rs.getString(idx);
+		return track(s, (s == null) ? 0 : 40 + s.length());
+	}
+
+	public String getString(String label) throws SQLException {
+		return getString(indexOf(label));
+	}
+
+	public byte[] getBytes(int idx) throws SQLException {
+		byte[] data = _rs.getBytes(idx);
+		return track(data, (data == null) ? 0 : 16 + data.length);
+	}
+
+	public byte[] getBytes(String label) throws SQLException {
+		return getBytes(indexOf(label));
+	}
+
+	public Instant getInstant(int idx) throws SQLException {
+		Timestamp ts = _rs.getTimestamp(idx);
+		return track((ts == null) ? null : ts.toInstant(), 24);
+	}
+
+	public Instant getInstant(String label) throws SQLException {
+		return getInstant(indexOf(label));
+	}
+
+	public Object getObject(int idx) throws SQLException {
+		Object o = _rs.getObject(idx);
+		if (o instanceof String str)
+			return track(str, 40 + str.length());
+		else if (o instanceof byte[] data)
+			return track(data, 16 + data.length);
+		
+		return track(o, 24);
+	}
+
+	public Object getObject(String label) throws SQLException {
+		return getObject(indexOf(label));
+	}
+}
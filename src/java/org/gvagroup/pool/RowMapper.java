@@ -0,0 +1,23 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.pool;
+
+import java.sql.SQLException;
+
+/**
+ * An interface to convert the current row of a streamed query into an object.
+ * @version 3.12
+ * @param <R> the result type
+ * @since 3.12
+ */
+
+@FunctionalInterface
+public interface RowMapper<R> {
+
+	/**
+	 * Maps the current row.
+	 * @param row the current Row
+	 * @return the mapped object, which may not be null
+	 * @throws SQLException if a JDBC error occurs
+	 */
+	public R map(Row row) throws SQLException;
+}
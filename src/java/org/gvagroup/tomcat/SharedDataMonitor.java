@@ -0,0 +1,53 @@
+// Copyright 2026 Global Virtual Airlines Group. All Rights Reserved.
+package org.gvagroup.tomcat;
+
+import org.gvagroup.common.SharedData;
+
+/**
+ * A task to remove expired shared data elements and enforce the shared data memory budget. It is registered by the
+ * {@link SharedWorkerListener} whenever the shared worker thread starts.
+ * @version 3.12
+ * @since 3.12
+ */
+
+class SharedDataMonitor implements SharedTask {
+
+	private static final long serialVersionUID = -8417263540952683170L;
+
+	private final int _interval;
+	private boolean _isStopped;
+
+	/**
+	 * Creates the task.
+	 * @param interval the execution interval <i>in seconds</i>
+	 */
+	SharedDataMonitor(int interval) {
+		super();
+		_interval = Math.min(3600, Math.max(10, interval)) * 1000;
+	}
+
+	@Override
+	public int getInterval() {
+		return _interval;
+	}
+
+	@Override
+	public boolean isStopped() {
+		return _isStopped;
+	}
+
+	@Override
+	public void stop() {
+		_isStopped = true;
+	}
+
+	@Override
+	public void execute() {
+		SharedData.expire();
+	}
+
+	@Override
+	public String toString() {
+		return "Shared Data Monitor";
+	}
+}
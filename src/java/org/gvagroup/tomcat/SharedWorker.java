@@ -1,4 +1,4 @@
-// Copyright 2022, 2023 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2022, 2023, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.tomcat;
 
 import java.util.*;
@@ -9,7 +9,7 @@ import org.apache.logging.log4j.*;
 /**
  * A shared worker thread to schedule low-intensity, regular jobs.
  * @author Luke
- * @version 2.60
+ * @version 3.12
  * @since 2.40
  */
 
@@ -66,6 +66,15 @@ public class SharedWorker implements Runnable {
 		_tasks.add(new QueueEntry(t));
 	}
 	
+	/**
+	 * Returns whether a shared task of a given type is waiting for execution.
+	 * @param c the SharedTask class
+	 * @return TRUE if a task of this class is in the queue, otherwise FALSE
+	 */
+	static boolean isRegistered(Class<? extends SharedTask> c) {
+		return _tasks.stream().anyMatch(qe -> (qe.getTask().getClass() == c));
+	}
+	
 	/**
 	 * Removes all tasks from a given classloader from the queue.
 	 * @param cl the ClassLoader
@@ -1,12 +1,13 @@
-// Copyright 2022, 2023 Global Virtual Airlines Group. All Rights Reserved.
+// Copyright 2022, 2023, 2026 Global Virtual Airlines Group. All Rights Reserved.
 package org.gvagroup.tomcat;
 
 import org.apache.logging.log4j.*;
 
 /**
- * A Tomcat context listener to manage the Shared Worker thread.
+ * A Tomcat context listener to manage the Shared Worker thread. The shared data expiry task is registered whenever the thread is started,
+ * since the worker clears its queue when it stops.
  * @author Luke
- * @version 2.63
+ * @version 3.12
  * @since 2.40
  */
 
@@ -21,11 +22,19 @@ public class SharedWorkerListener extends AbstractLifecycleListener implements T
 	void onStartup(boolean isAfter) {
 		if (isAfter) return;
 		log = LogManager.getLogger(SharedWorker.class);
-		
+		startWorker();
+	}
+	
+	/*
+	 * Starts the worker thread and registers the shared data expiry task, if not already queued.
+	 */
+	private void startWorker() {
 		_wt = Thread.ofVirtual().name(THREAD_NAME).unstarted(new SharedWorker());
 		_wt.setUncaughtExceptionHandler(this);
 		_wt.setDaemon(true);
 		_wt.start();
+		if (!SharedWorker.isRegistered(SharedDataMonitor.class))
+			SharedWorker.register(new SharedDataMonitor(30));
 	}
 
 	@Override
@@ -46,10 +55,7 @@ public class SharedWorkerListener extends AbstractLifecycleListener implements T
 			return;
 		}
 		
-		_wt = Thread.ofVirtual().name(THREAD_NAME).unstarted(new SharedWorker());
-		_wt.setUncaughtExceptionHandler(this);
-		_wt.setDaemon(true);
-		_wt.start();
+		startWorker();
 		log.atError().withThrowable(e).log("Restarted {}", t.getName());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package org.gvagroup.acars;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+import junit.framework.TestCase;
+
+public class TestFlightStateStore extends TestCase {
+
+	public void testStore() {
+		FlightStateStore fss = new FlightStateStore(4, 3);
+		assertEquals(4, fss.getDepth());
+		assertTrue(fss.update(101, 40.6, -73.8, 1200, 90, 180, 1000));
+		assertTrue(fss.update(102, 51.5, -0.5, 35000, 270, 450, 1000));
+		assertEquals(2, fss.size());
+
+		FlightState fs = new FlightState();
+		assertTrue(fss.get(101, fs));
+		assertEquals(101, fs.getID());
+		assertEquals(40.6, fs.getLatitude(), 0);
+		assertEquals(1200, fs.getAltitude());
+		assertFalse(fss.get(103, fs));
+
+		// History ring wraps
+		for (int x = 1; x <= 6; x++)
+			fss.update(101, 40.6 + x, -73.8, 1200 + (x * 1000), 90, 180, 1000 + x);
+
+		FlightState[] history = new FlightState[8];
+		for (int x = 0; x < history.length; x++)
+			history[x] = new FlightState();
+
+		assertEquals(4, fss.getHistory(101, history));
+		assertEquals(1006, history[0].getTime());
+		assertEquals(1003, history[3].getTime());
+		assertEquals(1, fss.getHistory(102, history));
+
+		// Remove and reuse slot
+		assertTrue(fss.remove(101));
+		assertFalse(fss.remove(101));
+		assertFalse(fss.get(101, fs));
+		assertEquals(0, fss.getHistory(101, history));
+		assertTrue(fss.update(103, 0, 0, 0, 0, 0, 2000));
+		assertEquals(1, fss.getHistory(103, history));
+		assertEquals(Set.of(Integer.valueOf(102), Integer.valueOf(103)), new HashSet<Integer>(Arrays.stream(fss.getFlightIDs()).boxed().toList()));
+
+		// Full
+		assertTrue(fss.update(104, 0, 0, 0, 0, 0, 2000));
+		assertTrue(fss.update(105, 0, 0, 0, 0, 0, 2000));
+		assertFalse(fss.update(106, 0, 0, 0, 0, 0, 2000));
+	}
+
+	public void testEncode() {
+		FlightStateStore fss = new FlightStateStore(2000, 4);
+		for (int x = 1; x <= 1500; x++)
+			fss.update(x, x * 0.01, -x * 0.01, x * 10, x % 360, 400, 1700000000000L + x);
+
+		fss.remove(750);
+		List<FlightState> data = FlightState.SCHEMA.decode(fss.encode());
+		assertEquals(1499, data.size());
+		for (FlightState fs : data) {
+			assertFalse(fs.getID() == 750);
+			assertEquals(fs.getID() * 0.01, fs.getLatitude(), 0.0000001);
+			assertEquals(fs.getID() * 10, fs.getAltitude());
+			assertEquals(1700000000000L + fs.getID(), fs.getTime());
+		}
+
+		// Export does not allocate per flight
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		ByteBuffer buf = ByteBuffer.allocateDirect(65536);
+		for (int x = 0; x < 2000; x++)
+			fss.export(buf.clear());
+
+		long tID = Thread.currentThread().threadId();
+		long startBytes = mx.getThreadAllocatedBytes(tID);
+		for (int x = 0; x < 1000; x++)
+			assertEquals(1499, fss.export(buf.clear()));
+
+		long bytes = mx.getThreadAllocatedBytes(tID) - startBytes;
+		assertTrue(String.valueOf(bytes), bytes < 100 * 1000);
+	}
+
+	public void testConcurrentReaders() throws Exception {
+		FlightStateStore fss = new FlightStateStore(64, 8);
+		AtomicBoolean isRunning = new AtomicBoolean(true);
+		AtomicLong errors = new AtomicLong();
+		AtomicLong reads = new AtomicLong();
+		List<Thread> readers = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			readers.add(Thread.ofPlatform().start(() -> {
+				FlightState fs = new FlightState();
+				FlightState[] history = { new FlightState(), new FlightState(), new FlightState() };
+				while (isRunning.get()) {
+					for (int id = 1; id <= 64; id++) {
+						if (fss.get(id, fs) && ((fs.getLongitude() != -fs.getLatitude()) || (fs.getTime() != (long) fs.getLatitude())))
+							errors.incrementAndGet();
+
+						int cnt = fss.getHistory(id, history);
+						for (int x = 1; x < cnt; x++) {
+							if (history[x].getTime() != history[x - 1].getTime() - 64)
+								errors.incrementAndGet();
+						}
+
+						reads.incrementAndGet();
+					}
+				}
+			}));
+		}
+
+		long end = System.currentTimeMillis() + 250;
+		long n = 0;
+		while (System.currentTimeMillis() < end) {
+			n++;
+			int id = (int) (n % 64) + 1;
+			fss.update(id, n, -n, 0, 0, 0, n);
+			if ((n % 1000) == 0)
+				fss.remove(id);
+		}
+
+		isRunning.set(false);
+		for (Thread t : readers)
+			t.join();
+
+		assertTrue(reads.get() > 0);
+		assertEquals(0, errors.get());
+	}
+}
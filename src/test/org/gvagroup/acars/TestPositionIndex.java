@@ -0,0 +1,158 @@
+package org.gvagroup.acars;
+
+import java.io.*;
+import java.util.*;
+
+import org.apache.logging.log4j.*;
+
+import junit.framework.TestCase;
+
+public class TestPositionIndex extends TestCase {
+
+	private static final Logger log = LogManager.getLogger(TestPositionIndex.class);
+
+	private static class Position implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final int _id;
+		private final double _lat;
+		private final double _lng;
+		private final int _alt;
+		private final String _callsign;
+
+		Position(int id, double lat, double lng, int alt) {
+			super();
+			_id = id;
+			_lat = lat;
+			_lng = lng;
+			_alt = alt;
+			_callsign = "GVA" + id;
+		}
+	}
+
+	private static Collection<Integer> ids(Collection<byte[]> data) throws Exception {
+		Collection<Integer> results = new TreeSet<Integer>();
+		for (byte[] b : data) {
+			try (ObjectInputStream oi = new ObjectInputStream(new ByteArrayInputStream(b))) {
+				results.add(Integer.valueOf(((Position) oi.readObject())._id));
+			}
+		}
+
+		return results;
+	}
+
+	private static void put(PositionIndex<Position> idx, int id, double lat, double lng) {
+		idx.put(id, lat, lng, new Position(id, lat, lng, 35000));
+	}
+
+	public void testGeoBounds() {
+		GeoBounds gb = new GeoBounds(30, -80, 45, -70);
+		assertTrue(gb.contains(40.6, -73.8));
+		assertFalse(gb.contains(51.5, -0.5));
+		assertFalse(gb.crossesAntimeridian());
+
+		GeoBounds gb2 = new GeoBounds(-50, 170, -30, 190);
+		assertTrue(gb2.crossesAntimeridian());
+		assertEquals(-170, gb2.getMaxLongitude(), 0.0001);
+		assertTrue(gb2.contains(-37, 175));
+		assertTrue(gb2.contains(-37, -175));
+		assertFalse(gb2.contains(-37, 0));
+
+		assertEquals(GeoBounds.WORLD, new GeoBounds(-90, -200, 90, 400));
+		try {
+			new GeoBounds(45, 0, 30, 10);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException iae) {
+			// empty
+		}
+	}
+
+	public void testQuery() throws Exception {
+		PositionIndex<Position> idx = new PositionIndex<Position>(2);
+		put(idx, 1, 40.64, -73.78);
+		put(idx, 2, 42.36, -71.01);
+		put(idx, 3, 51.47, -0.45);
+		put(idx, 4, -37.01, 174.79);
+		put(idx, 5, -43.99, -176.46);
+		put(idx, 6, 89.9, 180);
+		assertEquals(6, idx.size());
+
+		GeoBounds ne = new GeoBounds(38, -76, 44, -70);
+		assertEquals(Set.of(Integer.valueOf(1), Integer.valueOf(2)), ids(idx.getSerializedInfo(ne, 10)));
+		assertEquals(Set.of(Integer.valueOf(4), Integer.valueOf(5)), ids(idx.getSerializedInfo(new GeoBounds(-50, 170, -30, -170), 10)));
+		assertEquals(6, ids(idx.getSerializedInfo(GeoBounds.WORLD, 10)).size());
+		assertEquals(Set.of(Integer.valueOf(6)), ids(idx.getSerializedInfo(new GeoBounds(80, 170, 90, 180), 10)));
+
+		// Move between cells and remove
+		put(idx, 1, 51.15, -0.19);
+		assertEquals(Set.of(Integer.valueOf(2)), ids(idx.getSerializedInfo(ne, 10)));
+		assertTrue(idx.remove(2));
+		assertFalse(idx.remove(2));
+		assertTrue(idx.getSerializedInfo(ne, 10).isEmpty());
+		assertEquals(5, idx.getSerializedInfo().size());
+	}
+
+	public void testThinning() throws Exception {
+		PositionIndex<Position> idx = new PositionIndex<Position>(2);
+		for (int x = 0; x < 100; x++)
+			put(idx, 100 - x, 40 + (x * 0.001), -74 + (x * 0.001));
+
+		GeoBounds gb = new GeoBounds(35, -80, 45, -70);
+		assertEquals(100, idx.getSerializedInfo(gb, PositionIndex.DETAIL_ZOOM).size());
+		assertEquals(Set.of(Integer.valueOf(1)), ids(idx.getSerializedInfo(gb, 3)));
+	}
+
+	public void testBenchmark() throws Exception {
+		PositionIndex<Position> idx = new PositionIndex<Position>(2);
+		Random rnd = new Random(1);
+		double[][] hubs = { { 40, -90 }, { 50, 5 }, { 30, 115 }, { -25, 135 }, { 0, -60 } };
+		int[] ids = new int[5000];
+		double[][] pos = new double[ids.length][2];
+		for (int x = 0; x < ids.length; x++) {
+			double[] hub = hubs[x % hubs.length];
+			ids[x] = 100000 + x;
+			pos[x][0] = Math.max(-89, Math.min(89, hub[0] + rnd.nextGaussian() * 12));
+			pos[x][1] = hub[1] + rnd.nextGaussian() * 25;
+			put(idx, ids[x], pos[x][0], pos[x][1]);
+		}
+
+		// Update all positions
+		long st = System.nanoTime();
+		for (int run = 0; run < 10; run++) {
+			for (int x = 0; x < ids.length; x++) {
+				pos[x][0] = Math.max(-89, Math.min(89, pos[x][0] + rnd.nextGaussian() * 0.05));
+				pos[x][1] += rnd.nextGaussian() * 0.05;
+				put(idx, ids[x], pos[x][0], pos[x][1]);
+			}
+		}
+
+		long updateTime = (System.nanoTime() - st) / (ids.length * 10);
+		GeoBounds viewport = new GeoBounds(38, -80, 45, -68);
+		long fullSize = idx.getSerializedInfo().stream().mapToLong(b -> b.length).sum();
+		long fullTime = Long.MAX_VALUE;
+		long viewTime = Long.MAX_VALUE;
+		long worldTime = Long.MAX_VALUE;
+		for (int run = 0; run < 50; run++) {
+			st = System.nanoTime();
+			assertEquals(ids.length, idx.getSerializedInfo().size());
+			fullTime = Math.min(fullTime, System.nanoTime() - st);
+			st = System.nanoTime();
+			assertFalse(idx.getSerializedInfo(viewport, 9).isEmpty());
+			viewTime = Math.min(viewTime, System.nanoTime() - st);
+			st = System.nanoTime();
+			assertFalse(idx.getSerializedInfo(GeoBounds.WORLD, 2).isEmpty());
+			worldTime = Math.min(worldTime, System.nanoTime() - st);
+		}
+
+		Collection<byte[]> view = idx.getSerializedInfo(viewport, 9);
+		Collection<byte[]> world = idx.getSerializedInfo(GeoBounds.WORLD, 2);
+		long viewSize = view.stream().mapToLong(b -> b.length).sum();
+		long worldSize = world.stream().mapToLong(b -> b.length).sum();
+		log.info("PositionIndex update {}ns - full {} flights/{} bytes/{}us, viewport {} flights/{} bytes/{}us, world zoom 2 {} flights/{} bytes/{}us",
+			Long.valueOf(updateTime), Integer.valueOf(ids.length), Long.valueOf(fullSize), Long.valueOf(fullTime / 1000), Integer.valueOf(view.size()), Long.valueOf(viewSize),
+			Long.valueOf(viewTime / 1000), Integer.valueOf(world.size()), Long.valueOf(worldSize), Long.valueOf(worldTime / 1000));
+
+		assertTrue(viewSize * 10 < fullSize);
+		assertTrue(worldSize * 2 < fullSize);
+	}
+}
@@ -0,0 +1,99 @@
+package org.gvagroup.common;
+
+import java.nio.*;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+
+import junit.framework.TestCase;
+
+public class TestEventBus extends TestCase {
+
+	private Path _dir;
+	private Path _sock;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		_dir = Files.createTempDirectory("bus");
+		_sock = _dir.resolve("events.sock");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		EventDispatcher.unregister();
+		Files.deleteIfExists(_sock);
+		Files.deleteIfExists(_dir);
+		super.tearDown();
+	}
+
+	private static void waitFor(EventTransport t, boolean isConnected) throws InterruptedException {
+		for (int x = 0; (x < 200) && (t.isConnected() != isConnected); x++)
+			Thread.sleep(25);
+
+		assertEquals(isConnected, t.isConnected());
+	}
+
+	public void testCodec() {
+		ByteBuffer buf = ByteBuffer.allocate(1024);
+		EventCodec.encode(new UserEvent(EventType.USER_SUSPEND, 123), buf);
+		EventCodec.encode(new IDEvent(EventType.AIRPORT_RENAME, "KATL", null), buf);
+		EventCodec.encode(new BatchEvent(EventType.CACHE_FLUSH, List.of(new IDEvent(EventType.CACHE_FLUSH, "a"), new IDEvent(EventType.CACHE_FLUSH, "b"))), buf);
+		buf.flip();
+
+		assertEquals(123, ((UserEvent) EventCodec.decode(buf)).getUserID());
+		IDEvent ie = (IDEvent) EventCodec.decode(buf);
+		assertEquals("KATL", ie.getID());
+		assertNull(ie.getData());
+		BatchEvent be = (BatchEvent) EventCodec.decode(buf);
+		assertEquals(2, be.size());
+		assertEquals("b", ((IDEvent) be.getEvents().get(1)).getID());
+		assertFalse(buf.hasRemaining());
+	}
+
+	public void testDelivery() throws Exception {
+		EventDispatcher.register(EventType.FLIGHT_REPORT);
+		try (EventBusServer srv = new EventBusServer(_sock); EventBusClient c = new EventBusClient(_sock)) {
+			waitFor(c, true);
+			waitFor(srv, true);
+
+			c.publish(new IDEvent(EventType.FLIGHT_REPORT, "123"));
+			Collection<SystemEvent> events = EventDispatcher.getEvents(Duration.ofSeconds(2));
+			assertEquals(1, events.size());
+			assertEquals("123", ((IDEvent) events.iterator().next()).getID());
+
+			// Measure latency
+			long[] times = new long[1000];
+			for (int x = 0; x < times.length; x++) {
+				long st = System.nanoTime();
+				c.publish(new UserEvent(EventType.FLIGHT_REPORT, x));
+				assertTrue(EventDispatcher.waitForEvent(Duration.ofSeconds(2)));
+				times[x] = System.nanoTime() - st;
+				assertEquals(1, EventDispatcher.getEvents().size());
+			}
+
+			Arrays.sort(times);
+			assertTrue(times[times.length / 2] < 1_000_000);
+		}
+	}
+
+	public void testReconnect() throws Exception {
+		EventDispatcher.register(EventType.CACHE_FLUSH);
+		try (EventBusClient c = new EventBusClient(_sock)) {
+			try (EventBusServer srv = new EventBusServer(_sock)) {
+				waitFor(c, true);
+			}
+
+			waitFor(c, false);
+			c.publish(new IDEvent(EventType.CACHE_FLUSH, "queued"));
+			assertTrue(EventDispatcher.getEvents(Duration.ofMillis(100)).isEmpty());
+
+			try (EventBusServer srv = new EventBusServer(_sock)) {
+				waitFor(c, true);
+				Collection<SystemEvent> events = EventDispatcher.getEvents(Duration.ofSeconds(2));
+				assertEquals(1, events.size());
+				assertEquals("queued", ((IDEvent) events.iterator().next()).getID());
+			}
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package org.gvagroup.common;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.*;
+import java.util.*;
+
+import org.apache.logging.log4j.*;
+
+import junit.framework.TestCase;
+
+public class TestEventCodec extends TestCase {
+
+	private static final Logger log = LogManager.getLogger(TestEventCodec.class);
+
+	private static final int ITERATIONS = 200_000;
+
+	private static List<SystemEvent> sample() {
+		List<SystemEvent> events = new ArrayList<SystemEvent>();
+		events.add(new SystemEvent(EventType.TZ_RELOAD));
+		events.add(new UserEvent(EventType.USER_SUSPEND, 123456));
+		events.add(new IDEvent(EventType.AIRPORT_RENAME, "KATL", "ATL"));
+		events.add(new IDEvent(EventType.FLIGHT_REPORT, "résumé-中😀", null));
+		events.add(new ResyncEvent(300));
+		events.add(new BatchEvent(EventType.USER_INVALIDATE, List.of(new UserEvent(EventType.USER_INVALIDATE, 1), new UserEvent(EventType.USER_INVALIDATE, 200))));
+		return events;
+	}
+
+	public void testRoundTrip() {
+		ByteBuffer buf = ByteBuffer.allocateDirect(1024);
+		for (SystemEvent e : sample()) {
+			buf.clear();
+			EventCodec.encode(e, buf);
+			assertEquals(e.toString(), EventCodec.size(e), buf.position());
+			buf.flip();
+			SystemEvent e2 = EventCodec.decode(buf);
+			assertFalse(buf.hasRemaining());
+			assertEquals(e.getClass(), e2.getClass());
+			assertEquals(e.getCode(), e2.getCode());
+			assertEquals(0, e.compareTo(e2));
+			if (e instanceof IDEvent ie) {
+				assertEquals(ie.getID(), ((IDEvent) e2).getID());
+				assertEquals(ie.getData(), ((IDEvent) e2).getData());
+			} else if (e instanceof BatchEvent be)
+				assertTrue(Arrays.equals(be.getUserIDs(), ((BatchEvent) e2).getUserIDs()));
+			else if (e instanceof ResyncEvent re)
+				assertEquals(re.getDropped(), ((ResyncEvent) e2).getDropped());
+		}
+	}
+
+	public void testVersion() {
+		ByteBuffer buf = ByteBuffer.allocate(16);
+		EventCodec.encode(new UserEvent(EventType.USER_SUSPEND, 1), buf);
+		buf.put(0, (byte) (EventCodec.VERSION + 1));
+		buf.flip();
+		try {
+			EventCodec.decode(buf);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException iae) {
+			// empty
+		}
+	}
+
+	public void testNoAllocation() {
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		ByteBuffer buf = ByteBuffer.allocateDirect(256);
+		SystemEvent e = new IDEvent(EventType.AIRPORT_RENAME, "KATL", "Hartsfield-Jackson");
+		for (int x = 0; x < ITERATIONS; x++) {
+			buf.clear();
+			EventCodec.encode(e, buf);
+		}
+
+		long tID = Thread.currentThread().threadId();
+		long startBytes = mx.getThreadAllocatedBytes(tID);
+		for (int x = 0; x < ITERATIONS; x++) {
+			buf.clear();
+			EventCodec.encode(e, buf);
+		}
+
+		assertTrue(mx.getThreadAllocatedBytes(tID) - startBytes < 4096);
+	}
+
+	public void testBenchmark() throws Exception {
+		List<SystemEvent> events = sample();
+		ByteBuffer buf = ByteBuffer.allocateDirect(1024);
+		long codecSize = 0;
+		long javaSize = 0;
+		for (SystemEvent e : events) {
+			codecSize += EventCodec.size(e);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (ObjectOutputStream oo = new ObjectOutputStream(out)) {
+				oo.writeObject(e);
+			}
+
+			javaSize += out.size();
+		}
+
+		// Binary codec
+		long codecTime = Long.MAX_VALUE;
+		for (int run = 0; run < 3; run++) {
+			long st = System.nanoTime();
+			for (int x = 0; x < ITERATIONS; x++) {
+				SystemEvent e = events.get(x % events.size());
+				buf.clear();
+				EventCodec.encode(e, buf);
+				buf.flip();
+				assertEquals(e.getCode(), EventCodec.decode(buf).getCode());
+			}
+
+			codecTime = Math.min(codecTime, System.nanoTime() - st);
+		}
+
+		// Java serialization
+		long javaTime = Long.MAX_VALUE;
+		for (int run = 0; run < 3; run++) {
+			long st = System.nanoTime();
+			for (int x = 0; x < (ITERATIONS / 10); x++) {
+				SystemEvent e = events.get(x % events.size());
+				ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+				try (ObjectOutputStream oo = new ObjectOutputStream(out)) {
+					oo.writeObject(e);
+				}
+
+				try (ObjectInputStream oi = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+					assertEquals(e.getCode(), ((SystemEvent) oi.readObject()).getCode());
+				}
+			}
+
+			javaTime = Math.min(javaTime, (System.nanoTime() - st) * 10);
+		}
+
+		log.info("EventCodec {} bytes, {}ns/event - ObjectOutputStream {} bytes, {}ns/event", Long.valueOf(codecSize), Long.valueOf(codecTime / ITERATIONS),
+			Long.valueOf(javaSize), Long.valueOf(javaTime / ITERATIONS));
+		assertTrue(codecSize * 5 < javaSize);
+		assertTrue(codecTime < javaTime);
+	}
+}
@@ -0,0 +1,322 @@
+package org.gvagroup.common;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.gvagroup.ipc.LatencyHistogram;
+
+import junit.framework.TestCase;
+
+public class TestEventDispatcher extends TestCase {
+
+	@Override
+	protected void tearDown() throws Exception {
+		EventDispatcher.unregister();
+		super.tearDown();
+	}
+
+	public void testTimedWait() throws Exception {
+		long st = System.nanoTime();
+		assertFalse(EventDispatcher.waitForEvent(Duration.ofMillis(50)));
+		assertTrue((System.nanoTime() - st) >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertTrue(EventDispatcher.getEvents().isEmpty());
+
+		EventDispatcher.send(new SystemEvent(EventType.TZ_RELOAD));
+		assertTrue(EventDispatcher.waitForEvent(Duration.ofMillis(50)));
+		Collection<SystemEvent> events = EventDispatcher.getEvents();
+		assertEquals(1, events.size());
+		assertEquals(EventType.TZ_RELOAD, events.iterator().next().getCode());
+		assertTrue(EventDispatcher.getEvents().isEmpty());
+	}
+
+	public void testWakeup() throws Exception {
+		CountDownLatch registered = new CountDownLatch(2);
+		BlockingQueue<SystemEvent> received = new LinkedBlockingQueue<SystemEvent>();
+		Runnable r = () -> {
+			try {
+				EventDispatcher.waitForEvent(Duration.ZERO);
+				registered.countDown();
+				received.addAll(EventDispatcher.getEvents(Duration.ofSeconds(5)));
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			} finally {
+				EventDispatcher.unregister();
+			}
+		};
+
+		Thread t1 = Thread.ofVirtual().start(r);
+		Thread t2 = Thread.ofPlatform().start(r);
+		assertTrue(registered.await(1, TimeUnit.SECONDS));
+
+		EventDispatcher.send(new UserEvent(EventType.USER_SUSPEND, 123));
+		t1.join(1000);
+		t2.join(1000);
+		assertFalse(t1.isAlive());
+		assertFalse(t2.isAlive());
+		assertEquals(2, received.size());
+		for (SystemEvent e : received)
+			assertEquals(123, ((UserEvent) e).getUserID());
+	}
+
+	public void testDeadThread() throws Exception {
+		Thread t = Thread.ofVirtual().start(() -> {
+			try {
+				EventDispatcher.waitForEvent(Duration.ZERO);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		t.join(1000);
+		EventDispatcher.waitForEvent(Duration.ZERO);
+		EventDispatcher.send(new SystemEvent(EventType.CACHE_FLUSH));
+		assertEquals(1, EventDispatcher.getEvents().size());
+	}
+
+	public void testFilter() throws Exception {
+		EventDispatcher.register(EventType.AIRPORT_RELOAD, EventType.TZ_RELOAD);
+		EventDispatcher.send(new UserEvent(EventType.USER_SUSPEND, 1));
+		EventDispatcher.send(new SystemEvent(EventType.TZ_RELOAD));
+		assertFalse(EventDispatcher.getEvents().isEmpty());
+		EventDispatcher.send(new UserEvent(EventType.USER_SUSPEND, 1));
+		assertFalse(EventDispatcher.waitForEvent(Duration.ofMillis(10)));
+
+		EventFilter f = new EventFilter(EventType.USER_SUSPEND, EventType.AIRPORT_RENAME);
+		f.setUserFilter(id -> (id == 2));
+		f.setIDFilter("KATL"::equals);
+		EventDispatcher.register(f);
+		EventDispatcher.send(new UserEvent(EventType.USER_SUSPEND, 1));
+		EventDispatcher.send(new UserEvent(EventType.USER_SUSPEND, 2));
+		EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KORD"));
+		EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KATL"));
+		EventDispatcher.send(new SystemEvent(EventType.TZ_RELOAD));
+
+		List<SystemEvent> events = new ArrayList<SystemEvent>(EventDispatcher.getEvents());
+		assertEquals(2, events.size());
+		assertEquals(2, ((UserEvent) events.get(0)).getUserID());
+		assertEquals("KATL", ((IDEvent) events.get(1)).getID());
+	}
+
+	public void testCoalescing() throws Exception {
+		EventDispatcher.setCoalescing(EventType.AIRPORT_RENAME, Duration.ofMillis(100));
+		EventDispatcher.setCoalescing(EventType.CACHE_FLUSH, Duration.ofMillis(100));
+		try {
+			EventFilter f = new EventFilter(EventType.AIRPORT_RENAME, EventType.CACHE_FLUSH);
+			f.setIDFilter(id -> !id.startsWith("C"));
+			EventDispatcher.register(f);
+			for (int x = 0; x < 100; x++) {
+				EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KATL"));
+				EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KORD"));
+				EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "CYYZ"));
+				EventDispatcher.send(new SystemEvent(EventType.CACHE_FLUSH));
+			}
+
+			assertFalse(EventDispatcher.waitForEvent(Duration.ofMillis(50)));
+			Thread.sleep(100);
+			List<SystemEvent> events = new ArrayList<SystemEvent>(EventDispatcher.getEvents());
+			assertEquals(2, events.size());
+			events.sort(null);
+			assertEquals(EventType.CACHE_FLUSH, events.get(0).getCode());
+			assertFalse(events.get(0) instanceof BatchEvent);
+			BatchEvent be = (BatchEvent) events.get(1);
+			assertEquals(2, be.size());
+			assertEquals(List.of("KATL", "KORD"), new ArrayList<String>(be.getIDs()));
+		} finally {
+			EventDispatcher.setCoalescing(EventType.AIRPORT_RENAME, Duration.ZERO);
+			EventDispatcher.setCoalescing(EventType.CACHE_FLUSH, Duration.ZERO);
+		}
+	}
+
+	public void testDrain() throws Exception {
+		List<SystemEvent> sink = new ArrayList<SystemEvent>();
+		assertEquals(0, EventDispatcher.drain(sink, 16, Duration.ofMillis(10)));
+		for (int x = 0; x < 10; x++)
+			EventDispatcher.send(new UserEvent(EventType.USER_INVALIDATE, x));
+
+		assertEquals(4, EventDispatcher.drain(sink, 4, Duration.ZERO));
+		assertEquals(4, sink.size());
+		assertEquals(3, ((UserEvent) sink.get(3)).getUserID());
+		sink.clear();
+		assertEquals(6, EventDispatcher.drain(sink, 16, Duration.ZERO));
+		assertEquals(9, ((UserEvent) sink.get(5)).getUserID());
+
+		// Wait for an event from another thread
+		sink.clear();
+		Thread.ofVirtual().start(() -> {
+			try {
+				Thread.sleep(50);
+				EventDispatcher.send(new SystemEvent(EventType.TZ_RELOAD));
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		assertEquals(1, EventDispatcher.drain(sink, 16, Duration.ofSeconds(2)));
+		assertEquals(EventType.TZ_RELOAD, sink.get(0).getCode());
+	}
+
+	public void testStatistics() throws Exception {
+		EventDispatcher.register(EventType.AIRCRAFT_RENAME);
+		for (int x = 0; x < 5; x++)
+			EventDispatcher.send(new IDEvent(EventType.AIRCRAFT_RENAME, String.valueOf(x)));
+
+		EventStatistics st = EventDispatcher.getStatistics();
+		assertNull(st.getLatency(EventType.AIRCRAFT_RENAME));
+		SubscriberInfo si = st.getSubscribers().stream().filter(inf -> inf.getThreadName().equals(Thread.currentThread().getName())).findAny().orElse(null);
+		assertNotNull(si);
+		assertEquals(5, si.getDepth());
+		assertEquals(5, si.getMaxDepth());
+
+		Thread.sleep(5);
+		assertEquals(5, EventDispatcher.getEvents().size());
+		st = EventDispatcher.getStatistics();
+		LatencyHistogram h = st.getLatency(EventType.AIRCRAFT_RENAME);
+		assertNotNull(h);
+		assertEquals(5, h.getCount());
+		assertTrue(h.getPercentile(50) >= 5_000_000);
+		assertTrue(h.getPercentile(100) <= h.getMax());
+
+		si = st.getSubscribers().stream().filter(inf -> inf.getThreadName().equals(Thread.currentThread().getName())).findAny().orElse(null);
+		assertEquals(0, si.getDepth());
+		assertEquals(5, si.getMaxDepth());
+	}
+
+	public void testResend() throws Exception {
+		EventDispatcher.register(EventType.CACHE_STATS);
+		SystemEvent e = new SystemEvent(EventType.CACHE_STATS);
+		EventDispatcher.send(e);
+		assertEquals(1, EventDispatcher.getEvents().size());
+
+		// Sending the same instance again records a new send time
+		Thread.sleep(100);
+		EventDispatcher.send(e);
+		assertEquals(1, EventDispatcher.getEvents().size());
+		LatencyHistogram h = EventDispatcher.getStatistics().getLatency(EventType.CACHE_STATS);
+		assertEquals(2, h.getCount());
+		assertTrue(h.getMax() < 100_000_000);
+	}
+
+	private static SubscriberInfo getInfo() {
+		return EventDispatcher.getStatistics().getSubscribers().stream().filter(inf -> inf.getThreadName().equals(Thread.currentThread().getName())).findAny().orElse(null);
+	}
+
+	public void testOverflow() throws Exception {
+		EventDispatcher.register(new EventFilter(EventType.AIRPORT_RENAME), 4, OverflowPolicy.DROP_OLDEST);
+		for (int x = 0; x < 10; x++)
+			EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, String.valueOf(x)));
+
+		List<SystemEvent> events = new ArrayList<SystemEvent>(EventDispatcher.getEvents());
+		assertEquals(4, events.size());
+		assertEquals("6", ((IDEvent) events.get(0)).getID());
+		assertEquals(6, getInfo().getOverflows());
+
+		// Resync
+		EventDispatcher.register(new EventFilter(EventType.AIRPORT_RENAME), 4, OverflowPolicy.RESYNC);
+		for (int x = 0; x < 10; x++)
+			EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, String.valueOf(x)));
+
+		events = new ArrayList<SystemEvent>(EventDispatcher.getEvents());
+		assertEquals(2, events.size());
+		assertTrue(events.get(0) instanceof ResyncEvent);
+		assertEquals(9, ((ResyncEvent) events.get(0)).getDropped());
+		assertEquals("9", ((IDEvent) events.get(1)).getID());
+		assertEquals(15, getInfo().getOverflows());
+		assertEquals(4, getInfo().getMaxDepth());
+	}
+
+	public void testBlock() throws Exception {
+		EventDispatcher.setBlockTimeout(Duration.ofSeconds(5));
+		EventDispatcher.register(new EventFilter(EventType.AIRPORT_RENAME), 2, OverflowPolicy.BLOCK);
+		Thread t = Thread.ofVirtual().start(() -> {
+			for (int x = 0; x < 20; x++)
+				EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, String.valueOf(x)));
+		});
+
+		List<SystemEvent> events = new ArrayList<SystemEvent>();
+		while (events.size() < 20)
+			assertTrue(EventDispatcher.drain(events, 1, Duration.ofSeconds(2)) > 0);
+
+		t.join();
+		assertEquals("19", ((IDEvent) events.get(19)).getID());
+		assertEquals(0, getInfo().getOverflows());
+		assertTrue(getInfo().getMaxDepth() <= 2);
+
+		// Sending to ourselves cannot block
+		for (int x = 0; x < 3; x++)
+			EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, String.valueOf(x)));
+
+		events = new ArrayList<SystemEvent>(EventDispatcher.getEvents());
+		assertEquals(1, events.size());
+		assertEquals(3, ((ResyncEvent) events.get(0)).getDropped());
+	}
+
+	public void testBlockConcurrent() throws Exception {
+		EventDispatcher.setBlockTimeout(Duration.ofSeconds(5));
+		EventDispatcher.register(new EventFilter(EventType.AIRPORT_RENAME), 4, OverflowPolicy.BLOCK);
+		List<Thread> senders = new ArrayList<Thread>();
+		for (int t = 0; t < 8; t++) {
+			senders.add(Thread.ofPlatform().start(() -> {
+				for (int x = 0; x < 50; x++)
+					EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, String.valueOf(x)));
+			}));
+		}
+
+		List<SystemEvent> events = new ArrayList<SystemEvent>();
+		while (events.size() < 400)
+			assertTrue(EventDispatcher.drain(events, 3, Duration.ofSeconds(2)) > 0);
+
+		for (Thread t : senders)
+			t.join();
+
+		assertEquals(0, getInfo().getOverflows());
+		assertTrue(String.valueOf(getInfo().getMaxDepth()), getInfo().getMaxDepth() <= 4);
+	}
+
+	public void testSubscription() throws Exception {
+		Subscription sub = null;
+		try (Subscription s = EventDispatcher.subscribe(new EventFilter(EventType.AIRLINE_RELOAD))) {
+			sub = s;
+			EventDispatcher.send(new SystemEvent(EventType.AIRLINE_RELOAD));
+			EventDispatcher.send(new SystemEvent(EventType.TZ_RELOAD));
+			assertEquals(1, s.getDepth());
+			assertTrue(EventDispatcher.getStatistics().getSubscribers().stream().anyMatch(si -> si.toString().equals(s.toString())));
+
+			// Drain from another thread
+			List<SystemEvent> events = new CopyOnWriteArrayList<SystemEvent>();
+			Thread t = Thread.ofVirtual().start(() -> {
+				try {
+					while (events.size() < 2)
+						s.drain(events, 16, Duration.ofSeconds(2));
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			Thread.ofVirtual().start(() -> EventDispatcher.send(new SystemEvent(EventType.AIRLINE_RELOAD))).join();
+			t.join(2000);
+			assertEquals(2, events.size());
+			assertEquals(0, s.getDepth());
+
+			// Close while another thread is waiting
+			t = Thread.ofVirtual().start(() -> {
+				try {
+					s.await(Duration.ofSeconds(10));
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			Thread.sleep(25);
+			s.close();
+			t.join(2000);
+			assertFalse(t.isAlive());
+		}
+
+		assertTrue(sub.isClosed());
+		EventDispatcher.send(new SystemEvent(EventType.AIRLINE_RELOAD));
+		assertEquals(0, sub.getDepth());
+		String id = sub.toString();
+		assertFalse(EventDispatcher.getStatistics().getSubscribers().stream().anyMatch(si -> si.toString().equals(id)));
+	}
+}
@@ -0,0 +1,145 @@
+package org.gvagroup.common;
+
+import java.io.File;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+public class TestEventJournal extends TestCase {
+
+	private File _dir;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		_dir = Files.createTempDirectory("journal").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		EventDispatcher.setJournal(null);
+		EventDispatcher.unregister();
+		for (File f : _dir.listFiles())
+			f.delete();
+
+		_dir.delete();
+		super.tearDown();
+	}
+
+	public void testAppendReplay() throws Exception {
+		try (EventJournal j = new EventJournal(_dir, 4096, 4)) {
+			assertEquals(0, j.getLastSequence());
+			assertEquals(1, j.append(new SystemEvent(EventType.TZ_RELOAD)));
+			assertEquals(2, j.append(new UserEvent(EventType.USER_SUSPEND, 123)));
+			assertEquals(3, j.append(new IDEvent(EventType.AIRPORT_RENAME, "KATL", "ATL")));
+
+			List<SystemEvent> events = new ArrayList<SystemEvent>();
+			assertTrue(j.replay(1, events::add));
+			assertEquals(2, events.size());
+			assertEquals(2, events.get(0).getSequence());
+			assertEquals(123, ((UserEvent) events.get(0)).getUserID());
+			assertEquals("ATL", ((IDEvent) events.get(1)).getData());
+		}
+
+		// Reopen and check recovery
+		try (EventJournal j = new EventJournal(_dir, 4096, 4)) {
+			assertEquals(3, j.getLastSequence());
+			assertEquals(4, j.append(new SystemEvent(EventType.CACHE_FLUSH)));
+			List<SystemEvent> events = new ArrayList<SystemEvent>();
+			assertTrue(j.replay(0, events::add));
+			assertEquals(4, events.size());
+		}
+	}
+
+	public void testRollover() throws Exception {
+		try (EventJournal j = new EventJournal(_dir, 4096, 3)) {
+			for (int x = 1; x <= 500; x++)
+				assertEquals(x, j.append(new IDEvent(EventType.AIRPORT_RENAME, String.valueOf(x))));
+
+			assertEquals(3, _dir.listFiles().length);
+			assertTrue(j.getFirstSequence() > 1);
+
+			List<SystemEvent> events = new ArrayList<SystemEvent>();
+			assertFalse(j.replay(0, events::add));
+			assertEquals(500 - j.getFirstSequence() + 1, events.size());
+
+			events.clear();
+			assertTrue(j.replay(490, events::add));
+			assertEquals(10, events.size());
+			assertEquals("491", ((IDEvent) events.get(0)).getID());
+		}
+	}
+
+	public void testResume() throws Exception {
+		try (EventJournal j = new EventJournal(_dir, 65536, 2)) {
+			EventDispatcher.setJournal(j);
+			assertTrue(EventDispatcher.resume("test", new EventFilter(EventType.AIRPORT_RENAME)));
+			EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KATL"));
+			assertEquals(1, EventDispatcher.getEvents().size());
+			assertEquals(1, EventDispatcher.getLastSequence());
+			EventDispatcher.unregister();
+
+			// Send while not registered
+			EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KORD"));
+			EventDispatcher.send(new SystemEvent(EventType.TZ_RELOAD));
+			EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KJFK"));
+
+			assertTrue(EventDispatcher.resume("test", new EventFilter(EventType.AIRPORT_RENAME)));
+			EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KLAX"));
+			List<SystemEvent> events = new ArrayList<SystemEvent>(EventDispatcher.getEvents());
+			assertEquals(3, events.size());
+			assertEquals("KORD", ((IDEvent) events.get(0)).getID());
+			assertEquals("KLAX", ((IDEvent) events.get(2)).getID());
+			assertEquals(5, EventDispatcher.getLastSequence());
+		}
+	}
+
+	public void testResendSequence() throws Exception {
+		try (EventJournal j = new EventJournal(_dir, 4096, 4)) {
+			EventDispatcher.setJournal(j);
+			EventDispatcher.register(EventType.AIRPORT_RENAME);
+			IDEvent e = new IDEvent(EventType.AIRPORT_RENAME, "KATL");
+			EventDispatcher.send(e);
+			List<SystemEvent> events = new ArrayList<SystemEvent>(EventDispatcher.getEvents());
+			assertEquals(1, events.size());
+			assertEquals(1, events.get(0).getSequence());
+
+			// Sending the same instance again does not change the earlier delivery
+			EventDispatcher.send(e);
+			events.addAll(EventDispatcher.getEvents());
+			assertEquals(2, events.size());
+			assertEquals(1, events.get(0).getSequence());
+			assertEquals(2, events.get(1).getSequence());
+			assertEquals(0, e.getSequence());
+		}
+	}
+
+	public void testBlockOutsideLock() throws Exception {
+		try (EventJournal j = new EventJournal(_dir, 65536, 2)) {
+			EventDispatcher.setJournal(j);
+			EventDispatcher.setBlockTimeout(Duration.ofSeconds(2));
+			EventDispatcher.register(new EventFilter(EventType.AIRPORT_RENAME), 1, OverflowPolicy.BLOCK);
+			EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KATL"));
+
+			// A sender blocked on a full queue does not stall other senders
+			Thread t = Thread.ofVirtual().start(() -> EventDispatcher.send(new IDEvent(EventType.AIRPORT_RENAME, "KORD")));
+			Thread.sleep(50);
+			assertTrue(t.isAlive());
+			long st = System.nanoTime();
+			Thread.ofVirtual().start(() -> EventDispatcher.send(new SystemEvent(EventType.TZ_RELOAD))).join();
+			assertTrue((System.nanoTime() - st) < TimeUnit.MILLISECONDS.toNanos(500));
+
+			List<SystemEvent> events = new ArrayList<SystemEvent>();
+			while (events.size() < 2)
+				EventDispatcher.drain(events, 1, Duration.ofSeconds(2));
+
+			t.join();
+			assertEquals("KORD", ((IDEvent) events.get(1)).getID());
+		} finally {
+			EventDispatcher.setBlockTimeout(Duration.ofMillis(50));
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package org.gvagroup.common;
+
+import java.io.Serializable;
+import java.net.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+public class TestSharedData extends TestCase {
+
+	private static final String KEY = "$test$data";
+
+	@Override
+	protected void tearDown() throws Exception {
+		SharedData.setMemoryBudget(0);
+		SharedData.purge("test");
+		super.tearDown();
+	}
+
+	public void testVersion() {
+		assertEquals(0, SharedData.getVersion(KEY));
+		SharedData.addData(KEY, "A");
+		long v1 = SharedData.getVersion(KEY);
+		assertTrue(v1 > 0);
+		assertEquals("A", SharedData.get(KEY));
+
+		assertNull(SharedData.getIfNewer(KEY, v1));
+		assertNotNull(SharedData.getIfNewer(KEY, 0));
+
+		SharedData.addData(KEY, "B");
+		SharedDataEntry se = SharedData.getIfNewer(KEY, v1);
+		assertNotNull(se);
+		assertEquals("B", se.getValue());
+		assertTrue(se.getVersion() > v1);
+
+		// Re-adding a bean updated in place changes the version
+		List<String> data = new ArrayList<String>(List.of("A"));
+		SharedData.addData(KEY, (Serializable) data);
+		long v2 = SharedData.getVersion(KEY);
+		data.add("B");
+		SharedData.addData(KEY, (Serializable) data);
+		assertTrue(SharedData.getVersion(KEY) > v2);
+		assertEquals(2, ((List<?>) SharedData.getIfNewer(KEY, v2).getValue()).size());
+	}
+
+	public void testListener() {
+		List<SharedDataEntry> changes = new ArrayList<SharedDataEntry>();
+		SharedDataListener l = (k, e) -> changes.add(e);
+		SharedData.addListener(KEY, l);
+		SharedData.addListener(KEY, (k, e) -> { throw new IllegalStateException("test"); });
+		SharedData.addData(KEY, "A");
+		SharedData.addData(KEY, "A");
+		SharedData.addData("$test$other", "X");
+		assertEquals(2, changes.size());
+		assertEquals("A", changes.get(0).getValue());
+		assertTrue(changes.get(1).getVersion() > changes.get(0).getVersion());
+
+		SharedData.removeListener(l);
+		SharedData.addData(KEY, "B");
+		assertEquals(2, changes.size());
+	}
+
+	public void testPurge() throws Exception {
+		List<SharedDataEntry> changes = new ArrayList<SharedDataEntry>();
+		ClassLoader oldLoader = Thread.currentThread().getContextClassLoader();
+		try (URLClassLoader cl = new URLClassLoader(new URL[0], oldLoader)) {
+			Thread.currentThread().setContextClassLoader(cl);
+			SharedData.addListener(KEY, (k, e) -> changes.add(e));
+			SharedData.addData(KEY, "A");
+			assertEquals(1, changes.size());
+			SharedData.purge("test2");
+		} finally {
+			Thread.currentThread().setContextClassLoader(oldLoader);
+		}
+
+		assertNull(SharedData.get(KEY));
+		SharedData.addData(KEY, "B");
+		assertEquals(1, changes.size());
+	}
+
+	public void testComputeIfAbsent() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(1);
+		Callable<String> loader = () -> {
+			loads.incrementAndGet();
+			latch.await();
+			return "LOADED";
+		};
+
+		Collection<Future<String>> results = new ArrayList<Future<String>>();
+		try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int x = 0; x < 10; x++)
+				results.add(exec.submit(() -> SharedData.computeIfAbsent(KEY, loader, Duration.ofSeconds(5))));
+
+			Thread.sleep(50);
+			latch.countDown();
+			for (Future<String> f : results)
+				assertEquals("LOADED", f.get());
+		}
+
+		assertEquals(1, loads.get());
+		assertEquals("LOADED", SharedData.get(KEY));
+		assertEquals("LOADED", SharedData.computeIfAbsent(KEY, loader, Duration.ZERO));
+		assertEquals(1, loads.get());
+	}
+
+	public void testComputeFailure() throws Exception {
+		try {
+			SharedData.computeIfAbsent(KEY, () -> { throw new IllegalStateException("test"); }, Duration.ofSeconds(1));
+			fail("ExecutionException expected");
+		} catch (ExecutionException ee) {
+			assertTrue(ee.getCause() instanceof IllegalStateException);
+		}
+
+		assertNull(SharedData.get(KEY));
+		assertEquals("B", SharedData.computeIfAbsent(KEY, () -> "B", Duration.ofSeconds(1)));
+	}
+
+	public void testComputeTimeout() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		Thread t = Thread.ofVirtual().start(() -> {
+			try {
+				SharedData.computeIfAbsent(KEY, () -> { latch.await(); return "A"; }, Duration.ofSeconds(5));
+			} catch (Exception e) {
+				// empty
+			}
+		});
+
+		Thread.sleep(25);
+		try {
+			SharedData.computeIfAbsent(KEY, () -> "B", Duration.ofMillis(25));
+			fail("TimeoutException expected");
+		} catch (TimeoutException te) {
+			// empty
+		} finally {
+			latch.countDown();
+			t.join();
+		}
+
+		assertEquals("A", SharedData.get(KEY));
+	}
+
+	public void testExpiry() throws Exception {
+		SharedData.addData(KEY, "A", Duration.ofMillis(20), false);
+		SharedData.addData(KEY + "2", "B");
+		assertEquals("A", SharedData.get(KEY));
+		assertNotNull(SharedData.getEntry(KEY).getExpiresOn());
+
+		List<String> keys = new ArrayList<String>();
+		SharedDataListener l = (k, e) -> { if (e == null) keys.add(k); };
+		SharedData.addListener(KEY, l);
+		try {
+			Thread.sleep(40);
+			assertNull(SharedData.get(KEY));
+			assertEquals(1, SharedData.expire());
+			assertNull(SharedData.getEntry(KEY));
+			assertEquals("B", SharedData.get(KEY + "2"));
+			assertEquals(List.of(KEY), keys);
+		} finally {
+			SharedData.removeListener(l);
+			SharedData.purge("test");
+		}
+	}
+
+	public void testBudget() throws Exception {
+		char[] data = new char[4096];
+		Arrays.fill(data, 'x');
+		SharedData.addData(KEY + "1", new String(data), null, true);
+		Thread.sleep(5);
+		SharedData.addData(KEY + "2", new String(data), null, true);
+		SharedData.addData(KEY + "3", new String(data), null, false);
+
+		// Oldest reloadable entry is softened
+		SharedData.setMemoryBudget(10000);
+		SharedData.expire();
+		assertTrue(SharedData.getEntry(KEY + "1").isSoft());
+		assertFalse(SharedData.getEntry(KEY + "2").isSoft());
+		assertFalse(SharedData.getEntry(KEY + "3").isSoft());
+		assertTrue(SharedData.getEntry(KEY + "1").getSize() > 4096);
+		assertTrue(SharedData.getMemoryUse() <= 10000);
+
+		// Softened entry may be reclaimed, re-adding makes it strongly reachable
+		SharedData.addData(KEY + "1", new String(data), null, true);
+		assertFalse(SharedData.getEntry(KEY + "1").isSoft());
+		SharedData.purge("test");
+	}
+
+	public void testSnapshot() {
+		SharedData.addData(KEY + "B", "B", Duration.ofMinutes(1), true);
+		SharedData.addData(KEY + "A", "A");
+		List<SharedDataInfo> info = SharedData.getSnapshot().stream().filter(si -> si.getKey().startsWith(KEY)).toList();
+		assertEquals(2, info.size());
+		assertEquals(KEY + "A", info.get(0).getKey());
+		assertNull(info.get(0).getExpiresOn());
+		assertTrue(info.get(1).isReloadable());
+		assertNotNull(info.get(1).getExpiresOn());
+		assertEquals(SharedData.getVersion(KEY + "B"), info.get(1).getVersion());
+		assertTrue(SharedData.getData().contains(KEY + "A"));
+		SharedData.purge("test");
+	}
+}
@@ -0,0 +1,159 @@
+package org.gvagroup.common;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.concurrent.atomic.*;
+
+import junit.framework.TestCase;
+
+public class TestSharedRegion extends TestCase {
+
+	private Path _path;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		_path = Files.createTempFile("region", ".dat");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		SharedData.setRegion(null);
+		Files.deleteIfExists(_path);
+		Files.deleteIfExists(SharedRegion.getLockPath(_path));
+		super.tearDown();
+	}
+
+	public void testPublish() throws Exception {
+		try (SharedRegion w = SharedRegion.create(_path, 65536, 16); SharedRegion r = SharedRegion.open(_path)) {
+			assertNull(r.get("econ"));
+			assertEquals(0, r.getVersion("econ"));
+			long v1 = w.put("econ", new byte[] { 1, 2, 3 });
+			assertTrue(v1 > 0);
+			ByteBuffer b1 = r.get("econ");
+			assertEquals(3, b1.remaining());
+			assertTrue(b1.isReadOnly());
+
+			long v2 = w.put("econ", new byte[] { 4, 5 });
+			assertTrue(v2 > v1);
+			assertEquals(v2, r.getVersion("econ"));
+			assertEquals(4, r.get("econ").get(0));
+			assertEquals(1, b1.get(0));
+
+			w.remove("econ");
+			assertNull(r.get("econ"));
+			assertTrue(r.isValid());
+
+			try {
+				r.put("econ", new byte[1]);
+				fail("IllegalStateException expected");
+			} catch (IllegalStateException ise) {
+				// empty
+			}
+		}
+
+		try (SharedRegion r = SharedRegion.open(_path)) {
+			assertFalse(r.isValid());
+		}
+	}
+
+	public void testWriterLocked() throws Exception {
+		try (SharedRegion w = SharedRegion.create(_path, 8192, 2)) {
+			assertTrue(w.put("a", new byte[] { 1 }) > 0);
+			try (SharedRegion w2 = SharedRegion.create(_path, 8192, 2)) {
+				fail("IOException expected");
+			} catch (IOException ie) {
+				// empty
+			}
+
+			try (SharedRegion r = SharedRegion.open(_path)) {
+				assertTrue(r.isValid());
+				assertEquals(1, r.get("a").get(0));
+			}
+		}
+
+		try (SharedRegion w = SharedRegion.create(_path, 8192, 2)) {
+			assertNull(w.get("a"));
+		}
+	}
+
+	public void testDeadWriter() throws Exception {
+		try (SharedRegion w = SharedRegion.create(_path, 8192, 1); SharedRegion r = SharedRegion.open(_path)) {
+			assertTrue(w.put("a", new byte[] { 1 }) > 0);
+			try (FileChannel fc = FileChannel.open(_path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				ByteBuffer buf = fc.map(FileChannel.MapMode.READ_WRITE, 0, 8192).order(ByteOrder.nativeOrder());
+				buf.putLong(64, buf.getLong(64) + 1);
+			}
+
+			long st = System.nanoTime();
+			try {
+				r.get("a");
+				fail("IllegalStateException expected");
+			} catch (IllegalStateException ise) {
+				assertTrue((System.nanoTime() - st) < 5_000_000_000L);
+			}
+		}
+	}
+
+	public void testFull() throws Exception {
+		try (SharedRegion w = SharedRegion.create(_path, 8192, 2)) {
+			assertTrue(w.put("a", new byte[10]) > 0);
+			assertTrue(w.put("b", new byte[10]) > 0);
+			assertEquals(0, w.put("c", new byte[10]));
+			assertEquals(0, w.put("a", new byte[8192]));
+			assertTrue(w.put("a", new byte[20]) > 0);
+		}
+	}
+
+	public void testSharedData() throws Exception {
+		try (SharedRegion w = SharedRegion.create(_path, 65536, 16)) {
+			assertEquals(0, SharedData.addMapped("x", ByteBuffer.allocate(4)));
+			SharedData.setRegion(w);
+			assertTrue(SharedData.addMapped("x", ByteBuffer.wrap(new byte[] { 9, 9 })) > 0);
+			assertEquals(2, SharedData.getMapped("x").remaining());
+		}
+	}
+
+	public void testConcurrentReaders() throws Exception {
+		AtomicBoolean isRunning = new AtomicBoolean(true);
+		AtomicInteger errors = new AtomicInteger();
+		AtomicLong reads = new AtomicLong();
+		try (SharedRegion w = SharedRegion.create(_path, 64 * 1024 * 1024, 16); SharedRegion r = SharedRegion.open(_path)) {
+			w.put("data", ByteBuffer.allocate(64));
+			Thread[] readers = new Thread[4];
+			for (int x = 0; x < readers.length; x++) {
+				readers[x] = Thread.ofPlatform().start(() -> {
+					while (isRunning.get()) {
+						ByteBuffer buf = r.get("data");
+						long v = buf.getLong(0);
+						for (int ofs = 8; ofs < buf.limit(); ofs += 8) {
+							if (buf.getLong(ofs) != v)
+								errors.incrementAndGet();
+						}
+
+						reads.incrementAndGet();
+					}
+				});
+			}
+
+			ByteBuffer buf = ByteBuffer.allocate(64);
+			for (long v = 1; v <= 20000; v++) {
+				buf.clear();
+				while (buf.hasRemaining())
+					buf.putLong(v);
+
+				buf.flip();
+				assertTrue(w.put("data", buf) > 0);
+			}
+
+			isRunning.set(false);
+			for (Thread t : readers)
+				t.join();
+		}
+
+		assertEquals(0, errors.get());
+		assertTrue(reads.get() > 0);
+	}
+}
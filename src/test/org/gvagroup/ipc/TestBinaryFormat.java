@@ -0,0 +1,38 @@
+package org.gvagroup.ipc;
+
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+public class TestBinaryFormat extends TestCase {
+
+	public void testVarint() {
+		ByteBuffer buf = ByteBuffer.allocate(64);
+		long[] values = { 0, 1, 127, 128, 16384, Integer.MAX_VALUE, Long.MAX_VALUE, -1 };
+		for (long v : values) {
+			buf.clear();
+			BinaryFormat.putVarint(v, buf);
+			assertEquals(BinaryFormat.varintSize(v), buf.position());
+			buf.flip();
+			assertEquals(v, BinaryFormat.getVarint(buf));
+			assertEquals(v, BinaryFormat.unzigzag(BinaryFormat.zigzag(v)));
+		}
+
+		assertEquals(1, BinaryFormat.varintSize(BinaryFormat.zigzag(-1)));
+	}
+
+	public void testString() {
+		String[] values = { null, "", "KJFK", "Zürich", "東京", "😀", "\uD800x" };
+		for (ByteBuffer buf : new ByteBuffer[] { ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64) }) {
+			for (String s : values) {
+				buf.clear();
+				BinaryFormat.putString(s, buf);
+				assertEquals(BinaryFormat.stringSize(s), buf.position());
+				buf.flip();
+				String s2 = BinaryFormat.getString(buf);
+				assertEquals("\uD800x".equals(s) ? "?x" : s, s2);
+				assertFalse(buf.hasRemaining());
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package org.gvagroup.ipc;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.TestCase;
+
+public class TestDeltaTracker extends TestCase {
+
+	private static String read(byte[] data) throws Exception {
+		try (ObjectInputStream oi = new ObjectInputStream(new ByteArrayInputStream(data))) {
+			return (String) oi.readObject();
+		}
+	}
+
+	private static Collection<String> read(IPCDelta<?> d) throws Exception {
+		Collection<String> results = new TreeSet<String>();
+		for (byte[] data : d.getUpdates())
+			results.add(read(data));
+
+		return results;
+	}
+
+	public void testDelta() throws Exception {
+		DeltaTracker<Integer, String> dt = new DeltaTracker<Integer, String>(100);
+		Map<Integer, String> data = new HashMap<Integer, String>();
+		data.put(Integer.valueOf(1), "A1");
+		data.put(Integer.valueOf(2), "B1");
+		data.put(Integer.valueOf(3), "C1");
+		assertEquals(3, dt.update(data));
+
+		IPCDelta<Integer> d = dt.getDelta(0);
+		assertTrue(d.isFull());
+		assertEquals(Set.of("A1", "B1", "C1"), read(d));
+		long v = d.getVersion();
+
+		// No changes
+		assertEquals(0, dt.update(new HashMap<Integer, String>(data)));
+		d = dt.getDelta(v);
+		assertTrue(d.isEmpty());
+		assertEquals(v, d.getVersion());
+
+		// Change, add and remove
+		data.put(Integer.valueOf(2), "B2");
+		data.put(Integer.valueOf(4), "D1");
+		data.remove(Integer.valueOf(3));
+		assertEquals(3, dt.update(data));
+		d = dt.getDelta(v);
+		assertFalse(d.isFull());
+		assertEquals(Set.of("B2", "D1"), read(d));
+		assertEquals(List.of(Integer.valueOf(3)), d.getRemoved());
+		assertTrue(d.getVersion() > v);
+		assertTrue(dt.getDelta(d.getVersion()).isEmpty());
+
+		// Re-added key is no longer removed
+		assertTrue(dt.put(Integer.valueOf(3), "C2"));
+		d = dt.getDelta(v);
+		assertTrue(d.getRemoved().isEmpty());
+		assertEquals(Set.of("B2", "C2", "D1"), read(d));
+	}
+
+	public void testTooOld() throws Exception {
+		DeltaTracker<Integer, String> dt = new DeltaTracker<Integer, String>(16);
+		for (int x = 0; x < 32; x++)
+			dt.put(Integer.valueOf(x), String.valueOf(x));
+
+		long v = dt.getVersion();
+		for (int x = 0; x < 16; x++)
+			dt.remove(Integer.valueOf(x));
+
+		IPCDelta<Integer> d = dt.getDelta(v);
+		assertFalse(d.isFull());
+		assertEquals(16, d.getRemoved().size());
+
+		// Oldest removal discarded
+		dt.remove(Integer.valueOf(16));
+		d = dt.getDelta(v);
+		assertTrue(d.isFull());
+		assertEquals(15, d.getUpdates().size());
+		assertTrue(d.getRemoved().isEmpty());
+
+		// Version from the future
+		assertTrue(dt.getDelta(dt.getVersion() + 1).isFull());
+	}
+}
@@ -0,0 +1,200 @@
+package org.gvagroup.ipc;
+
+import java.io.*;
+import java.nio.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.*;
+
+import junit.framework.TestCase;
+
+public class TestIPCSchema extends TestCase {
+
+	private static final Logger log = LogManager.getLogger(TestIPCSchema.class);
+
+	private static final int ITERATIONS = 200;
+
+	public static class Position implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private int _id;
+		private String _callsign;
+		private double _lat;
+		private double _lng;
+		private int _alt;
+		private int _hdg;
+		private long _seq;
+		private Instant _date;
+		private WorkerState _state;
+		private boolean _isHidden;
+
+		public int getID() { return _id; }
+		public String getCallsign() { return _callsign; }
+		public double getLatitude() { return _lat; }
+		public double getLongitude() { return _lng; }
+		public int getAltitude() { return _alt; }
+		public int getHeading() { return _hdg; }
+		public long getSequence() { return _seq; }
+		public Instant getDate() { return _date; }
+		public WorkerState getState() { return _state; }
+		public boolean isHidden() { return _isHidden; }
+
+		public void setID(int id) { _id = id; }
+		public void setCallsign(String cs) { _callsign = cs; }
+		public void setLatitude(double lat) { _lat = lat; }
+		public void setLongitude(double lng) { _lng = lng; }
+		public void setAltitude(int alt) { _alt = alt; }
+		public void setHeading(int hdg) { _hdg = hdg; }
+		public void setSequence(long seq) { _seq = seq; }
+		public void setDate(Instant dt) { _date = dt; }
+		public void setState(WorkerState ws) { _state = ws; }
+		public void setHidden(boolean isHidden) { _isHidden = isHidden; }
+	}
+
+	private static final IPCSchema<Position> SCHEMA = IPCSchema.builder(Position::new).addInt("id", Position::getID, Position::setID)
+		.addString("callsign", Position::getCallsign, Position::setCallsign).addDouble("lat", Position::getLatitude, Position::setLatitude)
+		.addDouble("lng", Position::getLongitude, Position::setLongitude).addInt("alt", Position::getAltitude, Position::setAltitude)
+		.addInt("hdg", Position::getHeading, Position::setHeading).addLong("seq", Position::getSequence, Position::setSequence)
+		.addInstant("date", Position::getDate, Position::setDate).addEnum("state", WorkerState.class, Position::getState, Position::setState)
+		.addBoolean("hidden", Position::isHidden, Position::setHidden).build();
+
+	private static List<Position> sample(int size) {
+		Random rnd = new Random(1);
+		List<Position> results = new ArrayList<Position>();
+		for (int x = 0; x < size; x++) {
+			Position p = new Position();
+			p.setID(100000 + x);
+			p.setCallsign((x == 0) ? null : "GVA" + rnd.nextInt(9999));
+			p.setLatitude(rnd.nextDouble() * 180 - 90);
+			p.setLongitude(rnd.nextDouble() * 360 - 180);
+			p.setAltitude(rnd.nextInt(41000) - 100);
+			p.setHeading(rnd.nextInt(360));
+			p.setSequence(Long.MIN_VALUE + x);
+			p.setDate((x == 1) ? null : Instant.ofEpochMilli(1700000000000L + x));
+			p.setState((x == 2) ? null : WorkerState.values()[x % WorkerState.values().length]);
+			p.setHidden((x % 7) == 0);
+			results.add(p);
+		}
+
+		return results;
+	}
+
+	public void testRoundTrip() {
+		List<Position> data = sample(50);
+		List<Position> data2 = SCHEMA.decode(SCHEMA.encode(data));
+		assertEquals(data.size(), data2.size());
+		for (int x = 0; x < data.size(); x++) {
+			Position p = data.get(x);
+			Position p2 = data2.get(x);
+			assertEquals(p.getID(), p2.getID());
+			assertEquals(p.getCallsign(), p2.getCallsign());
+			assertEquals(p.getLatitude(), p2.getLatitude(), 0);
+			assertEquals(p.getLongitude(), p2.getLongitude(), 0);
+			assertEquals(p.getAltitude(), p2.getAltitude());
+			assertEquals(p.getHeading(), p2.getHeading());
+			assertEquals(p.getSequence(), p2.getSequence());
+			assertEquals(p.getDate(), p2.getDate());
+			assertEquals(p.getState(), p2.getState());
+			assertEquals(p.isHidden(), p2.isHidden());
+		}
+	}
+
+	public void testFingerprint() {
+		IPCSchema<Position> s2 = IPCSchema.builder(Position::new).addInt("id", Position::getID, Position::setID).build();
+		assertFalse(SCHEMA.getFingerprint() == s2.getFingerprint());
+		byte[] data = SCHEMA.encode(sample(2));
+		try {
+			s2.decode(data);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException iae) {
+			// empty
+		}
+
+		try {
+			SCHEMA.decode(Arrays.copyOf(data, data.length - 1));
+			fail("BufferUnderflowException expected");
+		} catch (BufferUnderflowException bue) {
+			// empty
+		}
+	}
+
+	public void testLargePayload() {
+		List<Position> data = sample(20000);
+		byte[] payload = SCHEMA.encode(data);
+		assertTrue(payload.length > 65536);
+		assertEquals(data.size(), SCHEMA.decode(payload).size());
+
+		// Pooled buffers are reused
+		long misses = IPCBufferPool.getMisses();
+		SCHEMA.encode(data);
+		assertEquals(misses, IPCBufferPool.getMisses());
+	}
+
+	public void testPayloadLimit() {
+		AtomicInteger calls = new AtomicInteger();
+		try {
+			IPCCodec.encodePayload(SCHEMA.getFingerprint(), 4096, buf -> {
+				calls.incrementAndGet();
+				throw new BufferOverflowException();
+			});
+
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException iae) {
+			// empty
+		}
+
+		assertEquals(15, calls.get());
+	}
+
+	public void testBenchmark() throws Exception {
+		List<Position> data = sample(500);
+
+		// Schema codec
+		long codecSize = 0;
+		long codecTime = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long st = System.nanoTime();
+			for (int x = 0; x < ITERATIONS; x++) {
+				byte[] payload = SCHEMA.encode(data);
+				codecSize = payload.length;
+				assertEquals(data.size(), SCHEMA.decode(payload).size());
+			}
+
+			codecTime = Math.min(codecTime, System.nanoTime() - st);
+		}
+
+		// Java serialization, one array per object
+		long javaSize = 0;
+		long javaTime = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long st = System.nanoTime();
+			for (int x = 0; x < (ITERATIONS / 10); x++) {
+				Collection<byte[]> payload = new ArrayList<byte[]>();
+				for (Position p : data) {
+					ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+					try (ObjectOutputStream oo = new ObjectOutputStream(out)) {
+						oo.writeObject(p);
+					}
+
+					payload.add(out.toByteArray());
+				}
+
+				javaSize = payload.stream().mapToLong(b -> b.length).sum();
+				for (byte[] b : payload) {
+					try (ObjectInputStream oi = new ObjectInputStream(new ByteArrayInputStream(b))) {
+						assertNotNull(oi.readObject());
+					}
+				}
+			}
+
+			javaTime = Math.min(javaTime, (System.nanoTime() - st) * 10);
+		}
+
+		log.info("IPCSchema {} bytes, {}us/payload - ObjectOutputStream {} bytes, {}us/payload", Long.valueOf(codecSize), Long.valueOf(codecTime / ITERATIONS / 1000),
+			Long.valueOf(javaSize), Long.valueOf(javaTime / ITERATIONS / 1000));
+		assertTrue(codecSize * 5 < javaSize);
+		assertTrue(codecTime * 5 < javaTime);
+	}
+}
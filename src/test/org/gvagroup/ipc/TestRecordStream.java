@@ -0,0 +1,162 @@
+package org.gvagroup.ipc;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+
+import junit.framework.TestCase;
+
+public class TestRecordStream extends TestCase {
+
+	private static final IPCSchema<TestIPCSchema.Position> SCHEMA = IPCSchema.builder(TestIPCSchema.Position::new)
+		.addInt("id", TestIPCSchema.Position::getID, TestIPCSchema.Position::setID)
+		.addString("callsign", TestIPCSchema.Position::getCallsign, TestIPCSchema.Position::setCallsign).build();
+
+	private static TestIPCSchema.Position position(int id, String callsign) {
+		TestIPCSchema.Position p = new TestIPCSchema.Position();
+		p.setID(id);
+		p.setCallsign(callsign);
+		return p;
+	}
+
+	private static class NullChannel implements WritableByteChannel {
+		private long _size;
+
+		@Override
+		public int write(ByteBuffer src) {
+			int len = src.remaining();
+			src.position(src.limit());
+			_size += len;
+			return len;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+			// empty
+		}
+	}
+
+	private static void roundTrip(int writeBufSize, int readBufSize) throws Exception {
+		char[] big = new char[5000];
+		Arrays.fill(big, 'x');
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (RecordWriter rw = new RecordWriter(Channels.newChannel(out), ByteBuffer.allocate(writeBufSize))) {
+			rw.writeObject("Hello");
+			rw.write(new byte[] { 1, 2, 3 });
+			rw.write(new byte[0]);
+			rw.write(position(1, "GVA100"), SCHEMA);
+			rw.write(position(2, new String(big)), SCHEMA);
+			rw.writeObject(new String(big));
+			assertEquals(6, rw.getCount());
+		}
+
+		try (RecordReader rr = new RecordReader(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), ByteBuffer.allocateDirect(readBufSize))) {
+			assertEquals("Hello", rr.readObject());
+			ByteBuffer data = rr.next();
+			assertEquals(3, data.remaining());
+			assertEquals(3, data.get(2));
+			assertEquals(0, rr.next().remaining());
+			assertEquals("GVA100", rr.read(SCHEMA).getCallsign());
+			TestIPCSchema.Position p = rr.read(SCHEMA);
+			assertEquals(2, p.getID());
+			assertEquals(big.length, p.getCallsign().length());
+			assertEquals(new String(big), rr.readObject());
+			assertNull(rr.next());
+			assertEquals(6, rr.getCount());
+		}
+	}
+
+	public void testRoundTrip() throws Exception {
+		roundTrip(65536, 65536);
+	}
+
+	public void testSmallBuffers() throws Exception {
+		roundTrip(16, 64);
+	}
+
+	public void testTruncated() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (RecordWriter rw = new RecordWriter(Channels.newChannel(out))) {
+			rw.writeObject("Hello");
+		}
+
+		byte[] data = out.toByteArray();
+		try (RecordReader rr = new RecordReader(Channels.newChannel(new ByteArrayInputStream(data, 0, data.length - 1)))) {
+			rr.next();
+			fail("EOFException expected");
+		} catch (EOFException eofe) {
+			// empty
+		}
+	}
+
+	public void testBufferOnly() throws Exception {
+		ByteBuffer buf = ByteBuffer.allocate(40);
+		RecordWriter rw = new RecordWriter(buf);
+		rw.write(new byte[20]);
+		try {
+			rw.write(position(1, "GVA100GVA100"), SCHEMA);
+			fail("BufferOverflowException expected");
+		} catch (BufferOverflowException boe) {
+			assertEquals(24, buf.position());
+		}
+
+		rw.write(position(1, "GVA"), SCHEMA);
+		buf.flip();
+		RecordReader rr = new RecordReader(buf);
+		assertEquals(20, rr.next().remaining());
+		assertEquals("GVA", rr.read(SCHEMA).getCallsign());
+		assertNull(rr.next());
+	}
+
+	public void testIPCInfo() throws Exception {
+		IPCInfo<String> info = () -> {
+			Collection<byte[]> results = new ArrayList<byte[]>();
+			for (String s : List.of("A", "B")) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				try (ObjectOutputStream oo = new ObjectOutputStream(out)) {
+					oo.writeObject(s);
+				} catch (IOException ie) {
+					throw new UncheckedIOException(ie);
+				}
+
+				results.add(out.toByteArray());
+			}
+
+			return results;
+		};
+
+		ByteBuffer buf = ByteBuffer.allocate(1024);
+		info.writeSerializedInfo(new RecordWriter(buf));
+		RecordReader rr = new RecordReader(buf.flip());
+		assertEquals("A", rr.readObject());
+		assertEquals("B", rr.readObject());
+		assertNull(rr.readObject());
+	}
+
+	public void testConstantMemory() throws Exception {
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		TestIPCSchema.Position p = position(1, "GVA100");
+		NullChannel ch = new NullChannel();
+		try (RecordWriter rw = new RecordWriter(ch)) {
+			for (int x = 0; x < 1000000; x++)
+				rw.write(p, SCHEMA);
+
+			long tID = Thread.currentThread().threadId();
+			long startBytes = mx.getThreadAllocatedBytes(tID);
+			for (int x = 0; x < 1000000; x++)
+				rw.write(p, SCHEMA);
+
+			long bytes = mx.getThreadAllocatedBytes(tID) - startBytes;
+			assertTrue(String.valueOf(bytes), bytes < 4096);
+		}
+
+		assertEquals(2000000L * 12, ch._size);
+	}
+}
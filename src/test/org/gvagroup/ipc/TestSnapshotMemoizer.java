@@ -0,0 +1,140 @@
+package org.gvagroup.ipc;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import junit.framework.TestCase;
+
+public class TestSnapshotMemoizer extends TestCase {
+
+	public void testConcurrentBuild() throws Exception {
+		AtomicInteger builds = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		SnapshotMemoizer<String> sm = new SnapshotMemoizer<String>(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+
+			return "v" + builds.incrementAndGet();
+		}, Duration.ofMinutes(1), null);
+
+		List<Future<String>> results = new ArrayList<Future<String>>();
+		try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+			results.add(exec.submit(sm::get));
+			started.await();
+			for (int x = 0; x < 9; x++)
+				results.add(exec.submit(sm::get));
+
+			Thread.sleep(25);
+			release.countDown();
+			for (Future<String> f : results)
+				assertEquals("v1", f.get());
+		}
+
+		assertEquals(1, builds.get());
+		assertEquals(1, sm.getBuilds());
+		assertEquals(9, sm.getHits());
+	}
+
+	public void testExpiry() throws Exception {
+		AtomicInteger builds = new AtomicInteger();
+		SnapshotMemoizer<Integer> sm = new SnapshotMemoizer<Integer>(() -> Integer.valueOf(builds.incrementAndGet()), Duration.ofMillis(30), null);
+		assertEquals(1, sm.get().intValue());
+		assertEquals(1, sm.get().intValue());
+		Thread.sleep(40);
+		assertEquals(2, sm.get().intValue());
+		sm.invalidate();
+		assertEquals(3, sm.get().intValue());
+	}
+
+	public void testVersion() {
+		AtomicLong version = new AtomicLong(1);
+		AtomicInteger builds = new AtomicInteger();
+		SnapshotMemoizer<Integer> sm = new SnapshotMemoizer<Integer>(() -> Integer.valueOf(builds.incrementAndGet()), Duration.ofMinutes(1), version::get);
+		assertEquals(1, sm.get().intValue());
+		assertEquals(1, sm.get().intValue());
+		version.incrementAndGet();
+		assertEquals(2, sm.get().intValue());
+		assertEquals(2, sm.get().intValue());
+	}
+
+	public void testVersionDuringBuild() throws Exception {
+		AtomicLong version = new AtomicLong(1);
+		AtomicInteger builds = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		SnapshotMemoizer<String> sm = new SnapshotMemoizer<String>(() -> {
+			long v = version.get();
+			if (builds.incrementAndGet() == 1) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			return "v" + v;
+		}, Duration.ofMinutes(1), version::get);
+
+		try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<String> f1 = exec.submit(sm::get);
+			started.await();
+
+			// A caller that sees the new version must not return the build started for the old one
+			version.incrementAndGet();
+			Future<String> f2 = exec.submit(sm::get);
+			Thread.sleep(25);
+			release.countDown();
+			assertEquals("v1", f1.get());
+			assertEquals("v2", f2.get());
+		}
+
+		assertEquals(2, sm.getBuilds());
+		assertEquals("v2", sm.get());
+	}
+
+	public void testFailure() {
+		AtomicInteger builds = new AtomicInteger();
+		SnapshotMemoizer<Integer> sm = new SnapshotMemoizer<Integer>(() -> {
+			if (builds.incrementAndGet() == 1)
+				throw new IllegalStateException("test");
+
+			return Integer.valueOf(builds.get());
+		}, Duration.ofMinutes(1), null);
+
+		try {
+			sm.get();
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException ise) {
+			// empty
+		}
+
+		assertEquals(2, sm.get().intValue());
+	}
+
+	public void testIPCInfo() {
+		AtomicInteger calls = new AtomicInteger();
+		IPCInfo<String> info = () -> {
+			calls.incrementAndGet();
+			return new ArrayList<byte[]>(List.of(new byte[] { 1 }));
+		};
+
+		SnapshotMemoizer<Collection<byte[]>> sm = SnapshotMemoizer.of(info, Duration.ofMinutes(1), null);
+		Collection<byte[]> data = sm.get();
+		assertSame(data, sm.get());
+		assertEquals(1, calls.get());
+		try {
+			data.clear();
+			fail("UnsupportedOperationException expected");
+		} catch (UnsupportedOperationException uoe) {
+			// empty
+		}
+	}
+}
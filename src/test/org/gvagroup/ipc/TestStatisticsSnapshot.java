@@ -0,0 +1,60 @@
+package org.gvagroup.ipc;
+
+import java.util.*;
+
+import junit.framework.TestCase;
+
+public class TestStatisticsSnapshot extends TestCase {
+
+	private static StatisticsSnapshot sample(int size) {
+		StatisticsSnapshot.Builder b = StatisticsSnapshot.builder("msgsIn", "msgsOut", "bytesIn");
+		for (int x = 0; x < size; x++)
+			b.add("Connection-" + x, x, x * 2, x * 100);
+
+		return b.build();
+	}
+
+	public void testSnapshot() {
+		StatisticsSnapshot ss = sample(40);
+		assertEquals(40, ss.size());
+		assertEquals(List.of("msgsIn", "msgsOut", "bytesIn"), ss.getColumns());
+		assertEquals(1, ss.getColumn("msgsOut"));
+		assertEquals("Connection-3", ss.getKey(3));
+		assertEquals(6, ss.get(3, 1));
+		assertEquals(780, ss.sum("msgsIn"));
+		assertEquals(3900, ss.max("bytesIn"));
+		assertEquals(40, ss.getValues("msgsIn").length);
+
+		List<StatisticsSnapshot.Row> rows = ss.getRows();
+		assertEquals(40, rows.size());
+		assertEquals("Connection-5", rows.get(5).getKey());
+		assertEquals(500, rows.get(5).get("bytesIn"));
+
+		StatisticsSnapshot empty = sample(0);
+		assertEquals(0, empty.size());
+		assertEquals(0, empty.max("msgsIn"));
+	}
+
+	public void testInvalid() {
+		try {
+			StatisticsSnapshot.builder("a", "a");
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException iae) {
+			// empty
+		}
+
+		try {
+			StatisticsSnapshot.builder("a", "b").add("x", 1);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException iae) {
+			// empty
+		}
+
+		try {
+			sample(1).sum("c");
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException iae) {
+			// empty
+		}
+	}
+}
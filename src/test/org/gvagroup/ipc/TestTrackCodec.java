@@ -0,0 +1,266 @@
+package org.gvagroup.ipc;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.util.*;
+
+import org.apache.logging.log4j.*;
+
+import junit.framework.TestCase;
+
+public class TestTrackCodec extends TestCase {
+
+	private static final Logger log = LogManager.getLogger(TestTrackCodec.class);
+
+	private static final int ITERATIONS = 100;
+
+	public static class RouteEntry implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private double _lat;
+		private double _lng;
+		private int _alt;
+		private int _hdg;
+		private int _spd;
+		private long _time;
+
+		public double getLatitude() { return _lat; }
+		public double getLongitude() { return _lng; }
+		public int getAltitude() { return _alt; }
+		public int getHeading() { return _hdg; }
+		public int getSpeed() { return _spd; }
+		public long getTime() { return _time; }
+
+		public void setLatitude(double lat) { _lat = lat; }
+		public void setLongitude(double lng) { _lng = lng; }
+		public void setAltitude(int alt) { _alt = alt; }
+		public void setHeading(int hdg) { _hdg = hdg; }
+		public void setSpeed(int spd) { _spd = spd; }
+		public void setTime(long time) { _time = time; }
+	}
+
+	private static final TrackCodec<RouteEntry> CODEC = TrackCodec.builder(RouteEntry::new, RouteEntry::getLatitude, RouteEntry::setLatitude, RouteEntry::getLongitude, RouteEntry::setLongitude)
+		.addInt("alt", RouteEntry::getAltitude, RouteEntry::setAltitude).addInt("hdg", RouteEntry::getHeading, RouteEntry::setHeading)
+		.addInt("spd", RouteEntry::getSpeed, RouteEntry::setSpeed).addLong("time", RouteEntry::getTime, RouteEntry::setTime).build();
+
+	private static final IPCSchema<RouteEntry> SCHEMA = IPCSchema.builder(RouteEntry::new).addDouble("lat", RouteEntry::getLatitude, RouteEntry::setLatitude)
+		.addDouble("lng", RouteEntry::getLongitude, RouteEntry::setLongitude).addInt("alt", RouteEntry::getAltitude, RouteEntry::setAltitude)
+		.addInt("hdg", RouteEntry::getHeading, RouteEntry::setHeading).addInt("spd", RouteEntry::getSpeed, RouteEntry::setSpeed)
+		.addLong("time", RouteEntry::getTime, RouteEntry::setTime).build();
+
+	/*
+	 * Generates a great circle track between two points, with a climb, cruise and descent, sampled every 5 seconds with GPS jitter.
+	 */
+	private static List<RouteEntry> track(double lat1, double lng1, double lat2, double lng2, int minutes) {
+		Random rnd = new Random(1);
+		double p1 = Math.toRadians(lat1);
+		double l1 = Math.toRadians(lng1);
+		double p2 = Math.toRadians(lat2);
+		double l2 = Math.toRadians(lng2);
+		double d = 2 * Math.asin(Math.sqrt(Math.pow(Math.sin((p2 - p1) / 2), 2) + Math.cos(p1) * Math.cos(p2) * Math.pow(Math.sin((l2 - l1) / 2), 2)));
+		int size = minutes * 12;
+		List<RouteEntry> results = new ArrayList<RouteEntry>(size);
+		for (int x = 0; x < size; x++) {
+			double f = x / (double) (size - 1);
+			double a = Math.sin((1 - f) * d) / Math.sin(d);
+			double b = Math.sin(f * d) / Math.sin(d);
+			double cx = a * Math.cos(p1) * Math.cos(l1) + b * Math.cos(p2) * Math.cos(l2);
+			double cy = a * Math.cos(p1) * Math.sin(l1) + b * Math.cos(p2) * Math.sin(l2);
+			double cz = a * Math.sin(p1) + b * Math.sin(p2);
+			RouteEntry re = new RouteEntry();
+			re.setLatitude(Math.toDegrees(Math.atan2(cz, Math.sqrt(cx * cx + cy * cy))) + (rnd.nextGaussian() * 0.00002));
+			re.setLongitude(Math.toDegrees(Math.atan2(cy, cx)) + (rnd.nextGaussian() * 0.00002));
+			int min = x / 12;
+			if (min < 25)
+				re.setAltitude(x * 123);
+			else if (min > (minutes - 30))
+				re.setAltitude(Math.max(0, (size - x) * 103));
+			else
+				re.setAltitude((min < (minutes / 2)) ? 35000 : 37000);
+
+			re.setSpeed((re.getAltitude() > 10000) ? 480 + rnd.nextInt(5) : 250);
+			if (x > 0) {
+				RouteEntry pre = results.get(x - 1);
+				double dLng = Math.toRadians(re.getLongitude() - pre.getLongitude());
+				double y = Math.sin(dLng) * Math.cos(Math.toRadians(re.getLatitude()));
+				double z = Math.cos(Math.toRadians(pre.getLatitude())) * Math.sin(Math.toRadians(re.getLatitude())) - Math.sin(Math.toRadians(pre.getLatitude())) * Math.cos(Math.toRadians(re.getLatitude())) * Math.cos(dLng);
+				re.setHeading((int) ((Math.toDegrees(Math.atan2(y, z)) + 360) % 360));
+			}
+
+			re.setTime(1700000000000L + (x * 5000L) + rnd.nextInt(50));
+			results.add(re);
+		}
+
+		return results;
+	}
+
+	/*
+	 * Returns the distance in meters between a point and a segment.
+	 */
+	private static double distance(RouteEntry p, RouteEntry a, RouteEntry b) {
+		double cosLat = Math.cos(Math.toRadians(a.getLatitude()));
+		double bx = (b.getLongitude() - a.getLongitude()) * cosLat;
+		double by = b.getLatitude() - a.getLatitude();
+		double px = (p.getLongitude() - a.getLongitude()) * cosLat;
+		double py = p.getLatitude() - a.getLatitude();
+		double len = bx * bx + by * by;
+		double t = (len == 0) ? 0 : Math.max(0, Math.min(1, (px * bx + py * by) / len));
+		return Math.toRadians(Math.hypot(px - t * bx, py - t * by)) * 6371008.8;
+	}
+
+	public void testRoundTrip() {
+		List<RouteEntry> data = track(40.6413, -73.7781, 51.4700, -0.4543, 420);
+		List<RouteEntry> data2 = CODEC.decode(CODEC.encode(data));
+		assertEquals(data.size(), data2.size());
+		for (int x = 0; x < data.size(); x++) {
+			RouteEntry re = data.get(x);
+			RouteEntry re2 = data2.get(x);
+			assertEquals(re.getLatitude(), re2.getLatitude(), 0.000005);
+			assertEquals(re.getLongitude(), re2.getLongitude(), 0.000005);
+			assertEquals(re.getAltitude(), re2.getAltitude());
+			assertEquals(re.getHeading(), re2.getHeading());
+			assertEquals(re.getSpeed(), re2.getSpeed());
+			assertEquals(re.getTime(), re2.getTime());
+		}
+
+		assertTrue(CODEC.decode(CODEC.encode(Collections.emptyList())).isEmpty());
+
+		// Lower precision
+		TrackCodec<RouteEntry> tc = TrackCodec.builder(RouteEntry::new, RouteEntry::getLatitude, RouteEntry::setLatitude, RouteEntry::getLongitude, RouteEntry::setLongitude)
+			.setPrecision(3).build();
+		byte[] payload = tc.encode(data);
+		assertTrue(payload.length < CODEC.encode(data).length);
+		List<RouteEntry> data3 = tc.decode(payload);
+		assertEquals(data.get(100).getLatitude(), data3.get(100).getLatitude(), 0.0005);
+	}
+
+	public void testSimplify() {
+		List<RouteEntry> data = track(40.6413, -73.7781, 51.4700, -0.4543, 420);
+		List<RouteEntry> data2 = CODEC.decode(CODEC.encode(data, 50));
+		assertTrue(data2.size() < (data.size() / 10));
+		assertEquals(data.get(0).getTime(), data2.get(0).getTime());
+		assertEquals(data.getLast().getTime(), data2.getLast().getTime());
+
+		// Every discarded entry is within the tolerance of the simplified track
+		int idx = 0;
+		for (RouteEntry re : data) {
+			while (data2.get(idx + 1).getTime() < re.getTime())
+				idx++;
+
+			assertTrue(distance(re, data2.get(idx), data2.get(idx + 1)) < 50.5);
+		}
+
+		// Short tracks are not simplified
+		assertEquals(2, CODEC.decode(CODEC.encode(data.subList(0, 2), 1000)).size());
+	}
+
+	public void testAntimeridian() {
+		List<RouteEntry> data = track(35.7647, 140.3864, 21.3187, -157.9225, 400);
+		List<RouteEntry> data2 = CODEC.decode(CODEC.encode(data));
+		for (int x = 0; x < data.size(); x++)
+			assertEquals(data.get(x).getLongitude(), data2.get(x).getLongitude(), 0.000005);
+
+		int cnt = CODEC.decode(CODEC.encode(data, 1000)).size();
+		assertTrue(String.valueOf(cnt), cnt < 50);
+	}
+
+	public void testFingerprint() {
+		TrackCodec<RouteEntry> tc = TrackCodec.builder(RouteEntry::new, RouteEntry::getLatitude, RouteEntry::setLatitude, RouteEntry::getLongitude, RouteEntry::setLongitude).build();
+		assertFalse(CODEC.getFingerprint() == tc.getFingerprint());
+		byte[] data = CODEC.encode(track(40.6413, -73.7781, 51.4700, -0.4543, 60));
+		try {
+			tc.decode(data);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException iae) {
+			// empty
+		}
+
+		try {
+			CODEC.decode(Arrays.copyOf(data, data.length - 1));
+			fail("BufferUnderflowException expected");
+		} catch (BufferUnderflowException bue) {
+			// empty
+		}
+	}
+
+	public void testBenchmark() throws Exception {
+		List<RouteEntry> data = track(40.6413, -73.7781, 51.4700, -0.4543, 420);
+
+		// Track codec
+		long trackSize = 0;
+		long trackTime = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long st = System.nanoTime();
+			for (int x = 0; x < ITERATIONS; x++) {
+				byte[] payload = CODEC.encode(data);
+				trackSize = payload.length;
+				assertEquals(data.size(), CODEC.decode(payload).size());
+			}
+
+			trackTime = Math.min(trackTime, System.nanoTime() - st);
+		}
+
+		// Simplified track
+		long simpleSize = 0;
+		long simpleTime = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long st = System.nanoTime();
+			for (int x = 0; x < ITERATIONS; x++) {
+				byte[] payload = CODEC.encode(data, 25);
+				simpleSize = payload.length;
+				assertFalse(CODEC.decode(payload).isEmpty());
+			}
+
+			simpleTime = Math.min(simpleTime, System.nanoTime() - st);
+		}
+
+		// Schema codec
+		long schemaSize = 0;
+		long schemaTime = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long st = System.nanoTime();
+			for (int x = 0; x < ITERATIONS; x++) {
+				byte[] payload = SCHEMA.encode(data);
+				schemaSize = payload.length;
+				assertEquals(data.size(), SCHEMA.decode(payload).size());
+			}
+
+			schemaTime = Math.min(schemaTime, System.nanoTime() - st);
+		}
+
+		// Java serialization, one array per object
+		long javaSize = 0;
+		long javaTime = Long.MAX_VALUE;
+		for (int run = 0; run < 3; run++) {
+			long st = System.nanoTime();
+			for (int x = 0; x < (ITERATIONS / 10); x++) {
+				Collection<byte[]> payload = new ArrayList<byte[]>();
+				for (RouteEntry re : data) {
+					ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+					try (ObjectOutputStream oo = new ObjectOutputStream(out)) {
+						oo.writeObject(re);
+					}
+
+					payload.add(out.toByteArray());
+				}
+
+				javaSize = payload.stream().mapToLong(b -> b.length).sum();
+				for (byte[] b : payload) {
+					try (ObjectInputStream oi = new ObjectInputStream(new ByteArrayInputStream(b))) {
+						assertNotNull(oi.readObject());
+					}
+				}
+			}
+
+			javaTime = Math.min(javaTime, (System.nanoTime() - st) * 10);
+		}
+
+		log.info("{} entries - TrackCodec {} bytes, {}us/track - simplified {} bytes, {}us/track - IPCSchema {} bytes, {}us/track - ObjectOutputStream {} bytes, {}us/track",
+			Integer.valueOf(data.size()), Long.valueOf(trackSize), Long.valueOf(trackTime / ITERATIONS / 1000), Long.valueOf(simpleSize), Long.valueOf(simpleTime / ITERATIONS / 1000),
+			Long.valueOf(schemaSize), Long.valueOf(schemaTime / ITERATIONS / 1000), Long.valueOf(javaSize), Long.valueOf(javaTime / ITERATIONS / 1000));
+		assertTrue(trackSize * 2 < schemaSize);
+		assertTrue(simpleSize * 10 < trackSize);
+		assertTrue(trackSize * 10 < javaSize);
+		assertTrue(trackTime * 5 < javaTime);
+	}
+}
@@ -0,0 +1,97 @@
+package org.gvagroup.ipc;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.*;
+
+import junit.framework.TestCase;
+
+public class TestWorkerStatus extends TestCase {
+
+	public void testExecution() throws Exception {
+		WorkerStatus ws = new WorkerStatus("Test", 1);
+		assertEquals(0, ws.getExecutionTime());
+		assertEquals(0, ws.getInFlightTime());
+		ws.execute();
+		Thread.sleep(20);
+		assertTrue(ws.getInFlightTime() >= 20);
+		ws.complete();
+		assertEquals(0, ws.getInFlightTime());
+		long execTime = ws.getExecutionTime();
+		assertTrue(execTime >= 20);
+		Thread.sleep(5);
+		assertEquals(execTime, ws.getExecutionTime());
+
+		ws.execute();
+		ws.fail();
+		ws.complete();
+		assertEquals(3, ws.getExecutionCount());
+		assertEquals(1, ws.getErrorCount());
+
+		LatencyHistogram h = ws.getExecutionHistogram();
+		assertEquals(2, h.getCount());
+		assertTrue(h.getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+		assertTrue(ws.getThroughput() > 0);
+	}
+
+	public void testHistogramAdd() {
+		LatencyHistogram h = new LatencyHistogram();
+		LatencyHistogram h2 = new LatencyHistogram();
+		for (int x = 1; x <= 100; x++) {
+			h.record(x * 1000);
+			h2.record(x * 100000);
+		}
+
+		h.add(h2);
+		assertEquals(200, h.getCount());
+		assertEquals(100 * 100000, h.getMax());
+		assertTrue(h.getPercentile(50) <= 125 * 1000);
+		assertTrue(h.getPercentile(99) > 125 * 1000);
+	}
+
+	public void testLongestInFlight() throws Exception {
+		WorkerStatus ws = new WorkerStatus("Worker-1", 1);
+		WorkerStatus ws2 = new WorkerStatus("Worker-2", 1);
+		PoolWorkerInfo info = () -> List.of(ws, ws2);
+		assertEquals(0, info.getLongestInFlight());
+		ws.execute();
+		Thread.sleep(15);
+		ws2.execute();
+		assertTrue(info.getLongestInFlight() >= 15);
+		ws.complete();
+		assertTrue(info.getLongestInFlight() < 15);
+	}
+
+	public void testConcurrentReaders() throws Exception {
+		WorkerStatus ws = new WorkerStatus("Test", 1);
+		AtomicBoolean isRunning = new AtomicBoolean(true);
+		AtomicLong errors = new AtomicLong();
+		List<Thread> readers = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			readers.add(Thread.ofPlatform().start(() -> {
+				while (isRunning.get()) {
+					if ((ws.getExecutionTime() < 0) || (ws.getInFlightTime() < 0) || (ws.getExecutionHistogram().getCount() > ws.getExecutionCount()))
+						errors.incrementAndGet();
+				}
+			}));
+		}
+
+		for (int x = 0; x < 200000; x++) {
+			ws.execute();
+			ws.setMessage("Execution " + x);
+			if ((x % 10) == 0)
+				ws.fail();
+			else
+				ws.complete();
+		}
+
+		isRunning.set(false);
+		for (Thread t : readers)
+			t.join();
+
+		assertEquals(0, errors.get());
+		assertEquals(200000, ws.getExecutionCount());
+		assertEquals(20000, ws.getErrorCount());
+		assertEquals(200000, ws.getExecutionHistogram().getCount());
+	}
+}
@@ -94,4 +94,25 @@ public class TestConnectionPool extends TestCase {
         _pool.release(c3);
         _pool.close();
     }
+    
+    public void testStream() throws Exception {
+        _pool.setProperties(_props);
+        _pool.connect(1);
+        try (ResultStream<Integer> rs = _pool.stream("SELECT ? AS ID UNION ALL SELECT ?", 1, r -> Integer.valueOf(r.getInt("id")), Integer.valueOf(1), Integer.valueOf(2))) {
+        	assertTrue(rs.hasNext());
+        	assertEquals(1, rs.next().intValue());
+        	assertEquals(2, rs.next().intValue());
+        	assertFalse(rs.hasNext());
+        	assertTrue(rs.isClosed());
+        	assertEquals(2, rs.getRowCount());
+        }
+        
+        try (ResultStream<Integer> rs = _pool.stream("SELECT 1 AS ID UNION ALL SELECT 2", 1, r -> Integer.valueOf(r.getInt(1)))) {
+        	assertEquals(3, rs.stream().mapToInt(Integer::intValue).sum());
+        }
+        
+        Connection c = _pool.getConnection();
+        assertNotNull(c);
+        _pool.release(c);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package org.gvagroup.pool;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gvagroup.common.*;
+
+import junit.framework.TestCase;
+
+public class TestQueryCache extends TestCase {
+
+	private JDBCPool _pool;
+	private MockCache _cache;
+
+	private static class MockCache extends QueryCache {
+		private final AtomicInteger _loadCount = new AtomicInteger();
+		private volatile long _loadTime;
+		private volatile long _rowSize = 64;
+
+		MockCache(JDBCPool pool, Duration ttl, long maxSize) {
+			super(pool, ttl, maxSize);
+		}
+
+		@Override
+		CacheEntry load(QueryKey key, CacheTag tag, RowMapper<?> mapper) {
+			int cnt = _loadCount.incrementAndGet();
+			try {
+				if (_loadTime > 0) Thread.sleep(_loadTime);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+
+			return new CacheEntry(List.of(key.toString(), Integer.valueOf(cnt)), _rowSize, System.nanoTime() + Duration.ofSeconds(5).toNanos(), tag);
+		}
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		_pool = new JDBCPool(1, "test");
+		_cache = new MockCache(_pool, Duration.ofSeconds(5), 16384);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		_cache.close();
+		_pool.close();
+		super.tearDown();
+	}
+
+	public void testHit() throws Exception {
+		RowMapper<String> rm = r -> r.getString(1);
+		List<String> r1 = _cache.query("SELECT 1", rm);
+		List<String> r2 = _cache.query("SELECT 1", rm);
+		assertSame(r1, r2);
+		assertEquals(1, _cache._loadCount.get());
+
+		_cache.query("SELECT ?", rm, Integer.valueOf(1));
+		_cache.query("SELECT ?", rm, Integer.valueOf(2));
+		assertEquals(3, _cache._loadCount.get());
+		assertEquals(1, _cache.getInfo().getHits());
+		assertEquals(3, _cache.getInfo().getMisses());
+		assertEquals(3, _cache.getInfo().getSize());
+		assertSame(_cache.getInfo(), SharedData.get(QueryCache.getInfoKey("test")));
+	}
+
+	private static RowMapper<String> mapper(int col) {
+		return r -> r.getString(col);
+	}
+
+	public void testMapperIdentity() throws Exception {
+		RowMapper<String> rm1 = mapper(1);
+		RowMapper<String> rm2 = mapper(2);
+		assertSame(rm1.getClass(), rm2.getClass());
+		List<String> r1 = _cache.query("SELECT 1, 2", rm1);
+		List<String> r2 = _cache.query("SELECT 1, 2", rm2);
+		assertNotSame(r1, r2);
+		assertEquals(2, _cache._loadCount.get());
+		assertSame(r2, _cache.query("SELECT 1, 2", rm2));
+	}
+
+	public void testClose() throws Exception {
+		JDBCPool pool = new JDBCPool(1, "test2");
+		MockCache qc = new MockCache(pool, Duration.ofSeconds(5), 16384);
+		String key = QueryCache.getInfoKey("test2");
+		assertSame(qc.getInfo(), SharedData.get(key));
+		assertSame(_cache.getInfo(), SharedData.get(QueryCache.getInfoKey("test")));
+		qc.close();
+		assertNull(SharedData.get(key));
+		assertNotNull(SharedData.get(QueryCache.getInfoKey("test")));
+		pool.close();
+	}
+
+	public void testSingleFlight() throws Exception {
+		_cache._loadTime = 200;
+		RowMapper<String> rm = r -> r.getString(1);
+		ExecutorService ex = Executors.newFixedThreadPool(8);
+		Collection<Future<List<String>>> results = new ArrayList<Future<List<String>>>();
+		for (int x = 0; x < 8; x++)
+			results.add(ex.submit(() -> _cache.query("SELECT 2", rm)));
+
+		for (Future<List<String>> f : results)
+			assertEquals(2, f.get().size());
+
+		ex.shutdown();
+		assertEquals(1, _cache._loadCount.get());
+		assertEquals(7, _cache.getInfo().getSharedLoads());
+	}
+
+	public void testInvalidation() throws Exception {
+		RowMapper<String> rm = r -> r.getString(1);
+		_cache.query(new CacheTag("KATL", EventType.AIRPORT_RENAME), "SELECT 3", rm);
+		_cache.query(new CacheTag("KORD", EventType.AIRPORT_RENAME), "SELECT 4", rm);
+		_cache.query(new CacheTag("123", EventType.USER_INVALIDATE), "SELECT 5", rm);
+		assertEquals(3, _cache.getInfo().getSize());
+
+		_cache.invalidate(new IDEvent(EventType.AIRPORT_RENAME, "KATL"));
+		assertEquals(2, _cache.getInfo().getSize());
+		_cache.invalidate(new UserEvent(EventType.USER_INVALIDATE, 123));
+		assertEquals(1, _cache.getInfo().getSize());
+
+		// Wait for the listener to register before sending
+		Thread.sleep(100);
+		EventDispatcher.send(new SystemEvent(EventType.CACHE_FLUSH));
+		Thread.sleep(100);
+		assertEquals(0, _cache.getInfo().getSize());
+		assertEquals(0, _cache.getInfo().getMemoryUse());
+		assertEquals(3, _cache.getInfo().getInvalidations());
+	}
+
+	public void testInvalidationDuringLoad() throws Exception {
+		_cache._loadTime = 200;
+		RowMapper<String> rm = r -> r.getString(1);
+		ExecutorService ex = Executors.newFixedThreadPool(2);
+		Future<List<String>> f1 = ex.submit(() -> _cache.query(new CacheTag("KATL", EventType.AIRPORT_RENAME), "SELECT 6", rm));
+		Future<List<String>> f2 = ex.submit(() -> _cache.query(new CacheTag("KORD", EventType.AIRPORT_RENAME), "SELECT 7", rm));
+		Thread.sleep(50);
+
+		// Only the load affected by the event is not cached
+		_cache.invalidate(new IDEvent(EventType.AIRPORT_RENAME, "KORD"));
+		_cache.invalidate(new UserEvent(EventType.USER_INVALIDATE, 123));
+		assertEquals(2, f1.get().size());
+		assertEquals(2, f2.get().size());
+		ex.shutdown();
+		assertEquals(1, _cache.getInfo().getSize());
+		assertSame(f1.get(), _cache.query(new CacheTag("KATL", EventType.AIRPORT_RENAME), "SELECT 6", rm));
+		assertNotSame(f2.get(), _cache.query(new CacheTag("KORD", EventType.AIRPORT_RENAME), "SELECT 7", rm));
+	}
+
+	public void testEviction() throws Exception {
+		_cache._rowSize = 1024;
+		RowMapper<String> rm = r -> r.getString(1);
+		for (int x = 0; x < 32; x++)
+			_cache.query("SELECT ?", rm, Integer.valueOf(x));
+
+		assertTrue(_cache.getInfo().getMemoryUse() <= 16384);
+		assertTrue(_cache.getInfo().getEvictions() > 0);
+
+		// Most recently used should still be cached
+		_cache.query("SELECT ?", rm, Integer.valueOf(31));
+		assertEquals(32, _cache._loadCount.get());
+	}
+}
@@ -58,6 +58,19 @@ public class TestSharedWorker extends TestCase implements Thread.UncaughtExcepti
 		SharedWorker.clear(this.getClass().getClassLoader());
 	}
 	
+	public void testDataMonitor() throws Exception {
+		SharedWorkerListener swl = new SharedWorkerListener();
+		swl.onStartup(false);
+		assertTrue(SharedWorker.isRegistered(SharedDataMonitor.class));
+
+		// Stopping the worker clears the queue, so restarting registers the task again
+		swl.onShutdown(false);
+		assertFalse(SharedWorker.isRegistered(SharedDataMonitor.class));
+		swl.onStartup(false);
+		assertTrue(SharedWorker.isRegistered(SharedDataMonitor.class));
+		swl.onShutdown(false);
+	}
+	
 	public void testStop() throws Exception {
 		
 		DummyTask dt = new DummyTask(250, 2500);